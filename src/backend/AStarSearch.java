@@ -0,0 +1,157 @@
+package backend;
+
+import java.util.ArrayList;
+
+import utils.IntDoubleHeap;
+import utils.Metric;
+
+/**
+ * AStarSearch finds the least cost route between two places with an iterative A* search.
+ * Every place is settled at most once, the best known cost of every discovered place is kept
+ * and the route is rebuilt by following parent pointers back from the destination.
+ * The search runs over a CompiledGraph, so places are addressed by their id and all search
+ * state lives in primitive arrays that are allocated once and reused by every query; a query
+ * number marks which entries belong to the current query instead of clearing the arrays.
+ * The estimate of the remaining cost comes from a Heuristic, so the same search runs with the
+ * straight line estimates or with landmark bounds. A RoadFilter is checked against the road type
+ * of every edge as it is relaxed.
+ * graph - the graph that is searched
+ * offsets, targets, weights, roadTypes - the edge arrays of the graph for the cost function
+ * cost - best known cost from the start to each discovered place
+ * parent - id of the place each discovered place was reached from, -1 for the start
+ * reached - number of the query that last wrote cost and parent of each place
+ * settled - number of the query that last settled each place
+ * open - heap of discovered places that are not settled yet keyed by estimated total cost
+ * query - number of the current query
+ * heuristic - lower bound of the remaining cost
+ * settledCount - number of places settled by the last query
+ */
+public class AStarSearch {
+
+	private final CompiledGraph graph;
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] weights;
+	private final byte[] roadTypes;
+	private final double[] cost;
+	private final int[] parent;
+	private final int[] reached;
+	private final int[] settled;
+	private final IntDoubleHeap open;
+	private int query;
+	private final Heuristic heuristic;
+	private int settledCount;
+
+	/**
+	 * The constructor allocates the search arrays for the given graph and cost function
+	 * @param graph the graph to search
+	 * @param metric the cost function
+	 * @param heuristic lower bound of the remaining cost for the metric
+	 */
+	public AStarSearch(CompiledGraph graph, Metric metric, Heuristic heuristic) {
+		int n = graph.nodeCount();
+		this.graph = graph;
+		this.offsets = graph.getOffsets();
+		this.targets = graph.getTargets();
+		this.weights = graph.getWeights(metric);
+		this.roadTypes = graph.getRoadTypes();
+		this.cost = new double[n];
+		this.parent = new int[n];
+		this.reached = new int[n];
+		this.settled = new int[n];
+		this.open = new IntDoubleHeap(n);
+		this.query = 0;
+		this.heuristic = heuristic;
+	}
+
+	/**
+	 * finds the least cost route from one place to another
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	public ArrayList<Place> findRoute(Place from, Place to) {
+		return findRoute(from, to, RoadFilter.NONE);
+	}
+
+	/**
+	 * finds the least cost route from one place to another that keeps to a road filter
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param filter the road types to leave out or make more expensive
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	public ArrayList<Place> findRoute(Place from, Place to, RoadFilter filter) {
+		int avoid = filter.getAvoidMask();
+		int penalized = filter.getPenaltyMask();
+		int source = graph.indexOf(from);
+		int target = graph.indexOf(to);
+		if (source == -1 || target == -1) {
+			return new ArrayList<Place>();
+		}
+		query++;
+		settledCount = 0;
+		open.clear();
+		cost[source] = 0.0;
+		parent[source] = -1;
+		reached[source] = query;
+		open.offer(source, heuristic.estimate(source, target));
+		while (!open.isEmpty()) {
+			int current = open.poll();
+			settled[current] = query;
+			settledCount++;
+			if (current == target) {
+				return buildRoute(target);
+			}
+			double traveled = cost[current];
+			for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+				int next = targets[e];
+				int bit = 1 << roadTypes[e];
+				if (settled[next] == query || (avoid & bit) != 0) {
+					continue;
+				}
+				double c = traveled + ((penalized & bit) != 0 ? weights[e] * filter.getPenalty(roadTypes[e]) : weights[e]);
+				if (c == Double.POSITIVE_INFINITY) {
+					// the link is closed
+					continue;
+				}
+				if (reached[next] != query) {
+					reached[next] = query;
+					cost[next] = c;
+					parent[next] = current;
+					open.offer(next, c + heuristic.estimate(next, target));
+				} else if (c < cost[next]) {
+					cost[next] = c;
+					parent[next] = current;
+					open.decreaseKey(next, c + heuristic.estimate(next, target));
+				}
+			}
+		}
+		return new ArrayList<Place>();
+	}
+
+	/**
+	 * return the number of places settled by the last query
+	 * @return
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * follow the parent pointers back from the destination to the start
+	 * @param end id of the destination that has been settled
+	 * @return the places along the route from start to end
+	 */
+	private ArrayList<Place> buildRoute(int end) {
+		int hops = 0;
+		for (int v = end; v != -1; v = parent[v]) {
+			hops++;
+		}
+		int[] path = new int[hops];
+		for (int v = end; v != -1; v = parent[v]) {
+			path[--hops] = v;
+		}
+		return graph.toPlaces(path);
+	}
+}
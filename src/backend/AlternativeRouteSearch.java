@@ -0,0 +1,571 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.function.BooleanSupplier;
+
+import utils.IndexedHeap;
+import utils.IntDoubleHeap;
+import utils.Metric;
+
+/**
+ * AlternativeRouteSearch finds the best route between two places and a few alternatives that do
+ * not share too much of it, with Yen's k shortest loopless paths algorithm. Every path Yen's
+ * algorithm finds is branched at each of its places: the part up to that place is kept, the
+ * places of that part are banned and so are the next places of the paths already found with
+ * the same start, and the rest is a new spur search. The cheapest of all branches found so far
+ * is the next path.
+ * All spur searches of a query run towards the same destination, so the least cost from every
+ * place to the destination is computed once with a backward Dijkstra sweep before the first
+ * spur search. Banning places only makes routes more expensive, so those costs are an exact
+ * A* estimate on the unbanned graph and a lower bound on every banned one, and most spur
+ * searches settle little more than the places of the spur path.
+ * A path is only returned as an alternative if at most maxOverlap of its cost runs over links
+ * that an earlier returned route also uses. Paths that overlap more still take part in Yen's
+ * algorithm, which gives up after CANDIDATE_FACTOR paths for every route asked for.
+ * On large maps the next shortest paths mostly differ from the best one by a short detour, so
+ * Yen's algorithm may run out of paths before enough alternatives are found. The rest are then
+ * taken from the plateaus of the least cost trees from the start and to the destination: for
+ * a via place v the tree path to v followed by the tree path from v is a route, and every place
+ * of that route whose two tree paths run along it gives the same route. Via places are tried in
+ * order of increasing route cost, up to MAX_STRETCH times the cost of the best route, and the
+ * places of every route tried are skipped as via places.
+ * Like AStarSearch, the buffers are reused by every query and tagged with a query number.
+ * A query can be cancelled: the sweeps check every CANCEL_CHECK_INTERVAL places and Yen's
+ * algorithm and the plateau search before each path, and return the routes found so far.
+ * graph - the graph that is searched
+ * offsets, targets, weights - the edge arrays of the graph for the cost function
+ * toTarget - least cost from every place to the destination of the current query
+ * targetEdge - first edge of the least cost route from every place to the destination
+ * fromSource - least cost from the start of the current query to every place
+ * sourceParent, sourceEdge - last place and last edge of the least cost route from the start to every place
+ * cost - best known cost of every place in the current spur search
+ * parent, parentEdge - place and edge each place was reached by in the current spur search
+ * reached, settled - number of the spur search that last reached and settled each place
+ * banned - number of the spur search that last banned each place
+ * open - open places of the current spur search
+ * query - number of the current spur search
+ * cancelled - tells whether the caller has given up on the current query
+ */
+public class AlternativeRouteSearch {
+
+	private static final int CANDIDATE_FACTOR = 8;
+	private static final double MAX_STRETCH = 1.5;
+	private static final int CANCEL_CHECK_INTERVAL = 1024;
+	private static final BooleanSupplier NEVER = new BooleanSupplier() {
+		public boolean getAsBoolean() {
+			return false;
+		}
+	};
+	private final CompiledGraph graph;
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] weights;
+	private final double[] toTarget;
+	private final int[] targetEdge;
+	private final double[] fromSource;
+	private final int[] sourceParent;
+	private final int[] sourceEdge;
+	private final double[] cost;
+	private final int[] parent;
+	private final int[] parentEdge;
+	private final int[] reached;
+	private final int[] settled;
+	private final int[] banned;
+	private final IntDoubleHeap open;
+	private int query;
+	private BooleanSupplier cancelled;
+
+	/**
+	 * The constructor allocates the search arrays for the given graph and cost function
+	 * @param graph the graph to search
+	 * @param metric the cost function
+	 */
+	public AlternativeRouteSearch(CompiledGraph graph, Metric metric) {
+		int n = graph.nodeCount();
+		this.graph = graph;
+		this.offsets = graph.getOffsets();
+		this.targets = graph.getTargets();
+		this.weights = graph.getWeights(metric);
+		toTarget = new double[n];
+		targetEdge = new int[n];
+		fromSource = new double[n];
+		sourceParent = new int[n];
+		sourceEdge = new int[n];
+		cost = new double[n];
+		parent = new int[n];
+		parentEdge = new int[n];
+		reached = new int[n];
+		settled = new int[n];
+		banned = new int[n];
+		open = new IntDoubleHeap(n);
+		query = 0;
+		cancelled = NEVER;
+	}
+
+	/**
+	 * finds the best route from one place to another and up to count - 1 alternatives
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param count the most routes to return, including the best one
+	 * @param maxOverlap the greatest share of its cost an alternative may have in common with
+	 * 		the routes before it, between 0 and 1
+	 * @return the routes in order of increasing cost, the best route first, or an empty list
+	 * 		if to cannot be reached
+	 */
+	public ArrayList<ArrayList<Place>> findRoutes(Place from, Place to, int count, double maxOverlap) {
+		return findRoutes(from, to, count, maxOverlap, NEVER);
+	}
+
+	/**
+	 * finds the best route from one place to another and up to count - 1 alternatives, stopping
+	 * early once the caller cancels
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param count the most routes to return, including the best one
+	 * @param maxOverlap the greatest share of its cost an alternative may have in common with
+	 * 		the routes before it, between 0 and 1
+	 * @param cancelled returns true once the routes are no longer wanted
+	 * @return the routes in order of increasing cost, the best route first, or an empty list
+	 * 		if to cannot be reached. A cancelled query returns the routes found before it
+	 * 		stopped, which may be none.
+	 */
+	public ArrayList<ArrayList<Place>> findRoutes(Place from, Place to, int count, double maxOverlap, BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+		try {
+			return search(from, to, count, maxOverlap);
+		} finally {
+			this.cancelled = NEVER;
+		}
+	}
+
+	/**
+	 * runs Yen's algorithm and then the plateau search for findRoutes
+	 */
+	private ArrayList<ArrayList<Place>> search(Place from, Place to, int count, double maxOverlap) {
+		ArrayList<ArrayList<Place>> routes = new ArrayList<ArrayList<Place>>();
+		int source = graph.indexOf(from);
+		int target = graph.indexOf(to);
+		if (source == -1 || target == -1 || count <= 0) {
+			return routes;
+		}
+		if (source == target) {
+			routes.add(graph.toPlaces(new int[] { source }));
+			return routes;
+		}
+		if (cancelled.getAsBoolean() || !sweepToTarget(target)) {
+			return routes;
+		}
+		Path best = spur(source, target, new int[0], 0, new int[0], 0);
+		if (best == null) {
+			return routes;
+		}
+		ArrayList<Path> found = new ArrayList<Path>();
+		ArrayList<Path> accepted = new ArrayList<Path>();
+		HashSet<Path> seen = new HashSet<Path>();
+		IndexedHeap<Path> candidates = new IndexedHeap<Path>();
+		found.add(best);
+		accepted.add(best);
+		seen.add(best);
+		int[] blocked = new int[16];
+		while (accepted.size() < count && found.size() < count * CANDIDATE_FACTOR) {
+			Path last = found.get(found.size() - 1);
+			double rootCost = 0.0;
+			for (int i = 0; i < last.nodes.length - 1; i++) {
+				if (cancelled.getAsBoolean()) {
+					return toPlaces(accepted);
+				}
+				// block the next place of every path found so far that starts like last
+				int blockedCount = 0;
+				for (Path p : found) {
+					if (p.nodes.length > i + 1 && p.startsWith(last, i)) {
+						if (blockedCount == blocked.length) {
+							blocked = Arrays.copyOf(blocked, blockedCount * 2);
+						}
+						blocked[blockedCount++] = p.nodes[i + 1];
+					}
+				}
+				Path candidate = spur(last.nodes[i], target, last.nodes, i, blocked, blockedCount);
+				if (candidate != null) {
+					candidate = last.join(i, rootCost, candidate);
+					if (seen.add(candidate)) {
+						candidates.offer(candidate, candidate.cost);
+					}
+				}
+				rootCost += weights[last.edges[i]];
+			}
+			if (candidates.isEmpty()) {
+				break;
+			}
+			Path next = candidates.poll();
+			found.add(next);
+			if (overlap(next, accepted) <= maxOverlap) {
+				accepted.add(next);
+			}
+		}
+		if (accepted.size() < count) {
+			addPlateauRoutes(source, target, best.cost, count, maxOverlap, accepted, seen);
+		}
+		return toPlaces(accepted);
+	}
+
+	/**
+	 * return the places of each path
+	 * @param paths
+	 * @return
+	 */
+	private ArrayList<ArrayList<Place>> toPlaces(ArrayList<Path> paths) {
+		ArrayList<ArrayList<Place>> routes = new ArrayList<ArrayList<Place>>(paths.size());
+		for (Path p : paths) {
+			routes.add(graph.toPlaces(p.nodes));
+		}
+		return routes;
+	}
+
+	/**
+	 * adds routes through via places on the plateaus of the least cost trees until there are
+	 * count routes
+	 * @param source id of the start
+	 * @param target id of the destination
+	 * @param bestCost cost of the best route
+	 * @param count the most routes wanted
+	 * @param maxOverlap the greatest share of its cost a route may have in common with the others
+	 * @param accepted the routes so far, in order of increasing cost
+	 * @param seen every path tried so far
+	 */
+	private void addPlateauRoutes(int source, int target, double bestCost, int count, double maxOverlap, ArrayList<Path> accepted, HashSet<Path> seen) {
+		if (!sweepFromSource(source)) {
+			return;
+		}
+		int n = graph.nodeCount();
+		// the via places are sorted by the cost of their route
+		IntDoubleHeap via = new IntDoubleHeap(n);
+		for (int v = 0; v < n; v++) {
+			double c = fromSource[v] + toTarget[v];
+			if (c <= bestCost * MAX_STRETCH) {
+				via.offer(v, c);
+			}
+		}
+		query++;
+		for (Path p : accepted) {
+			for (int v : p.nodes) {
+				banned[v] = query;
+			}
+		}
+		while (!via.isEmpty() && accepted.size() < count && !cancelled.getAsBoolean()) {
+			int v = via.poll();
+			if (banned[v] == query) {
+				continue;
+			}
+			Path path = viaPath(source, target, v);
+			for (int u : path.nodes) {
+				banned[u] = query;
+			}
+			if (path.isLoopless() && seen.add(path) && overlap(path, accepted) <= maxOverlap) {
+				accepted.add(path);
+			}
+		}
+	}
+
+	/**
+	 * return the route made of the tree path from the start to a via place and the tree path
+	 * from the via place to the destination
+	 * @param source id of the start
+	 * @param target id of the destination
+	 * @param v id of the via place
+	 * @return
+	 */
+	private Path viaPath(int source, int target, int v) {
+		int before = 0;
+		for (int u = v; u != source; u = sourceParent[u]) {
+			before++;
+		}
+		int after = 0;
+		for (int u = v; u != target; u = targets[targetEdge[u]]) {
+			after++;
+		}
+		int[] nodes = new int[before + after + 1];
+		int[] edges = new int[before + after];
+		int i = before;
+		nodes[i] = v;
+		for (int u = v; u != source; ) {
+			edges[--i] = sourceEdge[u];
+			u = sourceParent[u];
+			nodes[i] = u;
+		}
+		i = before;
+		for (int u = v; u != target; i++) {
+			int e = targetEdge[u];
+			edges[i] = e;
+			u = targets[e];
+			nodes[i + 1] = u;
+		}
+		return new Path(nodes, edges, fromSource[v] + toTarget[v]);
+	}
+
+	/**
+	 * return the greatest share of the cost of a path that runs over links of one of the routes
+	 * @param path
+	 * @param routes
+	 * @return
+	 */
+	private double overlap(Path path, ArrayList<Path> routes) {
+		if (path.cost <= 0.0) {
+			return 1.0;
+		}
+		double most = 0.0;
+		for (Path r : routes) {
+			HashSet<Long> links = new HashSet<Long>();
+			for (int i = 0; i < r.edges.length; i++) {
+				links.add(linkKey(r.nodes[i], r.nodes[i + 1]));
+			}
+			double shared = 0.0;
+			for (int i = 0; i < path.edges.length; i++) {
+				if (links.contains(linkKey(path.nodes[i], path.nodes[i + 1]))) {
+					shared += weights[path.edges[i]];
+				}
+			}
+			most = Math.max(most, shared / path.cost);
+		}
+		return most;
+	}
+
+	/**
+	 * return a key for the link between two places that does not depend on its direction
+	 * @param u
+	 * @param v
+	 * @return
+	 */
+	private static long linkKey(int u, int v) {
+		return u < v ? ((long) u << 32) | v : ((long) v << 32) | u;
+	}
+
+	/**
+	 * fills toTarget with the least cost from every place to the destination by a Dijkstra
+	 * sweep over the entering edges
+	 * @param target id of the destination
+	 * @return false if the query was cancelled before the sweep finished
+	 */
+	private boolean sweepToTarget(int target) {
+		int[] reverseOffsets = graph.getReverseOffsets();
+		int[] reverseSources = graph.getReverseSources();
+		int[] reverseEdges = graph.getReverseEdges();
+		Arrays.fill(toTarget, Double.POSITIVE_INFINITY);
+		open.clear();
+		toTarget[target] = 0.0;
+		open.offer(target, 0.0);
+		int polled = 0;
+		while (!open.isEmpty()) {
+			if (++polled % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+				return false;
+			}
+			int u = open.poll();
+			for (int r = reverseOffsets[u]; r < reverseOffsets[u + 1]; r++) {
+				int v = reverseSources[r];
+				double c = toTarget[u] + weights[reverseEdges[r]];
+				if (c < toTarget[v]) {
+					if (Double.isInfinite(toTarget[v])) {
+						toTarget[v] = c;
+						open.offer(v, c);
+					} else {
+						toTarget[v] = c;
+						open.decreaseKey(v, c);
+					}
+					targetEdge[v] = reverseEdges[r];
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * fills fromSource with the least cost from the start to every place by a Dijkstra sweep
+	 * @param source id of the start
+	 * @return false if the query was cancelled before the sweep finished
+	 */
+	private boolean sweepFromSource(int source) {
+		Arrays.fill(fromSource, Double.POSITIVE_INFINITY);
+		open.clear();
+		fromSource[source] = 0.0;
+		open.offer(source, 0.0);
+		int polled = 0;
+		while (!open.isEmpty()) {
+			if (++polled % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+				return false;
+			}
+			int u = open.poll();
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int v = targets[e];
+				double c = fromSource[u] + weights[e];
+				if (c < fromSource[v]) {
+					if (Double.isInfinite(fromSource[v])) {
+						fromSource[v] = c;
+						open.offer(v, c);
+					} else {
+						fromSource[v] = c;
+						open.decreaseKey(v, c);
+					}
+					sourceParent[v] = u;
+					sourceEdge[v] = e;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A* search from a spur place to the destination guided by toTarget
+	 * @param start id of the spur place
+	 * @param target id of the destination
+	 * @param root places of the path the spur branches from
+	 * @param rootLength number of places of root before the spur place, they are banned
+	 * @param blocked places the search may not step to from the spur place
+	 * @param blockedCount number of entries of blocked in use
+	 * @return the spur path, or null if the destination cannot be reached
+	 */
+	private Path spur(int start, int target, int[] root, int rootLength, int[] blocked, int blockedCount) {
+		if (Double.isInfinite(toTarget[start])) {
+			return null;
+		}
+		query++;
+		for (int i = 0; i < rootLength; i++) {
+			banned[root[i]] = query;
+		}
+		open.clear();
+		cost[start] = 0.0;
+		parent[start] = -1;
+		parentEdge[start] = -1;
+		reached[start] = query;
+		open.offer(start, toTarget[start]);
+		while (!open.isEmpty()) {
+			int u = open.poll();
+			settled[u] = query;
+			if (u == target) {
+				return buildPath(target);
+			}
+			edges: for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int v = targets[e];
+				if (settled[v] == query || banned[v] == query || Double.isInfinite(toTarget[v])) {
+					continue;
+				}
+				if (u == start) {
+					for (int b = 0; b < blockedCount; b++) {
+						if (blocked[b] == v) {
+							continue edges;
+						}
+					}
+				}
+				double c = cost[u] + weights[e];
+				if (c == Double.POSITIVE_INFINITY) {
+					// the link is closed
+					continue;
+				}
+				if (reached[v] != query) {
+					reached[v] = query;
+					cost[v] = c;
+					parent[v] = u;
+					parentEdge[v] = e;
+					open.offer(v, c + toTarget[v]);
+				} else if (c < cost[v]) {
+					cost[v] = c;
+					parent[v] = u;
+					parentEdge[v] = e;
+					open.decreaseKey(v, c + toTarget[v]);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * follow the parent pointers of the current spur search back from the destination
+	 * @param end id of the destination
+	 * @return the spur path
+	 */
+	private Path buildPath(int end) {
+		int hops = 0;
+		for (int v = end; v != -1; v = parent[v]) {
+			hops++;
+		}
+		int[] nodes = new int[hops];
+		int[] edges = new int[hops - 1];
+		for (int v = end; v != -1; v = parent[v]) {
+			nodes[--hops] = v;
+			if (hops > 0) {
+				edges[hops - 1] = parentEdge[v];
+			}
+		}
+		return new Path(nodes, edges, cost[end]);
+	}
+
+	/**
+	 * a path of the graph, two paths are equal if they visit the same places in the same order
+	 * nodes - ids of the places in order
+	 * edges - edges[i] leads from nodes[i] to nodes[i + 1]
+	 * cost - sum of the weights of the edges
+	 */
+	private static class Path {
+		private final int[] nodes;
+		private final int[] edges;
+		private final double cost;
+
+		private Path(int[] nodes, int[] edges, double cost) {
+			this.nodes = nodes;
+			this.edges = edges;
+			this.cost = cost;
+		}
+
+		/**
+		 * return true if this path has the same first i + 1 places as another path
+		 * @param other
+		 * @param i
+		 * @return
+		 */
+		private boolean startsWith(Path other, int i) {
+			for (int j = 0; j <= i; j++) {
+				if (nodes[j] != other.nodes[j]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * return true if no place is visited twice
+		 * @return
+		 */
+		private boolean isLoopless() {
+			HashSet<Integer> visited = new HashSet<Integer>();
+			for (int v : nodes) {
+				if (!visited.add(v)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * return the path that follows this path up to its i-th place and then a spur path
+		 * @param i index of the place the spur path starts at
+		 * @param rootCost cost of this path up to that place
+		 * @param spur
+		 * @return
+		 */
+		private Path join(int i, double rootCost, Path spur) {
+			int[] n = Arrays.copyOf(nodes, i + spur.nodes.length);
+			System.arraycopy(spur.nodes, 0, n, i, spur.nodes.length);
+			int[] e = Arrays.copyOf(edges, i + spur.edges.length);
+			System.arraycopy(spur.edges, 0, e, i, spur.edges.length);
+			return new Path(n, e, rootCost + spur.cost);
+		}
+
+		public boolean equals(Object obj) {
+			return obj instanceof Path && Arrays.equals(nodes, ((Path) obj).nodes);
+		}
+
+		public int hashCode() {
+			return Arrays.hashCode(nodes);
+		}
+	}
+}
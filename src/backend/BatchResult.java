@@ -0,0 +1,83 @@
+package backend;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BatchResult holds the routes of a batch in the order of the requests and how fast they were found
+ * results - the route of every request, in the order of the requests
+ * elapsedNanos - wall clock time the batch took in nanoseconds
+ * parallelism - number of worker threads of the pool the batch ran on
+ */
+public class BatchResult {
+
+	private final List<RouteResult> results;
+	private final long elapsedNanos;
+	private final int parallelism;
+
+	/**
+	 * @param results the route of every request, the array is not copied and must not be changed
+	 * @param elapsedNanos wall clock time the batch took in nanoseconds
+	 * @param parallelism number of worker threads of the pool the batch ran on
+	 */
+	BatchResult(RouteResult[] results, long elapsedNanos, int parallelism) {
+		this.results = Collections.unmodifiableList(Arrays.asList(results));
+		this.elapsedNanos = elapsedNanos;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * return the route of every request in the order of the requests, the list cannot be modified
+	 * @return
+	 */
+	public List<RouteResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * return the route of the i-th request
+	 * @param i
+	 * @return
+	 */
+	public RouteResult get(int i) {
+		return results.get(i);
+	}
+
+	/**
+	 * return the number of routes in the batch
+	 * @return
+	 */
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * return the wall clock time the batch took in nanoseconds
+	 * @return
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * return the number of worker threads of the pool the batch ran on
+	 * @return
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * return the number of routes found per second over the whole batch
+	 * @return
+	 */
+	public double getRoutesPerSecond() {
+		return elapsedNanos == 0 ? 0.0 : results.size() * 1e9 / elapsedNanos;
+	}
+
+	public String toString() {
+		return results.size() + " routes in " + (elapsedNanos / 1e6) + " ms on " + parallelism
+				+ " threads, " + Math.round(getRoutesPerSecond()) + " routes/s";
+	}
+}
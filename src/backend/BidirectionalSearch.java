@@ -0,0 +1,234 @@
+package backend;
+
+import java.util.ArrayList;
+
+import utils.IntDoubleHeap;
+import utils.Metric;
+
+/**
+ * BidirectionalSearch finds the least cost route between two places with two Dijkstra searches,
+ * one forward from the start over the edges of the graph and one backward from the destination
+ * over the entering edges. Whenever an edge joins a place reached by one search to a place
+ * reached by the other, the cost of that route is compared with the best meeting found so far.
+ * The searches stop once the least keys of both heaps add up to at least the best meeting cost,
+ * because no route that is still open can be cheaper. The route is spliced together from the
+ * forward parents of the meeting edge's tail and the backward parents of its head.
+ * Like AStarSearch, the buffers are reused by every query and tagged with a query number, and a
+ * RoadFilter is checked against the road type of every edge as it is relaxed.
+ * graph - the graph that is searched
+ * weights - the edge weights of the graph for the cost function
+ * roadTypes - the road type ordinal of every edge of the graph
+ * forwardCost, backwardCost - best known cost from the start and to the destination
+ * forwardParent, backwardParent - next place towards the start and towards the destination, -1 at the ends
+ * forwardReached, backwardReached - number of the query that last reached each place
+ * forwardSettled, backwardSettled - number of the query that last settled each place
+ * forwardHeap, backwardHeap - open places of each direction
+ * query - number of the current query
+ * settledCount - number of places settled by the last query in both directions
+ */
+public class BidirectionalSearch {
+
+	private final CompiledGraph graph;
+	private final double[] weights;
+	private final byte[] roadTypes;
+	private final double[] forwardCost;
+	private final double[] backwardCost;
+	private final int[] forwardParent;
+	private final int[] backwardParent;
+	private final int[] forwardReached;
+	private final int[] backwardReached;
+	private final int[] forwardSettled;
+	private final int[] backwardSettled;
+	private final IntDoubleHeap forwardHeap;
+	private final IntDoubleHeap backwardHeap;
+	private int query;
+	private int settledCount;
+
+	// the best meeting of the current query: the route runs start .. meetFrom -> meetTo .. destination
+	private double best;
+	private int meetFrom;
+	private int meetTo;
+
+	/**
+	 * The constructor allocates the search arrays for the given graph and cost function
+	 * @param graph the graph to search
+	 * @param metric the cost function
+	 */
+	public BidirectionalSearch(CompiledGraph graph, Metric metric) {
+		int n = graph.nodeCount();
+		this.graph = graph;
+		this.weights = graph.getWeights(metric);
+		this.roadTypes = graph.getRoadTypes();
+		forwardCost = new double[n];
+		backwardCost = new double[n];
+		forwardParent = new int[n];
+		backwardParent = new int[n];
+		forwardReached = new int[n];
+		backwardReached = new int[n];
+		forwardSettled = new int[n];
+		backwardSettled = new int[n];
+		forwardHeap = new IntDoubleHeap(n);
+		backwardHeap = new IntDoubleHeap(n);
+		query = 0;
+	}
+
+	/**
+	 * finds the least cost route from one place to another
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	public ArrayList<Place> findRoute(Place from, Place to) {
+		return findRoute(from, to, RoadFilter.NONE);
+	}
+
+	/**
+	 * finds the least cost route from one place to another that keeps to a road filter
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param filter the road types to leave out or make more expensive
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	public ArrayList<Place> findRoute(Place from, Place to, RoadFilter filter) {
+		int source = graph.indexOf(from);
+		int target = graph.indexOf(to);
+		if (source == -1 || target == -1 || !search(source, target, filter)) {
+			return new ArrayList<Place>();
+		}
+		// splice the forward half, reversed, onto the backward half
+		int hops = 0;
+		for (int v = meetFrom; v != -1; v = forwardParent[v]) {
+			hops++;
+		}
+		int forwardHops = hops;
+		for (int v = meetTo; v != -1 && v != meetFrom; v = backwardParent[v]) {
+			hops++;
+		}
+		int[] path = new int[hops];
+		int i = forwardHops;
+		for (int v = meetFrom; v != -1; v = forwardParent[v]) {
+			path[--i] = v;
+		}
+		i = forwardHops;
+		for (int v = meetTo; v != -1 && v != meetFrom; v = backwardParent[v]) {
+			path[i++] = v;
+		}
+		return graph.toPlaces(path);
+	}
+
+	/**
+	 * return the number of places settled by the last query in both directions
+	 * @return
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * runs both searches until the stopping criterion holds
+	 * @param source id of the start
+	 * @param target id of the destination
+	 * @param filter the road types to leave out or make more expensive
+	 * @return true if the searches met
+	 */
+	private boolean search(int source, int target, RoadFilter filter) {
+		int avoid = filter.getAvoidMask();
+		int penalized = filter.getPenaltyMask();
+		query++;
+		settledCount = 0;
+		forwardHeap.clear();
+		backwardHeap.clear();
+		forwardCost[source] = 0.0;
+		forwardParent[source] = -1;
+		forwardReached[source] = query;
+		forwardHeap.offer(source, 0.0);
+		backwardCost[target] = 0.0;
+		backwardParent[target] = -1;
+		backwardReached[target] = query;
+		backwardHeap.offer(target, 0.0);
+		best = Double.POSITIVE_INFINITY;
+		meetFrom = -1;
+		meetTo = -1;
+		if (source == target) {
+			best = 0.0;
+			meetFrom = source;
+			meetTo = source;
+			return true;
+		}
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] reverseOffsets = graph.getReverseOffsets();
+		int[] reverseSources = graph.getReverseSources();
+		int[] reverseEdges = graph.getReverseEdges();
+		while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+			if (forwardHeap.peekKey() + backwardHeap.peekKey() >= best) {
+				break;
+			}
+			// expand the direction with the smaller frontier
+			if (forwardHeap.size() <= backwardHeap.size()) {
+				int u = forwardHeap.poll();
+				forwardSettled[u] = query;
+				settledCount++;
+				for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+					int v = targets[e];
+					int bit = 1 << roadTypes[e];
+					if (forwardSettled[v] == query || (avoid & bit) != 0) {
+						continue;
+					}
+					double c = forwardCost[u] + ((penalized & bit) != 0 ? weights[e] * filter.getPenalty(roadTypes[e]) : weights[e]);
+					if (c == Double.POSITIVE_INFINITY) {
+						// the link is closed
+						continue;
+					}
+					if (forwardReached[v] != query) {
+						forwardReached[v] = query;
+						forwardCost[v] = c;
+						forwardParent[v] = u;
+						forwardHeap.offer(v, c);
+					} else if (c < forwardCost[v]) {
+						forwardCost[v] = c;
+						forwardParent[v] = u;
+						forwardHeap.decreaseKey(v, c);
+					}
+					if (backwardReached[v] == query && c + backwardCost[v] < best) {
+						best = c + backwardCost[v];
+						meetFrom = u;
+						meetTo = v;
+					}
+				}
+			} else {
+				int u = backwardHeap.poll();
+				backwardSettled[u] = query;
+				settledCount++;
+				for (int r = reverseOffsets[u]; r < reverseOffsets[u + 1]; r++) {
+					int v = reverseSources[r];
+					int e = reverseEdges[r];
+					int bit = 1 << roadTypes[e];
+					if (backwardSettled[v] == query || (avoid & bit) != 0) {
+						continue;
+					}
+					double c = backwardCost[u] + ((penalized & bit) != 0 ? weights[e] * filter.getPenalty(roadTypes[e]) : weights[e]);
+					if (c == Double.POSITIVE_INFINITY) {
+						continue;
+					}
+					if (backwardReached[v] != query) {
+						backwardReached[v] = query;
+						backwardCost[v] = c;
+						backwardParent[v] = u;
+						backwardHeap.offer(v, c);
+					} else if (c < backwardCost[v]) {
+						backwardCost[v] = c;
+						backwardParent[v] = u;
+						backwardHeap.decreaseKey(v, c);
+					}
+					if (forwardReached[v] == query && forwardCost[v] + c < best) {
+						best = forwardCost[v] + c;
+						meetFrom = v;
+						meetTo = u;
+					}
+				}
+			}
+		}
+		return meetFrom != -1;
+	}
+}
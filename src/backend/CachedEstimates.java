@@ -0,0 +1,90 @@
+package backend;
+
+import java.util.LinkedHashMap;
+
+/**
+ * CachedEstimates keeps the most recently used estimates of another EstimateProvider in a bounded
+ * least recently used cache. It is meant for providers whose estimates are expensive to compute;
+ * the straight line estimates are cheaper to compute than to look up. A map uses it once it is
+ * given to Map.setEstimateProvider, and the cache then belongs to that map only.
+ * provider - the provider the estimates come from
+ * distances - cache of distance estimates
+ * times - cache of time estimates
+ */
+public class CachedEstimates implements EstimateProvider {
+
+	private final EstimateProvider provider;
+	private final LruCache distances;
+	private final LruCache times;
+
+	/**
+	 * @param provider the provider the estimates come from
+	 * @param capacity the most estimates of each kind that are kept
+	 */
+	public CachedEstimates(EstimateProvider provider, int capacity) {
+		this.provider = provider;
+		this.distances = new LruCache(capacity);
+		this.times = new LruCache(capacity);
+	}
+
+	public synchronized double getDEst(Place from, Place to) {
+		PlacePair key = new PlacePair(from, to);
+		Double d = distances.get(key);
+		if (d == null) {
+			d = provider.getDEst(from, to);
+			distances.put(key, d);
+		}
+		return d;
+	}
+
+	public synchronized double getTEst(Place from, Place to) {
+		PlacePair key = new PlacePair(from, to);
+		Double t = times.get(key);
+		if (t == null) {
+			t = provider.getTEst(from, to);
+			times.put(key, t);
+		}
+		return t;
+	}
+
+	/**
+	 * LinkedHashMap in access order that drops the least recently used entry when it is full
+	 */
+	private static class LruCache extends LinkedHashMap<PlacePair, Double> {
+		private final int capacity;
+
+		private LruCache(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		protected boolean removeEldestEntry(java.util.Map.Entry<PlacePair, Double> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	/**
+	 * key of the caches, two places compared by identity
+	 */
+	private static class PlacePair {
+		private final Place from;
+		private final Place to;
+
+		private PlacePair(Place from, Place to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PlacePair)) {
+				return false;
+			}
+			PlacePair other = (PlacePair) obj;
+			return from == other.from && to == other.to;
+		}
+
+		public int hashCode() {
+			return 31 * System.identityHashCode(from) + System.identityHashCode(to);
+		}
+	}
+}
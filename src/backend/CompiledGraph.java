@@ -0,0 +1,408 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import utils.Metric;
+import utils.RoadType;
+
+/**
+ * CompiledGraph is an immutable compressed sparse row snapshot of the links between places.
+ * The links leaving the place with id v are the edges offsets[v] up to offsets[v + 1], so the
+ * routing searches scan flat primitive arrays instead of following Link objects.
+ * Traffic does not change a graph either: withTraffic returns a new graph with the traffic
+ * factors of the links, which shares every array but the costs with this one, so searches that
+ * are still running on the old graph are not disturbed.
+ * places - the places of the graph, places[id] has that id
+ * ids - id of each place of the graph, kept by the graph rather than by the places so graphs
+ * 		compiled later do not change the ids a search on this graph looks up
+ * offsets - index of the first edge of each place, with offsets[n] equal to the number of edges
+ * targets - id of the place each edge leads to
+ * distance - distance cost of each edge
+ * time - time cost of each edge with the speeds of the profile
+ * roadTypes - ordinal of the RoadType of each edge
+ * links - the link each edge was compiled from
+ * traffic - factor the cost of each edge is multiplied by for traffic, Double.POSITIVE_INFINITY
+ * 		for a closed link, null if there is no traffic
+ * freeFlow - the base graph of the same links without traffic, this graph if traffic is null
+ * profile - the speed profile the time costs are for
+ * base - the graph of the car profile, whose arrays every profile shares
+ * profiles - the graph of every profile used so far, kept by the base graph only
+ * reverseOffsets, reverseSources, reverseEdges - the same edges grouped by the place they lead to:
+ * 		the edges entering v are reverseEdges[reverseOffsets[v]] up to reverseEdges[reverseOffsets[v + 1] - 1]
+ * 		and reverseSources holds the place each of them leaves from
+ */
+public class CompiledGraph {
+
+	private final Place[] places;
+	private final IdentityHashMap<Place, Integer> ids;
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] distance;
+	private final double[] time;
+	private final byte[] roadTypes;
+	private final Link[] links;
+	private final double[] traffic;
+	private final CompiledGraph freeFlow;
+	private final SpeedProfile profile;
+	private final CompiledGraph base;
+	private final HashMap<SpeedProfile, CompiledGraph> profiles;
+	private final int[] reverseOffsets;
+	private final int[] reverseSources;
+	private final int[] reverseEdges;
+
+	/**
+	 * The constructor gives every place an id in this graph and copies the links between them into the edge arrays.
+	 * Links to places that are not in the collection are left out. The time costs are those of
+	 * the links, which are driven by car, without traffic.
+	 * @param nodes places to compile, they are given the ids 0 to nodes.size() - 1
+	 */
+	public CompiledGraph(Collection<? extends Place> nodes) {
+		int n = nodes.size();
+		profile = SpeedProfile.CAR;
+		base = this;
+		traffic = null;
+		freeFlow = this;
+		profiles = new HashMap<SpeedProfile, CompiledGraph>();
+		places = new Place[n];
+		ids = new IdentityHashMap<Place, Integer>(n);
+		int id = 0;
+		for (Place p : nodes) {
+			ids.put(p, id);
+			places[id] = p;
+			id++;
+		}
+		// count the edges first so every array is allocated exactly once
+		offsets = new int[n + 1];
+		for (int v = 0; v < n; v++) {
+			int count = 0;
+			for (Link link : places[v].getNeighbors()) {
+				if (indexOf(link.getPlace()) != -1) {
+					count++;
+				}
+			}
+			offsets[v + 1] = offsets[v] + count;
+		}
+		int m = offsets[n];
+		targets = new int[m];
+		distance = new double[m];
+		time = new double[m];
+		roadTypes = new byte[m];
+		links = new Link[m];
+		int e = 0;
+		for (int v = 0; v < n; v++) {
+			for (Link link : places[v].getNeighbors()) {
+				int w = indexOf(link.getPlace());
+				if (w != -1) {
+					targets[e] = w;
+					distance[e] = link.getDistance();
+					time[e] = link.getTime();
+					roadTypes[e] = (byte) link.getRoadType().ordinal();
+					links[e] = link;
+					e++;
+				}
+			}
+		}
+		// group the same edges by the place they lead to for searches that run backwards
+		reverseOffsets = new int[n + 1];
+		for (int i = 0; i < m; i++) {
+			reverseOffsets[targets[i] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			reverseOffsets[v + 1] += reverseOffsets[v];
+		}
+		int[] fill = Arrays.copyOf(reverseOffsets, n);
+		reverseSources = new int[m];
+		reverseEdges = new int[m];
+		for (int v = 0; v < n; v++) {
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				int r = fill[targets[i]]++;
+				reverseSources[r] = v;
+				reverseEdges[r] = i;
+			}
+		}
+	}
+
+	/**
+	 * The constructor of the graph of another speed profile, which shares every array of the
+	 * base graph except the time costs
+	 * @param base the graph of the car profile
+	 * @param profile the speed profile of the time costs
+	 */
+	private CompiledGraph(CompiledGraph base, SpeedProfile profile) {
+		this.base = base;
+		this.profile = profile;
+		this.profiles = null;
+		places = base.places;
+		ids = base.ids;
+		offsets = base.offsets;
+		targets = base.targets;
+		distance = base.distance;
+		roadTypes = base.roadTypes;
+		links = base.links;
+		traffic = base.traffic;
+		freeFlow = base.freeFlow;
+		reverseOffsets = base.reverseOffsets;
+		reverseSources = base.reverseSources;
+		reverseEdges = base.reverseEdges;
+		time = new double[distance.length];
+		if (traffic == null) {
+			RoadType[] types = RoadType.values();
+			for (int e = 0; e < time.length; e++) {
+				time[e] = distance[e] / profile.getSpeed(types[roadTypes[e]]);
+			}
+		} else {
+			double[] free = freeFlow.withProfile(profile).time;
+			for (int e = 0; e < time.length; e++) {
+				time[e] = traffic[e] == Double.POSITIVE_INFINITY ? Double.POSITIVE_INFINITY : free[e] * traffic[e];
+			}
+		}
+	}
+
+	/**
+	 * The constructor of the car graph with traffic, which shares every array of the graph
+	 * without traffic except the costs
+	 * @param freeFlow the base graph without traffic
+	 * @param traffic the traffic factor of every edge
+	 */
+	private CompiledGraph(CompiledGraph freeFlow, double[] traffic) {
+		this.base = this;
+		this.profile = SpeedProfile.CAR;
+		this.profiles = new HashMap<SpeedProfile, CompiledGraph>();
+		this.freeFlow = freeFlow;
+		this.traffic = traffic;
+		places = freeFlow.places;
+		ids = freeFlow.ids;
+		offsets = freeFlow.offsets;
+		targets = freeFlow.targets;
+		roadTypes = freeFlow.roadTypes;
+		links = freeFlow.links;
+		reverseOffsets = freeFlow.reverseOffsets;
+		reverseSources = freeFlow.reverseSources;
+		reverseEdges = freeFlow.reverseEdges;
+		distance = new double[targets.length];
+		time = new double[targets.length];
+		for (int e = 0; e < time.length; e++) {
+			// a slower link is no longer, only a closed one cannot be driven at all
+			if (traffic[e] == Double.POSITIVE_INFINITY) {
+				distance[e] = Double.POSITIVE_INFINITY;
+				time[e] = Double.POSITIVE_INFINITY;
+			} else {
+				distance[e] = freeFlow.distance[e];
+				time[e] = freeFlow.time[e] * traffic[e];
+			}
+		}
+	}
+
+	/**
+	 * return the graph with the time costs of a speed profile. The time costs of each profile
+	 * are computed once and the graph is kept, so later calls only look it up.
+	 * @param p
+	 * @return the graph, which shares its places, ids and distances with this one
+	 */
+	public CompiledGraph withProfile(SpeedProfile p) {
+		if (p == profile) {
+			return this;
+		}
+		if (p == SpeedProfile.CAR) {
+			return base;
+		}
+		synchronized (base.profiles) {
+			CompiledGraph g = base.profiles.get(p);
+			if (g == null) {
+				g = new CompiledGraph(base, p);
+				base.profiles.put(p, g);
+			}
+			return g;
+		}
+	}
+
+	/**
+	 * return the graph of the same speed profile with the given traffic factors. The graph
+	 * without traffic is always the same one, the graph with traffic is new on every call.
+	 * @param factors the traffic factor of every edge as read by readTraffic, or null for none
+	 * @return the graph, which shares its places, ids and links with this one
+	 */
+	CompiledGraph withTraffic(double[] factors) {
+		CompiledGraph g = factors == null ? freeFlow : new CompiledGraph(freeFlow, factors);
+		return g.withProfile(profile);
+	}
+
+	/**
+	 * return the traffic factors the links of the edges have now, see Link.setTraffic
+	 * @return the factor of every edge, or null if no link has traffic
+	 */
+	double[] readTraffic() {
+		double[] factors = null;
+		for (int e = 0; e < links.length; e++) {
+			double f = links[e].getTraffic();
+			if (f != 1.0) {
+				if (factors == null) {
+					factors = new double[links.length];
+					Arrays.fill(factors, 1.0);
+				}
+				factors[e] = f;
+			}
+		}
+		return factors;
+	}
+
+	/**
+	 * return the graph of the same speed profile without traffic, whose costs are never more
+	 * than those of this graph, so bounds computed on it hold for any traffic
+	 * @return
+	 */
+	public CompiledGraph getFreeFlow() {
+		return freeFlow.withProfile(profile);
+	}
+
+	/**
+	 * return true if some link of the graph is slowed down or closed by traffic
+	 * @return
+	 */
+	public boolean hasTraffic() {
+		return traffic != null;
+	}
+
+	/**
+	 * return the speed profile of the time costs
+	 * @return
+	 */
+	public SpeedProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * return the id of a place if it is part of this graph
+	 * @param p
+	 * @return the id of the place, or -1 if it is not in this graph
+	 */
+	public int indexOf(Place p) {
+		Integer id = ids.get(p);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * return the place with the given id
+	 * @param id
+	 * @return the place
+	 */
+	public Place getPlace(int id) {
+		return places[id];
+	}
+
+	/**
+	 * return the places of the given ids in the same order
+	 * @param ids
+	 * @return ArrayList of the places
+	 */
+	public ArrayList<Place> toPlaces(int[] ids) {
+		ArrayList<Place> list = new ArrayList<Place>(ids.length);
+		for (int id : ids) {
+			list.add(places[id]);
+		}
+		return list;
+	}
+
+	/**
+	 * return the number of places in the graph
+	 * @return
+	 */
+	public int nodeCount() {
+		return places.length;
+	}
+
+	/**
+	 * return the number of edges in the graph
+	 * @return
+	 */
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * return the cheapest edge from one place to another that a filter allows, the edge a least
+	 * cost route uses between two places that follow each other
+	 * @param from id of the place the edge leaves
+	 * @param to id of the place the edge leads to
+	 * @param metric cost function that decides which of several edges is the cheapest
+	 * @param filter road filter the edge has to keep to and whose costs are compared
+	 * @return id of the edge, or -1 if there is no edge the filter allows
+	 */
+	int findEdge(int from, int to, Metric metric, RoadFilter filter) {
+		double[] weights = getWeights(metric);
+		int best = -1;
+		double bestCost = Double.POSITIVE_INFINITY;
+		for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+			if (targets[e] != to) {
+				continue;
+			}
+			double c = filter.cost(weights[e], roadTypes[e]);
+			if (c < bestCost) {
+				best = e;
+				bestCost = c;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * For use by the routing searches, must not be modified
+	 * @return the edge offsets of every place
+	 */
+	int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * For use by the routing searches, must not be modified
+	 * @return the target of every edge
+	 */
+	int[] getTargets() {
+		return targets;
+	}
+
+	/**
+	 * For use by the routing searches, must not be modified
+	 * @return the offsets of the edges entering every place
+	 */
+	int[] getReverseOffsets() {
+		return reverseOffsets;
+	}
+
+	/**
+	 * For use by the routing searches, must not be modified
+	 * @return the place every entering edge leaves from
+	 */
+	int[] getReverseSources() {
+		return reverseSources;
+	}
+
+	/**
+	 * For use by the routing searches, must not be modified
+	 * @return the id of every entering edge in the forward edge arrays
+	 */
+	int[] getReverseEdges() {
+		return reverseEdges;
+	}
+
+	/**
+	 * For use by the routing searches, must not be modified
+	 * @return the ordinal of the RoadType of every edge
+	 */
+	byte[] getRoadTypes() {
+		return roadTypes;
+	}
+
+	/**
+	 * For use by the routing searches, must not be modified
+	 * @param metric cost function of the weights
+	 * @return the weight of every edge for the metric
+	 */
+	double[] getWeights(Metric metric) {
+		return metric == Metric.TIME ? time : distance;
+	}
+}
@@ -0,0 +1,503 @@
+package backend;
+
+import java.util.Arrays;
+
+import utils.IntDoubleHeap;
+import utils.Metric;
+
+/**
+ * ContractionHierarchy is the preprocessed form of a CompiledGraph for one metric that answers
+ * point-to-point queries with a small bidirectional search. Places are contracted one at a time
+ * in order of importance; contracting a place adds a shortcut between two of its remaining
+ * neighbors whenever no witness path around it is as cheap. A query then only has to follow
+ * edges towards places of higher rank from both ends, see ContractionHierarchyQuery.
+ * While contracting, every remaining place keeps at most one edge to each remaining neighbor: a
+ * shortcut that is cheaper than the edge already there replaces its cost in place, and the edges
+ * of a place are taken out of its neighbors' lists once it is contracted.
+ *
+ * Every edge of the hierarchy, original or shortcut, has an id. A shortcut remembers the two
+ * edges it replaces so a route can be unpacked back into the original links.
+ * graph - the graph the hierarchy was built from
+ * metric - the cost function of the hierarchy
+ * rank - position of each place in the contraction order
+ * edgeFrom, edgeTo, edgeWeight - endpoints and cost of every edge
+ * edgeFirst, edgeSecond - ids of the two edges a shortcut replaces, -1 for original edges
+ * upOffsets, upTargets, upWeights, upEdges - for each place the edges to places of higher rank
+ * downOffsets, downSources, downWeights, downEdges - for each place the edges from places of higher rank
+ * shortcutCount - number of shortcuts that were added
+ */
+public class ContractionHierarchy {
+
+	private static final int SIMULATE_SETTLE_LIMIT = 100;
+	private static final int CONTRACT_SETTLE_LIMIT = 1000;
+
+	private final CompiledGraph graph;
+	private final Metric metric;
+	private final int[] rank;
+	private int[] edgeFrom;
+	private int[] edgeTo;
+	private double[] edgeWeight;
+	private int[] edgeFirst;
+	private int[] edgeSecond;
+	private final int[] upOffsets;
+	private final int[] upTargets;
+	private final double[] upWeights;
+	private final int[] upEdges;
+	private final int[] downOffsets;
+	private final int[] downSources;
+	private final double[] downWeights;
+	private final int[] downEdges;
+	private int shortcutCount;
+
+	// adjacency used only while contracting, the ids of the edges between remaining places
+	private int edgeCount;
+	private int[][] outEdges;
+	private int[] outSize;
+	private int[][] inEdges;
+	private int[] inSize;
+	private int[] deletedNeighbors;
+
+	// buffers of the witness search, reused by every witness search
+	private IntDoubleHeap witnessHeap;
+	private double[] witnessCost;
+	private int[] witnessReached;
+	private int[] witnessTarget;
+	private double[] witnessTargetCost;
+	private int witnessQuery;
+
+	/**
+	 * The constructor contracts every place of the graph using the weights of the given metric
+	 * @param graph the graph to preprocess
+	 * @param metric cost function of the hierarchy
+	 */
+	public ContractionHierarchy(CompiledGraph graph, Metric metric) {
+		this.graph = graph;
+		this.metric = metric;
+		int n = graph.nodeCount();
+		rank = new int[n];
+		loadEdges();
+		contractAll();
+		// build the upward and downward search graphs
+		upOffsets = new int[n + 1];
+		downOffsets = new int[n + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			if (rank[edgeTo[e]] > rank[edgeFrom[e]]) {
+				upOffsets[edgeFrom[e] + 1]++;
+			} else {
+				downOffsets[edgeTo[e] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			upOffsets[v + 1] += upOffsets[v];
+			downOffsets[v + 1] += downOffsets[v];
+		}
+		upTargets = new int[upOffsets[n]];
+		upWeights = new double[upOffsets[n]];
+		upEdges = new int[upOffsets[n]];
+		downSources = new int[downOffsets[n]];
+		downWeights = new double[downOffsets[n]];
+		downEdges = new int[downOffsets[n]];
+		int[] upFill = Arrays.copyOf(upOffsets, n);
+		int[] downFill = Arrays.copyOf(downOffsets, n);
+		for (int e = 0; e < edgeCount; e++) {
+			int u = edgeFrom[e];
+			int w = edgeTo[e];
+			if (rank[w] > rank[u]) {
+				int i = upFill[u]++;
+				upTargets[i] = w;
+				upWeights[i] = edgeWeight[e];
+				upEdges[i] = e;
+			} else {
+				int i = downFill[w]++;
+				downSources[i] = u;
+				downWeights[i] = edgeWeight[e];
+				downEdges[i] = e;
+			}
+		}
+		edgeFrom = Arrays.copyOf(edgeFrom, edgeCount);
+		edgeTo = Arrays.copyOf(edgeTo, edgeCount);
+		edgeWeight = Arrays.copyOf(edgeWeight, edgeCount);
+		edgeFirst = Arrays.copyOf(edgeFirst, edgeCount);
+		edgeSecond = Arrays.copyOf(edgeSecond, edgeCount);
+		for (int e = 0; e < edgeCount; e++) {
+			if (edgeFirst[e] != -1) {
+				shortcutCount++;
+			}
+		}
+		// release everything that was only needed for the contraction
+		outEdges = null;
+		outSize = null;
+		inEdges = null;
+		inSize = null;
+		deletedNeighbors = null;
+		witnessHeap = null;
+		witnessCost = null;
+		witnessReached = null;
+		witnessTarget = null;
+		witnessTargetCost = null;
+	}
+
+	/**
+	 * copies the edges of the graph into the contraction adjacency lists, leaving out self loops
+	 * and keeping only the cheapest of parallel edges
+	 */
+	private void loadEdges() {
+		int n = graph.nodeCount();
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		double[] weights = graph.getWeights(metric);
+		int capacity = Math.max(16, targets.length * 2);
+		edgeFrom = new int[capacity];
+		edgeTo = new int[capacity];
+		edgeWeight = new double[capacity];
+		edgeFirst = new int[capacity];
+		edgeSecond = new int[capacity];
+		outEdges = new int[n][];
+		outSize = new int[n];
+		inEdges = new int[n][];
+		inSize = new int[n];
+		for (int v = 0; v < n; v++) {
+			outEdges[v] = new int[Math.max(2, offsets[v + 1] - offsets[v])];
+			inEdges[v] = new int[2];
+		}
+		edgeCount = 0;
+		for (int v = 0; v < n; v++) {
+			for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+				if (targets[e] != v) {
+					improveEdge(v, targets[e], weights[e], -1, -1);
+				}
+			}
+		}
+		deletedNeighbors = new int[n];
+		witnessHeap = new IntDoubleHeap(n);
+		witnessCost = new double[n];
+		witnessReached = new int[n];
+		witnessTarget = new int[n];
+		witnessTargetCost = new double[n];
+	}
+
+	/**
+	 * makes the edge between two remaining places cost at most the given weight, adding it if
+	 * there is no edge between them yet and replacing the cost and the replaced edges of the one
+	 * there if it is dearer
+	 * @param from
+	 * @param to
+	 * @param weight
+	 * @param first id of the first edge a shortcut replaces, -1 for an original edge
+	 * @param second id of the second edge a shortcut replaces, -1 for an original edge
+	 * @return true if an edge was added or made cheaper
+	 */
+	private boolean improveEdge(int from, int to, double weight, int first, int second) {
+		int[] out = outEdges[from];
+		for (int i = 0; i < outSize[from]; i++) {
+			int e = out[i];
+			if (edgeTo[e] == to) {
+				if (edgeWeight[e] <= weight) {
+					return false;
+				}
+				edgeWeight[e] = weight;
+				edgeFirst[e] = first;
+				edgeSecond[e] = second;
+				return true;
+			}
+		}
+		addEdge(from, to, weight, first, second);
+		return true;
+	}
+
+	/**
+	 * adds an edge to the contraction adjacency lists
+	 * @return id of the new edge
+	 */
+	private int addEdge(int from, int to, double weight, int first, int second) {
+		if (edgeCount == edgeFrom.length) {
+			int capacity = edgeCount * 2;
+			edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+			edgeTo = Arrays.copyOf(edgeTo, capacity);
+			edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+			edgeFirst = Arrays.copyOf(edgeFirst, capacity);
+			edgeSecond = Arrays.copyOf(edgeSecond, capacity);
+		}
+		int e = edgeCount++;
+		edgeFrom[e] = from;
+		edgeTo[e] = to;
+		edgeWeight[e] = weight;
+		edgeFirst[e] = first;
+		edgeSecond[e] = second;
+		if (outSize[from] == outEdges[from].length) {
+			outEdges[from] = Arrays.copyOf(outEdges[from], outSize[from] * 2);
+		}
+		outEdges[from][outSize[from]++] = e;
+		if (inSize[to] == inEdges[to].length) {
+			inEdges[to] = Arrays.copyOf(inEdges[to], inSize[to] * 2);
+		}
+		inEdges[to][inSize[to]++] = e;
+		return e;
+	}
+
+	/**
+	 * takes an edge out of an adjacency list by moving the last edge of the list into its place
+	 * @param list
+	 * @param size number of edges in the list
+	 * @param e id of the edge
+	 * @return true if the edge was in the list
+	 */
+	private static boolean removeEdge(int[] list, int size, int e) {
+		for (int i = 0; i < size; i++) {
+			if (list[i] == e) {
+				list[i] = list[size - 1];
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * contracts the places in order of priority. Priorities are updated lazily: a place is only
+	 * contracted when its recomputed priority is still the least in the queue, otherwise it goes
+	 * back with the new priority.
+	 */
+	private void contractAll() {
+		int n = graph.nodeCount();
+		IntDoubleHeap order = new IntDoubleHeap(n);
+		for (int v = 0; v < n; v++) {
+			order.offer(v, priority(v));
+		}
+		int next = 0;
+		while (!order.isEmpty()) {
+			int v = order.poll();
+			double p = priority(v);
+			if (!order.isEmpty() && p > order.peekKey()) {
+				order.offer(v, p);
+				continue;
+			}
+			contract(v, false);
+			rank[v] = next++;
+		}
+	}
+
+	/**
+	 * the priority of a place is its edge difference, the shortcuts its contraction adds less the
+	 * edges it removes, plus the number of its contracted neighbors, so places whose removal adds
+	 * few shortcuts go first and contraction spreads over the graph
+	 * @param v
+	 * @return priority of the place, lower is contracted earlier
+	 */
+	private double priority(int v) {
+		int added = contract(v, true);
+		return 2 * (added - outSize[v] - inSize[v]) + deletedNeighbors[v];
+	}
+
+	/**
+	 * adds the shortcuts needed to remove a place from the remaining graph and, unless only
+	 * simulating, takes the edges of the place out of the lists of its neighbors
+	 * @param v place to contract
+	 * @param simulate true to only count the shortcuts without adding them
+	 * @return number of shortcuts that would be added or made cheaper
+	 */
+	private int contract(int v, boolean simulate) {
+		int count = 0;
+		int[] out = outEdges[v];
+		int[] in = inEdges[v];
+		int settleLimit = simulate ? SIMULATE_SETTLE_LIMIT : CONTRACT_SETTLE_LIMIT;
+		for (int i = 0; i < inSize[v]; i++) {
+			int inEdge = in[i];
+			int u = edgeFrom[inEdge];
+			witnessSearch(u, v, out, outSize[v], edgeWeight[inEdge], settleLimit);
+			for (int j = 0; j < outSize[v]; j++) {
+				int outEdge = out[j];
+				int x = edgeTo[outEdge];
+				if (x == u) {
+					continue;
+				}
+				double via = edgeWeight[inEdge] + edgeWeight[outEdge];
+				// the witness search relaxes the edges of u first, so an edge from u to x that is
+				// as cheap as the shortcut is a witness too
+				if (witnessReached[x] == witnessQuery && witnessCost[x] <= via) {
+					continue;
+				}
+				if (simulate || improveEdge(u, x, via, inEdge, outEdge)) {
+					count++;
+				}
+			}
+		}
+		if (!simulate) {
+			for (int j = 0; j < outSize[v]; j++) {
+				int x = edgeTo[out[j]];
+				if (removeEdge(inEdges[x], inSize[x], out[j])) {
+					inSize[x]--;
+				}
+				deletedNeighbors[x]++;
+			}
+			for (int i = 0; i < inSize[v]; i++) {
+				int u = edgeFrom[in[i]];
+				if (removeEdge(outEdges[u], outSize[u], in[i])) {
+					outSize[u]--;
+				}
+				deletedNeighbors[u]++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Dijkstra search from a place through the remaining graph that avoids the place being
+	 * contracted. A target is done once it is reached for no more than the shortcut to it would
+	 * cost, and the search stops once every target is done, once the cheapest queued cost is above
+	 * the dearest shortcut to a target that is not done, or after settleLimit places. Reached
+	 * places and their costs are left in the witness buffers.
+	 * @param source place to search from
+	 * @param avoid place being contracted
+	 * @param targets the edges from the avoided place to the places a witness may reach
+	 * @param targetCount number of edges in targets
+	 * @param inWeight cost of the edge from the source to the avoided place
+	 * @param settleLimit the most places that are settled
+	 */
+	private void witnessSearch(int source, int avoid, int[] targets, int targetCount, double inWeight, int settleLimit) {
+		witnessQuery++;
+		witnessHeap.clear();
+		int remaining = 0;
+		double limit = 0.0;
+		for (int j = 0; j < targetCount; j++) {
+			int x = edgeTo[targets[j]];
+			if (x != source) {
+				witnessTarget[x] = witnessQuery;
+				witnessTargetCost[x] = inWeight + edgeWeight[targets[j]];
+				limit = Math.max(limit, witnessTargetCost[x]);
+				remaining++;
+			}
+		}
+		witnessCost[source] = 0.0;
+		witnessReached[source] = witnessQuery;
+		witnessHeap.offer(source, 0.0);
+		int settledCount = 0;
+		while (remaining > 0 && !witnessHeap.isEmpty() && witnessHeap.peekKey() <= limit && settledCount < settleLimit) {
+			int u = witnessHeap.poll();
+			settledCount++;
+			int[] out = outEdges[u];
+			for (int i = 0; i < outSize[u]; i++) {
+				int e = out[i];
+				int x = edgeTo[e];
+				if (x == avoid) {
+					continue;
+				}
+				double c = witnessCost[u] + edgeWeight[e];
+				if (c > limit) {
+					continue;
+				}
+				if (witnessReached[x] != witnessQuery) {
+					witnessReached[x] = witnessQuery;
+					witnessCost[x] = c;
+					witnessHeap.offer(x, c);
+				} else if (c < witnessCost[x]) {
+					witnessCost[x] = c;
+					witnessHeap.decreaseKey(x, c);
+				} else {
+					continue;
+				}
+				if (witnessTarget[x] == witnessQuery && c <= witnessTargetCost[x]) {
+					// x has its witness, so the search only has to go as far as the others need
+					witnessTarget[x] = 0;
+					remaining--;
+					if (witnessTargetCost[x] == limit) {
+						limit = 0.0;
+						for (int j = 0; j < targetCount; j++) {
+							int t = edgeTo[targets[j]];
+							if (witnessTarget[t] == witnessQuery) {
+								limit = Math.max(limit, witnessTargetCost[t]);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * return a new query object that searches this hierarchy with its own buffers
+	 * @return the query
+	 */
+	public ContractionHierarchyQuery newQuery() {
+		return new ContractionHierarchyQuery(this);
+	}
+
+	/**
+	 * return the graph the hierarchy was built from
+	 * @return
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * return the cost function of the hierarchy
+	 * @return
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * return the number of shortcuts added while contracting
+	 * @return
+	 */
+	public int getShortcutCount() {
+		return shortcutCount;
+	}
+
+	/**
+	 * return the number of edges, original and shortcut, in the hierarchy
+	 * @return
+	 */
+	public int getEdgeCount() {
+		return edgeFrom.length;
+	}
+
+	int[] getUpOffsets() {
+		return upOffsets;
+	}
+
+	int[] getUpTargets() {
+		return upTargets;
+	}
+
+	double[] getUpWeights() {
+		return upWeights;
+	}
+
+	int[] getUpEdges() {
+		return upEdges;
+	}
+
+	int[] getDownOffsets() {
+		return downOffsets;
+	}
+
+	int[] getDownSources() {
+		return downSources;
+	}
+
+	double[] getDownWeights() {
+		return downWeights;
+	}
+
+	int[] getDownEdges() {
+		return downEdges;
+	}
+
+	int getEdgeFrom(int e) {
+		return edgeFrom[e];
+	}
+
+	int getEdgeTo(int e) {
+		return edgeTo[e];
+	}
+
+	int getEdgeFirst(int e) {
+		return edgeFirst[e];
+	}
+
+	int getEdgeSecond(int e) {
+		return edgeSecond[e];
+	}
+}
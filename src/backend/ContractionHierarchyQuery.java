@@ -0,0 +1,352 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import utils.IntDoubleHeap;
+
+/**
+ * ContractionHierarchyQuery answers point-to-point queries on a ContractionHierarchy with a
+ * bidirectional Dijkstra search that only follows edges towards places of higher rank: upward
+ * edges from the start and downward edges, in reverse, from the destination. The best meeting
+ * place gives the route, whose shortcuts are then unpacked into the original places.
+ * Cost tables between many starts and destinations use the same upward searches with buckets,
+ * see findCosts.
+ * A query object keeps its buffers between queries and must only be used by one thread at a time.
+ * hierarchy - the hierarchy that is searched
+ * forwardCost, backwardCost - best known cost from the start and to the destination
+ * forwardEdge, backwardEdge - hierarchy edge each place was reached by, -1 for the ends
+ * forwardReached, backwardReached - number of the query that last reached each place
+ * forwardHeap, backwardHeap - open places of each direction
+ * stack - buffer used to unpack shortcuts
+ * query - number of the current query
+ * settledCount - number of places settled by the last query
+ * settledOrder - places settled by the last exhaustive upward search, in order
+ */
+public class ContractionHierarchyQuery {
+
+	private final ContractionHierarchy hierarchy;
+	private final double[] forwardCost;
+	private final double[] backwardCost;
+	private final int[] forwardEdge;
+	private final int[] backwardEdge;
+	private final int[] forwardReached;
+	private final int[] backwardReached;
+	private final IntDoubleHeap forwardHeap;
+	private final IntDoubleHeap backwardHeap;
+	private int[] stack;
+	private int query;
+	private int settledCount;
+	private int[] settledOrder;
+
+	/**
+	 * The constructor allocates the search buffers for the given hierarchy
+	 * @param hierarchy
+	 */
+	public ContractionHierarchyQuery(ContractionHierarchy hierarchy) {
+		int n = hierarchy.getGraph().nodeCount();
+		this.hierarchy = hierarchy;
+		forwardCost = new double[n];
+		backwardCost = new double[n];
+		forwardEdge = new int[n];
+		backwardEdge = new int[n];
+		forwardReached = new int[n];
+		backwardReached = new int[n];
+		forwardHeap = new IntDoubleHeap(n);
+		backwardHeap = new IntDoubleHeap(n);
+		stack = new int[64];
+		settledOrder = new int[64];
+		query = 0;
+	}
+
+	/**
+	 * finds the least cost route from one place to another
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	public ArrayList<Place> findRoute(Place from, Place to) {
+		CompiledGraph graph = hierarchy.getGraph();
+		int source = graph.indexOf(from);
+		int target = graph.indexOf(to);
+		ArrayList<Place> route = new ArrayList<Place>();
+		if (source == -1 || target == -1) {
+			return route;
+		}
+		int meet = search(source, target);
+		if (meet == -1) {
+			return route;
+		}
+		// collect the upward edges from the start to the meeting place
+		int hops = 0;
+		for (int v = meet; forwardEdge[v] != -1; v = hierarchy.getEdgeFrom(forwardEdge[v])) {
+			hops++;
+		}
+		int[] up = new int[hops];
+		for (int v = meet; forwardEdge[v] != -1; v = hierarchy.getEdgeFrom(forwardEdge[v])) {
+			up[--hops] = forwardEdge[v];
+		}
+		route.add(graph.getPlace(source));
+		for (int e : up) {
+			unpack(e, route);
+		}
+		// then the downward edges from the meeting place to the destination
+		for (int v = meet; backwardEdge[v] != -1; v = hierarchy.getEdgeTo(backwardEdge[v])) {
+			unpack(backwardEdge[v], route);
+		}
+		return route;
+	}
+
+	/**
+	 * finds the cost of the least cost route from one place to another without building the route
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @return the cost, or Double.POSITIVE_INFINITY if to cannot be reached
+	 */
+	public double findCost(Place from, Place to) {
+		CompiledGraph graph = hierarchy.getGraph();
+		int source = graph.indexOf(from);
+		int target = graph.indexOf(to);
+		if (source == -1 || target == -1) {
+			return Double.POSITIVE_INFINITY;
+		}
+		int meet = search(source, target);
+		return meet == -1 ? Double.POSITIVE_INFINITY : forwardCost[meet] + backwardCost[meet];
+	}
+
+	/**
+	 * finds the cost of the least cost route from every start to every destination without
+	 * building any route. Each destination runs one backward upward search and leaves an entry
+	 * (destination, cost) in the bucket of every place it settles; each start then runs one
+	 * forward upward search and combines its cost to every settled place with the entries in that
+	 * place's bucket. That is one search per start and per destination instead of one per pair.
+	 * @param sources places to start from
+	 * @param targets places to arrive at
+	 * @return costs[i][j] is the cost from sources.get(i) to targets.get(j), or
+	 * 		Double.POSITIVE_INFINITY if it cannot be reached
+	 */
+	public double[][] findCosts(List<? extends Place> sources, List<? extends Place> targets) {
+		CompiledGraph graph = hierarchy.getGraph();
+		int n = graph.nodeCount();
+		double[][] costs = new double[sources.size()][targets.size()];
+		for (double[] row : costs) {
+			Arrays.fill(row, Double.POSITIVE_INFINITY);
+		}
+		settledCount = 0;
+		// backward searches, collecting the bucket entries grouped by destination
+		int entryCount = 0;
+		int[] entryPlace = new int[Math.max(16, targets.size() * 8)];
+		int[] entryTarget = new int[entryPlace.length];
+		double[] entryCost = new double[entryPlace.length];
+		for (int j = 0; j < targets.size(); j++) {
+			int target = graph.indexOf(targets.get(j));
+			if (target == -1) {
+				continue;
+			}
+			int settled = exhaust(target, false);
+			if (entryCount + settled > entryPlace.length) {
+				int capacity = Math.max(entryPlace.length * 2, entryCount + settled);
+				entryPlace = Arrays.copyOf(entryPlace, capacity);
+				entryTarget = Arrays.copyOf(entryTarget, capacity);
+				entryCost = Arrays.copyOf(entryCost, capacity);
+			}
+			for (int i = 0; i < settled; i++) {
+				int v = settledOrder[i];
+				entryPlace[entryCount] = v;
+				entryTarget[entryCount] = j;
+				entryCost[entryCount] = backwardCost[v];
+				entryCount++;
+			}
+		}
+		// regroup the entries by place into buckets
+		int[] bucketOffsets = new int[n + 1];
+		for (int i = 0; i < entryCount; i++) {
+			bucketOffsets[entryPlace[i] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			bucketOffsets[v + 1] += bucketOffsets[v];
+		}
+		int[] fill = Arrays.copyOf(bucketOffsets, n);
+		int[] bucketTarget = new int[entryCount];
+		double[] bucketCost = new double[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			int b = fill[entryPlace[i]]++;
+			bucketTarget[b] = entryTarget[i];
+			bucketCost[b] = entryCost[i];
+		}
+		// forward searches, scanning the bucket of every settled place
+		for (int i = 0; i < sources.size(); i++) {
+			int source = graph.indexOf(sources.get(i));
+			if (source == -1) {
+				continue;
+			}
+			double[] row = costs[i];
+			int settled = exhaust(source, true);
+			for (int k = 0; k < settled; k++) {
+				int v = settledOrder[k];
+				double c = forwardCost[v];
+				for (int b = bucketOffsets[v]; b < bucketOffsets[v + 1]; b++) {
+					if (c + bucketCost[b] < row[bucketTarget[b]]) {
+						row[bucketTarget[b]] = c + bucketCost[b];
+					}
+				}
+			}
+		}
+		return costs;
+	}
+
+	/**
+	 * return the number of places settled by the last query in both directions
+	 * @return
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * runs both upward searches until neither can improve the best meeting place
+	 * @param source id of the start
+	 * @param target id of the destination
+	 * @return id of the best meeting place, or -1 if the searches do not meet
+	 */
+	private int search(int source, int target) {
+		query++;
+		settledCount = 0;
+		forwardHeap.clear();
+		backwardHeap.clear();
+		forwardCost[source] = 0.0;
+		forwardEdge[source] = -1;
+		forwardReached[source] = query;
+		forwardHeap.offer(source, 0.0);
+		backwardCost[target] = 0.0;
+		backwardEdge[target] = -1;
+		backwardReached[target] = query;
+		backwardHeap.offer(target, 0.0);
+		double best = Double.POSITIVE_INFINITY;
+		int meet = -1;
+		int[] upOffsets = hierarchy.getUpOffsets();
+		int[] upTargets = hierarchy.getUpTargets();
+		double[] upWeights = hierarchy.getUpWeights();
+		int[] upEdges = hierarchy.getUpEdges();
+		int[] downOffsets = hierarchy.getDownOffsets();
+		int[] downSources = hierarchy.getDownSources();
+		double[] downWeights = hierarchy.getDownWeights();
+		int[] downEdges = hierarchy.getDownEdges();
+		boolean forward = true;
+		while (true) {
+			// a direction is done once its least key cannot lead to a cheaper meeting
+			boolean forwardDone = forwardHeap.isEmpty() || forwardHeap.peekKey() >= best;
+			boolean backwardDone = backwardHeap.isEmpty() || backwardHeap.peekKey() >= best;
+			if (forwardDone && backwardDone) {
+				break;
+			}
+			if (forwardDone) {
+				forward = false;
+			} else if (backwardDone) {
+				forward = true;
+			}
+			if (forward) {
+				int u = forwardHeap.poll();
+				settledCount++;
+				if (backwardReached[u] == query && forwardCost[u] + backwardCost[u] < best) {
+					best = forwardCost[u] + backwardCost[u];
+					meet = u;
+				}
+				for (int i = upOffsets[u]; i < upOffsets[u + 1]; i++) {
+					relax(forwardHeap, forwardCost, forwardEdge, forwardReached, upTargets[i], forwardCost[u] + upWeights[i], upEdges[i]);
+				}
+			} else {
+				int u = backwardHeap.poll();
+				settledCount++;
+				if (forwardReached[u] == query && forwardCost[u] + backwardCost[u] < best) {
+					best = forwardCost[u] + backwardCost[u];
+					meet = u;
+				}
+				for (int i = downOffsets[u]; i < downOffsets[u + 1]; i++) {
+					relax(backwardHeap, backwardCost, backwardEdge, backwardReached, downSources[i], backwardCost[u] + downWeights[i], downEdges[i]);
+				}
+			}
+			forward = !forward;
+		}
+		return meet;
+	}
+
+	/**
+	 * runs one upward search until its heap is empty and records the settled places in settledOrder
+	 * @param start id of the place to search from
+	 * @param forward true to follow upward edges, false to follow downward edges in reverse
+	 * @return number of places settled
+	 */
+	private int exhaust(int start, boolean forward) {
+		query++;
+		IntDoubleHeap heap = forward ? forwardHeap : backwardHeap;
+		double[] cost = forward ? forwardCost : backwardCost;
+		int[] edge = forward ? forwardEdge : backwardEdge;
+		int[] reached = forward ? forwardReached : backwardReached;
+		int[] offsets = forward ? hierarchy.getUpOffsets() : hierarchy.getDownOffsets();
+		int[] heads = forward ? hierarchy.getUpTargets() : hierarchy.getDownSources();
+		double[] weights = forward ? hierarchy.getUpWeights() : hierarchy.getDownWeights();
+		int[] edges = forward ? hierarchy.getUpEdges() : hierarchy.getDownEdges();
+		heap.clear();
+		cost[start] = 0.0;
+		edge[start] = -1;
+		reached[start] = query;
+		heap.offer(start, 0.0);
+		int settled = 0;
+		while (!heap.isEmpty()) {
+			int u = heap.poll();
+			if (settled == settledOrder.length) {
+				settledOrder = Arrays.copyOf(settledOrder, settled * 2);
+			}
+			settledOrder[settled++] = u;
+			for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+				relax(heap, cost, edge, reached, heads[i], cost[u] + weights[i], edges[i]);
+			}
+		}
+		settledCount += settled;
+		return settled;
+	}
+
+	/**
+	 * lowers the cost of a place in one direction if the given cost is cheaper
+	 */
+	private void relax(IntDoubleHeap heap, double[] cost, int[] edge, int[] reached, int v, double c, int e) {
+		if (reached[v] != query) {
+			reached[v] = query;
+			cost[v] = c;
+			edge[v] = e;
+			heap.offer(v, c);
+		} else if (c < cost[v]) {
+			cost[v] = c;
+			edge[v] = e;
+			heap.decreaseKey(v, c);
+		}
+	}
+
+	/**
+	 * replaces a hierarchy edge by the original edges it stands for and appends the place each
+	 * of them leads to
+	 * @param e id of the edge to unpack
+	 * @param route list the places are appended to
+	 */
+	private void unpack(int e, ArrayList<Place> route) {
+		CompiledGraph graph = hierarchy.getGraph();
+		int top = 0;
+		stack[top++] = e;
+		while (top > 0) {
+			int current = stack[--top];
+			int first = hierarchy.getEdgeFirst(current);
+			if (first == -1) {
+				route.add(graph.getPlace(hierarchy.getEdgeTo(current)));
+			} else {
+				if (top + 2 > stack.length) {
+					stack = Arrays.copyOf(stack, stack.length * 2);
+				}
+				// push the second half first so the first half is unpacked first
+				stack[top++] = hierarchy.getEdgeSecond(current);
+				stack[top++] = first;
+			}
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package backend;
+
+import java.util.Arrays;
+
+import utils.IntDoubleHeap;
+import utils.Metric;
+
+/**
+ * CustomizableHierarchy is the part of a customizable contraction hierarchy that does not depend
+ * on any cost. The places are ordered by a minimum degree elimination of the graph taken as
+ * undirected, which only looks at which places are linked. Eliminating a place links all of its
+ * remaining neighbors to each other, so every route can be replaced by one that first climbs
+ * and then descends in rank, whatever the costs of the links are.
+ * The arcs between a place and its neighbors of higher rank carry no costs here. A
+ * HierarchyCustomization puts the costs of one metric on them, which is quick enough to be done
+ * again after every batch of traffic updates while the order and the arcs are kept.
+ * graph - the graph the order and the arcs were built from
+ * rank - position of each place in the elimination order
+ * order - order[r] is the place of rank r
+ * parent - the neighbor of least higher rank of each place, its parent in the elimination tree,
+ * 		-1 for the last place of each part of the graph
+ * arcOffsets - index of the first arc of each place, with arcOffsets[n] equal to the number of arcs
+ * arcTargets - the neighbor of higher rank each arc leads to, sorted by id for each place
+ * arcSources - the place each arc belongs to, its end of lower rank
+ */
+public class CustomizableHierarchy {
+
+	private final CompiledGraph graph;
+	private final int[] rank;
+	private final int[] order;
+	private final int[] parent;
+	private final int[] arcOffsets;
+	private final int[] arcTargets;
+	private final int[] arcSources;
+
+	/**
+	 * The constructor orders the places and adds the arcs of the elimination
+	 * @param graph the graph to preprocess, only its places and links are looked at
+	 */
+	public CustomizableHierarchy(CompiledGraph graph) {
+		this.graph = graph;
+		int n = graph.nodeCount();
+		rank = new int[n];
+		order = new int[n];
+		parent = new int[n];
+		int[][] upward = eliminate(neighbors());
+		arcOffsets = new int[n + 1];
+		for (int v = 0; v < n; v++) {
+			arcOffsets[v + 1] = arcOffsets[v] + upward[v].length;
+		}
+		arcTargets = new int[arcOffsets[n]];
+		arcSources = new int[arcOffsets[n]];
+		for (int v = 0; v < n; v++) {
+			int[] up = upward[v];
+			Arrays.sort(up);
+			System.arraycopy(up, 0, arcTargets, arcOffsets[v], up.length);
+			Arrays.fill(arcSources, arcOffsets[v], arcOffsets[v + 1], v);
+			parent[v] = -1;
+			for (int w : up) {
+				if (parent[v] == -1 || rank[w] < rank[parent[v]]) {
+					parent[v] = w;
+				}
+			}
+		}
+	}
+
+	/**
+	 * return the neighbors of every place in either direction, without self loops or duplicates
+	 * @return neighbors[v] holds the ids of the places linked to or from v
+	 */
+	private int[][] neighbors() {
+		int n = graph.nodeCount();
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		int[] reverseOffsets = graph.getReverseOffsets();
+		int[] reverseSources = graph.getReverseSources();
+		int[][] neighbors = new int[n][];
+		int[] mark = new int[n];
+		Arrays.fill(mark, -1);
+		for (int v = 0; v < n; v++) {
+			int[] list = new int[offsets[v + 1] - offsets[v] + reverseOffsets[v + 1] - reverseOffsets[v]];
+			int size = 0;
+			mark[v] = v;
+			for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+				if (mark[targets[e]] != v) {
+					mark[targets[e]] = v;
+					list[size++] = targets[e];
+				}
+			}
+			for (int r = reverseOffsets[v]; r < reverseOffsets[v + 1]; r++) {
+				if (mark[reverseSources[r]] != v) {
+					mark[reverseSources[r]] = v;
+					list[size++] = reverseSources[r];
+				}
+			}
+			neighbors[v] = Arrays.copyOf(list, size);
+		}
+		return neighbors;
+	}
+
+	/**
+	 * eliminates the places one at a time, always one with the fewest remaining neighbors, and
+	 * links the remaining neighbors of each eliminated place to each other. Degrees that grow are
+	 * only noticed when the place comes out of the queue, like the priorities of ContractionHierarchy.
+	 * @param adjacency the neighbors of every place, grown by the elimination
+	 * @return the remaining neighbors of every place when it was eliminated
+	 */
+	private int[][] eliminate(int[][] adjacency) {
+		int n = graph.nodeCount();
+		int[] size = new int[n];
+		boolean[] eliminated = new boolean[n];
+		int[] mark = new int[n];
+		Arrays.fill(mark, -1);
+		int[][] upward = new int[n][];
+		IntDoubleHeap queue = new IntDoubleHeap(n);
+		for (int v = 0; v < n; v++) {
+			size[v] = adjacency[v].length;
+			queue.offer(v, size[v]);
+		}
+		int next = 0;
+		while (!queue.isEmpty()) {
+			int v = queue.poll();
+			int degree = compact(adjacency, size, eliminated, v);
+			if (!queue.isEmpty() && degree > queue.peekKey()) {
+				queue.offer(v, degree);
+				continue;
+			}
+			eliminated[v] = true;
+			rank[v] = next;
+			order[next++] = v;
+			int[] remaining = Arrays.copyOf(adjacency[v], degree);
+			upward[v] = remaining;
+			adjacency[v] = null;
+			for (int a : remaining) {
+				int d = compact(adjacency, size, eliminated, a);
+				for (int i = 0; i < d; i++) {
+					mark[adjacency[a][i]] = a;
+				}
+				for (int b : remaining) {
+					if (b != a && mark[b] != a) {
+						if (size[a] == adjacency[a].length) {
+							adjacency[a] = Arrays.copyOf(adjacency[a], Math.max(4, size[a] * 2));
+						}
+						adjacency[a][size[a]++] = b;
+						mark[b] = a;
+					}
+				}
+				if (size[a] < queue.getKey(a)) {
+					queue.decreaseKey(a, size[a]);
+				}
+			}
+		}
+		return upward;
+	}
+
+	/**
+	 * removes the eliminated places from the neighbors of a place
+	 * @return number of remaining neighbors
+	 */
+	private static int compact(int[][] adjacency, int[] size, boolean[] eliminated, int v) {
+		int[] list = adjacency[v];
+		int kept = 0;
+		for (int i = 0; i < size[v]; i++) {
+			if (!eliminated[list[i]]) {
+				list[kept++] = list[i];
+			}
+		}
+		size[v] = kept;
+		return kept;
+	}
+
+	/**
+	 * puts the costs of a metric on the arcs
+	 * @param costs a graph with the same places and links as the one the hierarchy was built
+	 * 		from, such as the graph of another speed profile or with traffic
+	 * @param metric cost function of the customization
+	 * @return the customized hierarchy
+	 */
+	public HierarchyCustomization customize(CompiledGraph costs, Metric metric) {
+		if (costs.getOffsets() != graph.getOffsets()) {
+			throw new IllegalArgumentException("The graph does not have the links of the hierarchy");
+		}
+		return new HierarchyCustomization(this, costs, metric);
+	}
+
+	/**
+	 * return the arc between two places
+	 * @param low id of the end of lower rank
+	 * @param high id of the end of higher rank
+	 * @return id of the arc, or -1 if there is none
+	 */
+	int findArc(int low, int high) {
+		int i = Arrays.binarySearch(arcTargets, arcOffsets[low], arcOffsets[low + 1], high);
+		return i < 0 ? -1 : i;
+	}
+
+	/**
+	 * return the graph the hierarchy was built from
+	 * @return
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * return the number of arcs, links and shortcuts, between places and their neighbors of higher rank
+	 * @return
+	 */
+	public int getArcCount() {
+		return arcTargets.length;
+	}
+
+	int[] getRank() {
+		return rank;
+	}
+
+	int[] getOrder() {
+		return order;
+	}
+
+	int[] getParent() {
+		return parent;
+	}
+
+	int[] getArcOffsets() {
+		return arcOffsets;
+	}
+
+	int[] getArcTargets() {
+		return arcTargets;
+	}
+
+	int[] getArcSources() {
+		return arcSources;
+	}
+}
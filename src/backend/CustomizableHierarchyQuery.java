@@ -0,0 +1,214 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * CustomizableHierarchyQuery answers point-to-point queries on a HierarchyCustomization. The arcs
+ * of a place only lead to its ancestors in the elimination tree, so the upward search from the
+ * start needs no heap: it walks up the tree from the start and relaxes the arcs of each place
+ * on the way, which comes before all the places it can reach. The backward search does the same
+ * from the destination, and the best meeting place is the common ancestor with the least total
+ * cost. Shortcuts are then unpacked through the places they pass.
+ * A query object keeps its buffers between queries and must only be used by one thread at a time.
+ * customization - the costs that are searched
+ * forwardCost, backwardCost - best known cost from the start and to the destination
+ * forwardArc, backwardArc - arc each place was reached by, -1 for the ends
+ * forwardReached, backwardReached - number of the query that last reached each place
+ * stack - buffer used to unpack shortcuts, holding arc ids times two plus one for the downward direction
+ * query - number of the current query
+ * settledCount - number of places visited by the last query
+ */
+public class CustomizableHierarchyQuery {
+
+	private final HierarchyCustomization customization;
+	private final double[] forwardCost;
+	private final double[] backwardCost;
+	private final int[] forwardArc;
+	private final int[] backwardArc;
+	private final int[] forwardReached;
+	private final int[] backwardReached;
+	private int[] stack;
+	private int query;
+	private int settledCount;
+
+	/**
+	 * The constructor allocates the search buffers for the given customization
+	 * @param customization
+	 */
+	public CustomizableHierarchyQuery(HierarchyCustomization customization) {
+		int n = customization.getGraph().nodeCount();
+		this.customization = customization;
+		forwardCost = new double[n];
+		backwardCost = new double[n];
+		forwardArc = new int[n];
+		backwardArc = new int[n];
+		forwardReached = new int[n];
+		backwardReached = new int[n];
+		stack = new int[64];
+		query = 0;
+	}
+
+	/**
+	 * finds the least cost route from one place to another
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	public ArrayList<Place> findRoute(Place from, Place to) {
+		CompiledGraph graph = customization.getGraph();
+		int[] arcSources = customization.getHierarchy().getArcSources();
+		int source = graph.indexOf(from);
+		int target = graph.indexOf(to);
+		ArrayList<Place> route = new ArrayList<Place>();
+		if (source == -1 || target == -1) {
+			return route;
+		}
+		int meet = search(source, target);
+		if (meet == -1) {
+			return route;
+		}
+		// collect the upward arcs from the start to the meeting place
+		int hops = 0;
+		for (int v = meet; forwardArc[v] != -1; v = arcSources[forwardArc[v]]) {
+			hops++;
+		}
+		int[] up = new int[hops];
+		for (int v = meet; forwardArc[v] != -1; v = arcSources[forwardArc[v]]) {
+			up[--hops] = forwardArc[v];
+		}
+		route.add(graph.getPlace(source));
+		for (int k : up) {
+			unpack(k * 2, route);
+		}
+		// then the downward arcs from the meeting place to the destination
+		for (int v = meet; backwardArc[v] != -1; v = arcSources[backwardArc[v]]) {
+			unpack(backwardArc[v] * 2 + 1, route);
+		}
+		return route;
+	}
+
+	/**
+	 * finds the cost of the least cost route from one place to another without building the route
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @return the cost, or Double.POSITIVE_INFINITY if to cannot be reached
+	 */
+	public double findCost(Place from, Place to) {
+		CompiledGraph graph = customization.getGraph();
+		int source = graph.indexOf(from);
+		int target = graph.indexOf(to);
+		if (source == -1 || target == -1) {
+			return Double.POSITIVE_INFINITY;
+		}
+		int meet = search(source, target);
+		return meet == -1 ? Double.POSITIVE_INFINITY : forwardCost[meet] + backwardCost[meet];
+	}
+
+	/**
+	 * return the number of places visited by the last query in both directions
+	 * @return
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * walks up the elimination tree from both ends and relaxes the arcs on the way
+	 * @param source id of the start
+	 * @param target id of the destination
+	 * @return id of the best meeting place, or -1 if the searches do not meet
+	 */
+	private int search(int source, int target) {
+		CustomizableHierarchy hierarchy = customization.getHierarchy();
+		int[] parent = hierarchy.getParent();
+		query++;
+		settledCount = 0;
+		forwardCost[source] = 0.0;
+		forwardArc[source] = -1;
+		forwardReached[source] = query;
+		backwardCost[target] = 0.0;
+		backwardArc[target] = -1;
+		backwardReached[target] = query;
+		for (int v = source; v != -1; v = parent[v]) {
+			settledCount++;
+			if (forwardReached[v] == query) {
+				relaxArcs(v, customization.getUpWeights(), forwardCost, forwardArc, forwardReached);
+			}
+		}
+		double best = Double.POSITIVE_INFINITY;
+		int meet = -1;
+		for (int v = target; v != -1; v = parent[v]) {
+			settledCount++;
+			if (backwardReached[v] != query) {
+				continue;
+			}
+			if (forwardReached[v] == query && forwardCost[v] + backwardCost[v] < best) {
+				best = forwardCost[v] + backwardCost[v];
+				meet = v;
+			}
+			relaxArcs(v, customization.getDownWeights(), backwardCost, backwardArc, backwardReached);
+		}
+		return meet;
+	}
+
+	/**
+	 * lowers the cost of every neighbor of higher rank of a place in one direction where the
+	 * arc to it is cheaper
+	 */
+	private void relaxArcs(int v, double[] weights, double[] cost, int[] arc, int[] reached) {
+		CustomizableHierarchy hierarchy = customization.getHierarchy();
+		int[] arcOffsets = hierarchy.getArcOffsets();
+		int[] arcTargets = hierarchy.getArcTargets();
+		double base = cost[v];
+		for (int k = arcOffsets[v]; k < arcOffsets[v + 1]; k++) {
+			int w = arcTargets[k];
+			double c = base + weights[k];
+			if (c == Double.POSITIVE_INFINITY) {
+				continue;
+			}
+			if (reached[w] != query || c < cost[w]) {
+				reached[w] = query;
+				cost[w] = c;
+				arc[w] = k;
+			}
+		}
+	}
+
+	/**
+	 * replaces an arc by the links it stands for and appends the place each of them leads to
+	 * @param code id of the arc times two, plus one to follow it from its end of higher rank
+	 * @param route list the places are appended to
+	 */
+	private void unpack(int code, ArrayList<Place> route) {
+		CompiledGraph graph = customization.getGraph();
+		CustomizableHierarchy hierarchy = customization.getHierarchy();
+		int[] arcSources = hierarchy.getArcSources();
+		int[] arcTargets = hierarchy.getArcTargets();
+		int[] upMiddle = customization.getUpMiddle();
+		int[] downMiddle = customization.getDownMiddle();
+		int top = 0;
+		stack[top++] = code;
+		while (top > 0) {
+			int current = stack[--top];
+			int k = current >> 1;
+			boolean down = (current & 1) == 1;
+			int low = arcSources[k];
+			int high = arcTargets[k];
+			int middle = down ? downMiddle[k] : upMiddle[k];
+			if (middle == -1) {
+				route.add(graph.getPlace(down ? low : high));
+			} else {
+				if (top + 2 > stack.length) {
+					stack = Arrays.copyOf(stack, stack.length * 2);
+				}
+				// the middle place has a lower rank than both ends, so it goes down to it and up
+				// again; push the second half first so the first half is unpacked first
+				int from = down ? high : low;
+				int to = down ? low : high;
+				stack[top++] = hierarchy.findArc(middle, to) * 2;
+				stack[top++] = hierarchy.findArc(middle, from) * 2 + 1;
+			}
+		}
+	}
+}
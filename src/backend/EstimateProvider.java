@@ -0,0 +1,25 @@
+package backend;
+
+/**
+ * EstimateProvider computes the estimates the A* searches of a map are guided by, so the
+ * estimates are worked out when a route search asks for them instead of being stored in a
+ * table for every pair of places. Every map has its own provider, see Map.setEstimateProvider.
+ */
+public interface EstimateProvider {
+
+	/**
+	 * estimate the distance from one place to another
+	 * @param from
+	 * @param to
+	 * @return a lower bound of the distance cost from from to to
+	 */
+	double getDEst(Place from, Place to);
+
+	/**
+	 * estimate the time from one place to another
+	 * @param from
+	 * @param to
+	 * @return a lower bound of the time cost from from to to
+	 */
+	double getTEst(Place from, Place to);
+}
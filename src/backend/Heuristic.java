@@ -0,0 +1,18 @@
+package backend;
+
+/**
+ * Heuristic gives AStarSearch a lower bound of the remaining cost between two places of a
+ * CompiledGraph. The bound must never be more than the real least cost and must not drop by
+ * more than the cost of an edge from one end of the edge to the other, otherwise A* could
+ * settle a place before its least cost is known.
+ */
+public interface Heuristic {
+
+	/**
+	 * estimate the cost from one place to another
+	 * @param from id of the place to estimate from
+	 * @param to id of the destination
+	 * @return a lower bound of the least cost from from to to
+	 */
+	double estimate(int from, int to);
+}
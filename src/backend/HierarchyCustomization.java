@@ -0,0 +1,176 @@
+package backend;
+
+import java.util.Arrays;
+
+import utils.Metric;
+
+/**
+ * HierarchyCustomization puts the costs of one metric on the arcs of a CustomizableHierarchy.
+ * Every arc first gets the cost of the cheapest link it stands for, or none. Then the places are
+ * visited in rank order, and for every two neighbors a and b of higher rank of a place v the
+ * route a, v, b is checked against the arc between a and b in both directions. The arcs of v
+ * can only be improved by places of lower rank, which have all been visited by then, so after
+ * one pass every arc costs as little as any route below it.
+ * A customization is immutable, so every thread can make its own query over it. When costs
+ * change, the hierarchy is customized again and the order and arcs are kept.
+ * hierarchy - the hierarchy whose arcs carry the costs
+ * graph - the graph the costs were taken from
+ * metric - cost function of the costs
+ * upWeights - cost of each arc from its end of lower rank to its end of higher rank
+ * downWeights - cost of each arc from its end of higher rank to its end of lower rank
+ * upMiddle, downMiddle - the place a shortcut passes through in each direction, -1 where the arc
+ * 		stands for a link of the graph
+ */
+public class HierarchyCustomization {
+
+	private final CustomizableHierarchy hierarchy;
+	private final CompiledGraph graph;
+	private final Metric metric;
+	private final double[] upWeights;
+	private final double[] downWeights;
+	private final int[] upMiddle;
+	private final int[] downMiddle;
+
+	/**
+	 * The constructor computes the cost of every arc
+	 * @param hierarchy the hierarchy to customize
+	 * @param graph a graph with the links of the hierarchy and the costs to put on it
+	 * @param metric cost function of the costs
+	 */
+	HierarchyCustomization(CustomizableHierarchy hierarchy, CompiledGraph graph, Metric metric) {
+		this.hierarchy = hierarchy;
+		this.graph = graph;
+		this.metric = metric;
+		int arcs = hierarchy.getArcCount();
+		upWeights = new double[arcs];
+		downWeights = new double[arcs];
+		upMiddle = new int[arcs];
+		downMiddle = new int[arcs];
+		Arrays.fill(upWeights, Double.POSITIVE_INFINITY);
+		Arrays.fill(downWeights, Double.POSITIVE_INFINITY);
+		Arrays.fill(upMiddle, -1);
+		Arrays.fill(downMiddle, -1);
+		loadLinks();
+		customize();
+	}
+
+	/**
+	 * gives every arc the cost of the cheapest link between its ends in each direction
+	 */
+	private void loadLinks() {
+		int[] rank = hierarchy.getRank();
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		double[] weights = graph.getWeights(metric);
+		for (int u = 0; u < graph.nodeCount(); u++) {
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int x = targets[e];
+				if (x == u) {
+					continue;
+				}
+				if (rank[u] < rank[x]) {
+					int k = hierarchy.findArc(u, x);
+					upWeights[k] = Math.min(upWeights[k], weights[e]);
+				} else {
+					int k = hierarchy.findArc(x, u);
+					downWeights[k] = Math.min(downWeights[k], weights[e]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * improves every arc with the routes through the places of lower rank next to both of its
+	 * ends, visiting those places in rank order
+	 */
+	private void customize() {
+		int n = graph.nodeCount();
+		int[] rank = hierarchy.getRank();
+		int[] order = hierarchy.getOrder();
+		int[] arcOffsets = hierarchy.getArcOffsets();
+		int[] arcTargets = hierarchy.getArcTargets();
+		// position[x] is the arc from a to x while the arcs of a are looked up, the elimination
+		// linked every two neighbors of v so the arc from a to b is always there
+		int[] position = new int[n];
+		for (int r = 0; r < n; r++) {
+			int v = order[r];
+			for (int i = arcOffsets[v]; i < arcOffsets[v + 1]; i++) {
+				int a = arcTargets[i];
+				double toA = downWeights[i];
+				double fromA = upWeights[i];
+				if (toA == Double.POSITIVE_INFINITY && fromA == Double.POSITIVE_INFINITY) {
+					continue;
+				}
+				for (int k = arcOffsets[a]; k < arcOffsets[a + 1]; k++) {
+					position[arcTargets[k]] = k;
+				}
+				for (int j = arcOffsets[v]; j < arcOffsets[v + 1]; j++) {
+					int b = arcTargets[j];
+					if (rank[b] <= rank[a]) {
+						continue;
+					}
+					int k = position[b];
+					// a, v, b and b, v, a
+					double up = toA + upWeights[j];
+					if (up < upWeights[k]) {
+						upWeights[k] = up;
+						upMiddle[k] = v;
+					}
+					double down = downWeights[j] + fromA;
+					if (down < downWeights[k]) {
+						downWeights[k] = down;
+						downMiddle[k] = v;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * return a new query object that searches this customization with its own buffers
+	 * @return the query
+	 */
+	public CustomizableHierarchyQuery newQuery() {
+		return new CustomizableHierarchyQuery(this);
+	}
+
+	/**
+	 * return the hierarchy whose arcs carry the costs
+	 * @return
+	 */
+	public CustomizableHierarchy getHierarchy() {
+		return hierarchy;
+	}
+
+	/**
+	 * return the graph the costs were taken from
+	 * @return
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * return the cost function of the costs
+	 * @return
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	double[] getUpWeights() {
+		return upWeights;
+	}
+
+	double[] getDownWeights() {
+		return downWeights;
+	}
+
+	int[] getUpMiddle() {
+		return upMiddle;
+	}
+
+	int[] getDownMiddle() {
+		return downMiddle;
+	}
+}
@@ -0,0 +1,84 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import utils.Metric;
+
+/**
+ * Itinerary is the immutable answer of the itinerary planner: the order to visit the stops in and
+ * the route that joins them
+ * stops - the stops in the order they are visited
+ * route - the cities along the whole trip in order, the routes between the stops joined together
+ * cost - the total cost of the trip
+ * metric - the cost function the trip was planned with
+ */
+public class Itinerary {
+
+	private final List<Place> stops;
+	private final List<Place> route;
+	private final double cost;
+	private final Metric metric;
+
+	/**
+	 * @param stops the stops in the order they are visited, copied by the constructor
+	 * @param route the cities along the whole trip, copied by the constructor
+	 * @param cost the total cost of the trip
+	 * @param metric the cost function the trip was planned with
+	 */
+	Itinerary(List<Place> stops, List<Place> route, double cost, Metric metric) {
+		this.stops = Collections.unmodifiableList(new ArrayList<Place>(stops));
+		this.route = Collections.unmodifiableList(new ArrayList<Place>(route));
+		this.cost = cost;
+		this.metric = metric;
+	}
+
+	/**
+	 * return the stops in the order they are visited, the list cannot be modified
+	 * @return
+	 */
+	public List<Place> getStops() {
+		return stops;
+	}
+
+	/**
+	 * return the cities along the whole trip in order, the list cannot be modified
+	 * @return
+	 */
+	public List<Place> getRoute() {
+		return route;
+	}
+
+	/**
+	 * return the total cost of the trip, Double.POSITIVE_INFINITY if some stop cannot be reached
+	 * @return
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * return true if every stop can be reached
+	 * @return
+	 */
+	public boolean isFound() {
+		return !Double.isInfinite(cost);
+	}
+
+	/**
+	 * return the cost function the trip was planned with
+	 * @return
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < stops.size(); i++) {
+			sb.append(i == 0 ? "" : ", ").append(stops.get(i).getName().trim());
+		}
+		return sb.append("] cost: ").append(cost).toString();
+	}
+}
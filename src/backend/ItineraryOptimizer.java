@@ -0,0 +1,315 @@
+package backend;
+
+import java.util.Arrays;
+
+/**
+ * ItineraryOptimizer finds the cheapest order to visit a set of stops given the cost of travelling
+ * between every pair of them. The first stop is always visited first, and a round trip returns to
+ * it at the end. Up to DP_LIMIT stops the order is exact, found by the Held-Karp dynamic program
+ * over subsets of stops. Larger sets start from the nearest neighbour order and improve it with
+ * 2-opt moves, which reverse a part of the order, and Or-opt moves, which move a run of up to
+ * three stops elsewhere, until no move helps or the time limit is reached.
+ * cost - cost[i][j] is the cost of travelling from stop i to stop j
+ * n - number of stops
+ * roundTrip - true if the trip returns to the first stop
+ * timeLimitNanos - the longest the local search may run
+ * order - the best order found, a permutation of the stops starting with 0
+ * total - the cost of order
+ */
+public class ItineraryOptimizer {
+
+	private static final int DP_LIMIT = 15;
+	private static final int OR_OPT_LENGTH = 3;
+	private final double[][] cost;
+	private final int n;
+	private final boolean roundTrip;
+	private final long timeLimitNanos;
+	private int[] order;
+	private double total;
+
+	/**
+	 * The constructor finds the order right away
+	 * @param cost cost[i][j] is the cost of travelling from stop i to stop j
+	 * @param roundTrip true if the trip returns to the first stop
+	 * @param timeLimitMillis the longest the local search for large sets may run
+	 */
+	public ItineraryOptimizer(double[][] cost, boolean roundTrip, long timeLimitMillis) {
+		this.cost = cost;
+		this.n = cost.length;
+		this.roundTrip = roundTrip;
+		this.timeLimitNanos = timeLimitMillis * 1000000L;
+		if (n <= 2) {
+			order = new int[n];
+			for (int i = 0; i < n; i++) {
+				order[i] = i;
+			}
+		} else if (n <= DP_LIMIT) {
+			order = heldKarp();
+		} else {
+			order = localSearch();
+		}
+		total = tourCost(order);
+	}
+
+	/**
+	 * return the best order found, a permutation of the stops starting with 0
+	 * @return
+	 */
+	public int[] getOrder() {
+		return order.clone();
+	}
+
+	/**
+	 * return the cost of the best order, Double.POSITIVE_INFINITY if some stop cannot be reached
+	 * @return
+	 */
+	public double getCost() {
+		return total;
+	}
+
+	/**
+	 * return the cost of visiting the stops in the given order
+	 * @param tour
+	 * @return
+	 */
+	private double tourCost(int[] tour) {
+		double c = 0.0;
+		for (int i = 1; i < tour.length; i++) {
+			c += cost[tour[i - 1]][tour[i]];
+		}
+		if (roundTrip && tour.length > 1) {
+			c += cost[tour[tour.length - 1]][tour[0]];
+		}
+		return c;
+	}
+
+	/**
+	 * the Held-Karp dynamic program: best[set][j] is the least cost of starting at stop 0,
+	 * visiting the stops of set and ending at stop j, where bit j - 1 of set stands for stop j
+	 * @return the exact best order
+	 */
+	private int[] heldKarp() {
+		int m = n - 1;
+		int full = (1 << m) - 1;
+		double[][] best = new double[1 << m][m];
+		int[][] prev = new int[1 << m][m];
+		for (double[] row : best) {
+			Arrays.fill(row, Double.POSITIVE_INFINITY);
+		}
+		for (int j = 0; j < m; j++) {
+			best[1 << j][j] = cost[0][j + 1];
+			prev[1 << j][j] = -1;
+		}
+		for (int set = 1; set <= full; set++) {
+			for (int j = 0; j < m; j++) {
+				if ((set & (1 << j)) == 0 || Double.isInfinite(best[set][j])) {
+					continue;
+				}
+				for (int k = 0; k < m; k++) {
+					if ((set & (1 << k)) != 0) {
+						continue;
+					}
+					int next = set | (1 << k);
+					double c = best[set][j] + cost[j + 1][k + 1];
+					if (c < best[next][k]) {
+						best[next][k] = c;
+						prev[next][k] = j;
+					}
+				}
+			}
+		}
+		int last = 0;
+		double bestCost = Double.POSITIVE_INFINITY;
+		for (int j = 0; j < m; j++) {
+			double c = best[full][j] + (roundTrip ? cost[j + 1][0] : 0.0);
+			if (c < bestCost) {
+				bestCost = c;
+				last = j;
+			}
+		}
+		if (Double.isInfinite(bestCost)) {
+			return nearestNeighbour();
+		}
+		int[] tour = new int[n];
+		int set = full;
+		for (int i = n - 1; i >= 1; i--) {
+			tour[i] = last + 1;
+			int p = prev[set][last];
+			set &= ~(1 << last);
+			last = p;
+		}
+		return tour;
+	}
+
+	/**
+	 * return the order that always goes on to the cheapest stop not visited yet
+	 * @return
+	 */
+	private int[] nearestNeighbour() {
+		int[] tour = new int[n];
+		boolean[] visited = new boolean[n];
+		visited[0] = true;
+		for (int i = 1; i < n; i++) {
+			int from = tour[i - 1];
+			int next = -1;
+			for (int j = 1; j < n; j++) {
+				if (!visited[j] && (next == -1 || cost[from][j] < cost[from][next])) {
+					next = j;
+				}
+			}
+			tour[i] = next;
+			visited[next] = true;
+		}
+		return tour;
+	}
+
+	/**
+	 * improves the nearest neighbour order with 2-opt and Or-opt moves
+	 * @return a locally best order
+	 */
+	private int[] localSearch() {
+		long deadline = System.nanoTime() + timeLimitNanos;
+		int[] tour = nearestNeighbour();
+		boolean improved = true;
+		while (improved && System.nanoTime() < deadline) {
+			improved = twoOpt(tour, deadline);
+			improved |= orOpt(tour, deadline);
+		}
+		return tour;
+	}
+
+	/**
+	 * return the cost of the step from the stop at position i to the stop after it, which is
+	 * nothing after the last stop of a one way trip
+	 * @param tour
+	 * @param i
+	 * @return
+	 */
+	private double step(int[] tour, int i) {
+		if (i + 1 < n) {
+			return cost[tour[i]][tour[i + 1]];
+		}
+		return roundTrip ? cost[tour[i]][tour[0]] : 0.0;
+	}
+
+	/**
+	 * applies every 2-opt move that makes the trip cheaper, the stops at positions i to j are
+	 * visited in reverse. Costs need not be symmetric, the cost of the reversed part is kept
+	 * while j grows.
+	 * @param tour the order, changed in place
+	 * @param deadline System.nanoTime() after which no more moves are tried
+	 * @return true if a move was applied
+	 */
+	private boolean twoOpt(int[] tour, long deadline) {
+		boolean improved = false;
+		for (int i = 1; i < n - 1; i++) {
+			if (System.nanoTime() > deadline) {
+				break;
+			}
+			double forward = 0.0;
+			double backward = 0.0;
+			for (int j = i + 1; j < n; j++) {
+				forward += cost[tour[j - 1]][tour[j]];
+				backward += cost[tour[j]][tour[j - 1]];
+				int a = tour[i - 1];
+				double before = cost[a][tour[i]] + forward + step(tour, j);
+				double after = cost[a][tour[j]] + backward;
+				if (j + 1 < n) {
+					after += cost[tour[i]][tour[j + 1]];
+				} else if (roundTrip) {
+					after += cost[tour[i]][tour[0]];
+				}
+				if (after < before - 1e-12) {
+					reverse(tour, i, j);
+					improved = true;
+					forward = 0.0;
+					backward = 0.0;
+					for (int k = i + 1; k <= j; k++) {
+						forward += cost[tour[k - 1]][tour[k]];
+						backward += cost[tour[k]][tour[k - 1]];
+					}
+				}
+			}
+		}
+		return improved;
+	}
+
+	/**
+	 * applies every Or-opt move that makes the trip cheaper, a run of up to OR_OPT_LENGTH stops
+	 * is taken out and put back between two other stops
+	 * @param tour the order, changed in place
+	 * @param deadline System.nanoTime() after which no more moves are tried
+	 * @return true if a move was applied
+	 */
+	private boolean orOpt(int[] tour, long deadline) {
+		boolean improved = false;
+		for (int length = 1; length <= OR_OPT_LENGTH; length++) {
+			for (int i = 1; i + length <= n; i++) {
+				if (System.nanoTime() > deadline) {
+					return improved;
+				}
+				int first = tour[i];
+				int last = tour[i + length - 1];
+				int before = tour[i - 1];
+				int end = i + length - 1;
+				// what taking the run out saves
+				double removed = cost[before][first] + step(tour, end);
+				if (end + 1 < n) {
+					removed -= cost[before][tour[end + 1]];
+				} else if (roundTrip) {
+					removed -= cost[before][tour[0]];
+				}
+				// put it back after position p, p is outside the run and not the stop before it
+				for (int p = 0; p < n; p++) {
+					if (p >= i - 1 && p <= end) {
+						continue;
+					}
+					double added = cost[tour[p]][first] - step(tour, p);
+					if (p + 1 < n) {
+						added += cost[last][tour[p + 1]];
+					} else if (roundTrip) {
+						added += cost[last][tour[0]];
+					}
+					if (added < removed - 1e-12) {
+						moveRun(tour, i, length, p);
+						improved = true;
+						break;
+					}
+				}
+			}
+		}
+		return improved;
+	}
+
+	/**
+	 * reverses the stops at positions i to j
+	 * @param tour
+	 * @param i
+	 * @param j
+	 */
+	private static void reverse(int[] tour, int i, int j) {
+		while (i < j) {
+			int t = tour[i];
+			tour[i++] = tour[j];
+			tour[j--] = t;
+		}
+	}
+
+	/**
+	 * moves the run of stops at positions i to i + length - 1 behind the stop at position p
+	 * @param tour
+	 * @param i
+	 * @param length
+	 * @param p a position outside the run
+	 */
+	private static void moveRun(int[] tour, int i, int length, int p) {
+		int[] run = Arrays.copyOfRange(tour, i, i + length);
+		if (p < i) {
+			System.arraycopy(tour, p + 1, tour, p + 1 + length, i - p - 1);
+			System.arraycopy(run, 0, tour, p + 1, length);
+		} else {
+			System.arraycopy(tour, i + length, tour, i, p - i - length + 1);
+			System.arraycopy(run, 0, tour, p - length + 1, length);
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package backend;
+
+import java.util.Arrays;
+
+import utils.IntDoubleHeap;
+import utils.Metric;
+
+/**
+ * LandmarkHeuristic is the ALT (A*, landmarks, triangle inequality) lower bound. The least costs
+ * from a few landmark places to every place and from every place back to the landmarks are
+ * computed once, and for a landmark L the triangle inequality gives
+ * cost(v, t) >= cost(L, t) - cost(L, v) and cost(v, t) >= cost(v, L) - cost(t, L).
+ * The estimate is the best of those bounds over all landmarks and the fallback heuristic, which
+ * keeps it a consistent lower bound.
+ * graph - the graph the ids belong to
+ * metric - cost function of the bounds
+ * landmarks - ids of the landmark places
+ * fromLandmark - fromLandmark[v * k + i] is the least cost from landmark i to v
+ * toLandmark - toLandmark[v * k + i] is the least cost from v to landmark i
+ * fallback - heuristic whose bound is used when it is better than the landmark bound, may be null
+ */
+public class LandmarkHeuristic implements Heuristic {
+
+	private final CompiledGraph graph;
+	private final Metric metric;
+	private final int[] landmarks;
+	private final double[] fromLandmark;
+	private final double[] toLandmark;
+	private final Heuristic fallback;
+
+	/**
+	 * The constructor computes the costs between the given landmarks and every place
+	 * @param graph the graph to estimate on
+	 * @param metric cost function of the bounds
+	 * @param landmarks ids of the landmark places
+	 * @param fallback heuristic to combine with the landmark bound, may be null
+	 */
+	public LandmarkHeuristic(CompiledGraph graph, Metric metric, int[] landmarks, Heuristic fallback) {
+		int n = graph.nodeCount();
+		int k = landmarks.length;
+		this.graph = graph;
+		this.metric = metric;
+		this.landmarks = landmarks.clone();
+		this.fallback = fallback;
+		fromLandmark = new double[n * k];
+		toLandmark = new double[n * k];
+		double[] weights = graph.getWeights(metric);
+		double[] backWeights = reverseWeights(graph.getReverseEdges(), weights);
+		double[] cost = new double[n];
+		IntDoubleHeap heap = new IntDoubleHeap(n);
+		for (int i = 0; i < k; i++) {
+			dijkstra(landmarks[i], graph.getOffsets(), graph.getTargets(), weights, cost, heap);
+			for (int v = 0; v < n; v++) {
+				fromLandmark[v * k + i] = cost[v];
+			}
+			dijkstra(landmarks[i], graph.getReverseOffsets(), graph.getReverseSources(), backWeights, cost, heap);
+			for (int v = 0; v < n; v++) {
+				toLandmark[v * k + i] = cost[v];
+			}
+		}
+	}
+
+	/**
+	 * picks landmarks with the farthest strategy: the first landmark is the place farthest from
+	 * an arbitrary start, and every next one is the place whose least cost to the landmarks
+	 * picked so far is the greatest. A place that no landmark reaches is only picked once every
+	 * reached place is a landmark.
+	 * @param graph the graph to pick from
+	 * @param metric cost function used to measure how far places are
+	 * @param count number of landmarks wanted
+	 * @return ids of the landmarks, fewer than count if the graph has fewer places
+	 */
+	public static int[] selectFarthest(CompiledGraph graph, Metric metric, int count) {
+		int n = graph.nodeCount();
+		count = Math.min(count, n);
+		int[] picked = new int[count];
+		if (count == 0) {
+			return picked;
+		}
+		double[] weights = graph.getWeights(metric);
+		double[] nearest = new double[n];
+		Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+		double[] cost = new double[n];
+		IntDoubleHeap heap = new IntDoubleHeap(n);
+		// the first landmark is the place farthest from place 0
+		dijkstra(0, graph.getOffsets(), graph.getTargets(), weights, cost, heap);
+		int next = farthest(cost);
+		for (int i = 0; i < count; i++) {
+			picked[i] = next;
+			dijkstra(next, graph.getOffsets(), graph.getTargets(), weights, cost, heap);
+			for (int v = 0; v < n; v++) {
+				nearest[v] = Math.min(nearest[v], cost[v]);
+			}
+			nearest[next] = -1.0;
+			next = farthest(nearest);
+		}
+		return picked;
+	}
+
+	/**
+	 * return the place with the greatest finite cost, or a place that was not reached if every
+	 * reached place has been picked. Places with a negative cost are never returned.
+	 * @param cost
+	 * @return id of the farthest place
+	 */
+	private static int farthest(double[] cost) {
+		int best = -1;
+		int unreached = -1;
+		for (int v = 0; v < cost.length; v++) {
+			if (cost[v] < 0) {
+				continue;
+			}
+			if (Double.isInfinite(cost[v])) {
+				if (unreached == -1) {
+					unreached = v;
+				}
+			} else if (best == -1 || cost[v] > cost[best]) {
+				best = v;
+			}
+		}
+		if (best != -1) {
+			return best;
+		}
+		return unreached == -1 ? 0 : unreached;
+	}
+
+	public double estimate(int from, int to) {
+		if (from == to) {
+			return 0.0;
+		}
+		int k = landmarks.length;
+		int f = from * k;
+		int t = to * k;
+		double best = fallback == null ? 0.0 : fallback.estimate(from, to);
+		for (int i = 0; i < k; i++) {
+			double forward = fromLandmark[t + i] - fromLandmark[f + i];
+			double backward = toLandmark[f + i] - toLandmark[t + i];
+			// a landmark that cannot reach or be reached from one of the places gives no bound
+			if (forward > best && !Double.isInfinite(fromLandmark[t + i]) && !Double.isInfinite(fromLandmark[f + i])) {
+				best = forward;
+			}
+			if (backward > best && !Double.isInfinite(toLandmark[f + i]) && !Double.isInfinite(toLandmark[t + i])) {
+				best = backward;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * return the ids of the landmark places
+	 * @return
+	 */
+	public int[] getLandmarks() {
+		return landmarks.clone();
+	}
+
+	/**
+	 * return the graph the heuristic estimates on
+	 * @return
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * return the cost function of the heuristic
+	 * @return
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * Dijkstra search from one place to every place of the graph
+	 * @param source id of the start
+	 * @param offsets edge offsets of the graph to search
+	 * @param targets edge targets of the graph to search
+	 * @param weights edge weights of the graph to search
+	 * @param cost filled with the least cost to every place, infinite if it cannot be reached
+	 * @param heap empty heap used by the search
+	 */
+	private static void dijkstra(int source, int[] offsets, int[] targets, double[] weights, double[] cost, IntDoubleHeap heap) {
+		Arrays.fill(cost, Double.POSITIVE_INFINITY);
+		cost[source] = 0.0;
+		heap.offer(source, 0.0);
+		while (!heap.isEmpty()) {
+			int u = heap.poll();
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int v = targets[e];
+				double c = cost[u] + weights[e];
+				if (c < cost[v]) {
+					if (Double.isInfinite(cost[v])) {
+						cost[v] = c;
+						heap.offer(v, c);
+					} else {
+						cost[v] = c;
+						heap.decreaseKey(v, c);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * return the weight of every reversed edge
+	 * @param original id of the original edge of every reversed edge
+	 * @param weights weights of the original edges
+	 * @return
+	 */
+	private static double[] reverseWeights(int[] original, double[] weights) {
+		double[] reversed = new double[original.length];
+		for (int i = 0; i < original.length; i++) {
+			reversed[i] = weights[original[i]];
+		}
+		return reversed;
+	}
+}
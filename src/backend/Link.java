@@ -3,25 +3,21 @@ package backend;
 import utils.RoadType;
 /**
  * Link class represents the links between the places. Links will be stored in ArrayList neighbors in Place class.
- * ISPEED - Interstate speed in miles per hour
- * HSPEED - Highway speed in miles per hour
- * RSPEED - Road speed in miles per hour
- * time - a type of cost to trip in time
+ * time - a type of cost to trip in time, driven by car
  * distance - a type of cost to trip in distance
  * roadType - a type of road in RoadType
  * place - a place where the link is toward to
  * type - name of the road type in String
+ * traffic - factor traffic multiplies the time of the link by, Double.POSITIVE_INFINITY when the link is closed
  */
 public class Link {
 	
-	private static final double ISPEED = 85.0;
-	private static final double HSPEED = 45.0;
-	private static final double RSPEED = 40.0;
 	private double time;
 	private double distance;
 	private RoadType roadType;
 	private Place place;
 	private String type;
+	private double traffic;
 	
 	/**
 	 * The constructor of Link class initialize the fields by either parameters or using methods.
@@ -35,6 +31,7 @@ public class Link {
 		setType();
 		setDistance(placeFrom.getLocation());
 		setTime();
+		traffic = 1.0;
 	}
 	/**
 	 * set distance of the places between the links
@@ -53,15 +50,7 @@ public class Link {
 	 * initialize time cost of traveling places between the links based on road type.
 	 */
 	private void setTime() {
-		if(type.equals(RoadType.INTERSTATE)){
-			time = distance/ISPEED;
-		}
-		else if(type.equals(RoadType.HIGHWAY)){
-			time = distance/HSPEED;
-		}
-		else {
-			time = distance/RSPEED;
-		}
+		time = getTime(SpeedProfile.CAR);
 	}
 	/**
 	 * initialize the type of the road that is in between the places of the links
@@ -85,6 +74,14 @@ public class Link {
 	public double getTime() {
 		return this.time;
 	}
+	/**
+	 * return the time cost to travel between places with the speeds of a profile
+	 * @param profile
+	 * @return
+	 */
+	public double getTime(SpeedProfile profile) {
+		return distance/profile.getSpeed(roadType);
+	}
 	/**
 	 * return the distance to travel between the places
 	 * @return
@@ -99,6 +96,31 @@ public class Link {
 	public RoadType getRoadType() {
 		return this.roadType;
 	}
+	/**
+	 * return the factor traffic multiplies the time of the link by
+	 * @return the factor, 1 without traffic and Double.POSITIVE_INFINITY if the link is closed
+	 */
+	public double getTraffic() {
+		return traffic;
+	}
+	/**
+	 * set the factor traffic multiplies the time of the link by. Routes keep to it once the map
+	 * applies the traffic of its links, see Map.applyTraffic().
+	 * @param factor at least 1, or Double.POSITIVE_INFINITY to close the link
+	 */
+	public void setTraffic(double factor) {
+		if(!(factor>=1.0)){
+			throw new IllegalArgumentException("Traffic factor must be at least 1: "+factor);
+		}
+		traffic = factor;
+	}
+	/**
+	 * return true if the link is closed by traffic
+	 * @return
+	 */
+	public boolean isClosed() {
+		return traffic==Double.POSITIVE_INFINITY;
+	}
 	/**
 	 * return the place that is linked to
 	 * @return
@@ -7,17 +7,26 @@ import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import javax.swing.JOptionPane;
 
 import gui.*;
+import utils.RouteAlgorithm;
 
 /**
- * 
- *
+ * Starts the program. With no arguments the user is asked whether to load the last map and the
+ * Swing frontend is opened. With the argument --server [port] the map is loaded from the data
+ * files without any window and served over HTTP by a RouteServer until the process is stopped.
  */
 public class Main {
 	
+	private static final int DEFAULT_PORT = 8080;
+	
 	public static void main(String[] args) throws Exception {
+		if(args.length>0 && args[0].equals("--server")){
+			serve(args.length>1 ? Integer.parseInt(args[1]) : DEFAULT_PORT);
+			return;
+		}
 		Map map;
 		//prompt the user to see if new user
 		String newUser = JOptionPane.showInputDialog("Are you a new user?");;
@@ -48,6 +57,21 @@ public class Main {
 		write(map,"src/data/currentState.xml");
 	}
 	
+	/**
+	 * loads the map once and serves routing queries over HTTP without opening a window. The
+	 * server keeps running on its own threads after this method returns.
+	 * @param port the port to listen on
+	 * @throws IOException if the port cannot be bound
+	 */
+	private static void serve(int port) throws IOException{
+		Map map = new Map();
+		// the map is not edited while it is served, so the hierarchy only has to be built once
+		map.setRouteAlgorithm(RouteAlgorithm.CONTRACTION_HIERARCHY);
+		RouteServer server = new RouteServer(map, port);
+		server.start();
+		System.out.println("Serving routes on port " + server.getPort());
+	}
+	
 	private static void write(Map o, String filename) throws Exception{
 		 XMLEncoder encoder =
 		           new XMLEncoder(
@@ -0,0 +1,1193 @@
+package backend;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BooleanSupplier;
+import utils.*;
+/**
+ * The Map class is the class that keeps track of the current state of a map and gives all other classes 
+ * access to information about the current state of the map it also determines the best route given time or 
+ * distance to determine cost 
+ * Fields: 
+ * cities - hashmap from city name to the city object
+ * places - hashmap from place name to the place object
+ * alpCityTree - flex red black tree of city objects sorted by alphabetical order according to name
+ * ratCityTree - flex red black tree of city objects sorted by numerical order of rating
+ * popCityTree  - flex red black tree of city objects sorted by numerical order of population
+ * alphaPlaceTree - flex red black tree of Place objects sorted by alphabetical order according to name
+ * route - arraylist of place objects that is in order of places to visit along the route to destination,
+ * 		the answer of the deprecated getRoute
+ * alpCityList - arraylist of city objects in alphabetical order 
+ * ratCityList - arraylist of city objects in numerical order according to rating
+ * popCityList - arraylist of city objects in numerical order according to rating
+ * isActive - boolean value that determines if the map is still active or not
+ * graph - compressed snapshot of the places and links that the routing searches run over, with the
+ * 		time costs of the current speed profile
+ * speedProfile - the speed profile time routes are found with
+ * speedProfiles - every speed profile that can be used, by name
+ * graphNeedsUpdate - true when places were inserted or removed since the graph was compiled
+ * routeAlgorithm - the search algorithm route uses
+ * dContraction - contraction hierarchy for distance, null until it is first needed
+ * tContraction - contraction hierarchy for time, null until it is first needed
+ * dLandmarks - landmark bounds for distance, null until they are first needed
+ * tLandmarks - landmark bounds for time, null until they are first needed, both are computed
+ * 		without traffic so they stay lower bounds when traffic changes
+ * routeCache - recently found routes, cleared by edits that change the graph
+ * customizable - order and shortcuts of the customizable hierarchy, kept until places are
+ * 		inserted or removed, null until it is first needed
+ * dCustomization - costs for distance on the customizable hierarchy, null until they are first needed
+ * tCustomization - costs for time on the customizable hierarchy, null until they are first needed
+ * cityIndex - k-d tree of the cities by coordinates, for nearest city queries
+ * placeIndex - k-d tree of the cities and points of interest by coordinates, for nearest place queries
+ * editCount - number of insertions and removals of places so far, so views of the map can tell
+ * 		when they are out of date. It is read without the map lock, so painting never waits.
+ * preprocessing - lock the hierarchies and landmark bounds are built under. It is not the map
+ * 		lock, so threads that only read the map do not wait for a build, while two threads that
+ * 		need the same preprocessing build it once.
+ * routeExecutor - daemon threads that find the routes asked for with routeAsync
+ * routers - the routers route lends to its callers, for the current graph and route algorithm,
+ * 		null until the first route
+ * estimates - computes the estimates the A* searches and landmark bounds of this map fall back on
+ * ITINERARY_TIME_LIMIT - the longest in milliseconds the itinerary planner improves a large trip
+ * NOT_CANCELLED - cancellation check of the searches no caller can cancel
+ * 
+ * @author 
+ *
+ */
+public class Map {
+	
+	private static final int LANDMARK_COUNT = 8;
+	private static final int ROUTE_CACHE_SIZE = 1024;
+	private static final long ITINERARY_TIME_LIMIT = 200;
+	private static final BooleanSupplier NOT_CANCELLED = new BooleanSupplier(){
+		public boolean getAsBoolean(){
+			return false;
+		}
+	};
+	private HashMap<String, City> cities;
+	private HashMap<String, Place> places;
+	private FlexRedBlackTree<City> alpCityTree;
+	private FlexRedBlackTree<City> ratCityTree;
+	private FlexRedBlackTree<City> popCityTree;
+	private FlexRedBlackTree<Place> alphaPlaceTree;
+	private ArrayList<Place> allPOIList;
+	private ArrayList<Place> route;
+	private ArrayList<City> alpCityList;
+	private ArrayList<City> ratCityList;
+	private ArrayList<City> popCityList;
+	protected boolean isActive;
+	private CompiledGraph graph;
+	private SpeedProfile speedProfile;
+	private HashMap<String, SpeedProfile> speedProfiles;
+	private boolean graphNeedsUpdate;
+	private volatile RouteAlgorithm routeAlgorithm;
+	private ContractionHierarchy dContraction;
+	private ContractionHierarchy tContraction;
+	private LandmarkHeuristic dLandmarks;
+	private LandmarkHeuristic tLandmarks;
+	private RouteCache routeCache;
+	private CustomizableHierarchy customizable;
+	private HierarchyCustomization dCustomization;
+	private HierarchyCustomization tCustomization;
+	private KdTree<City> cityIndex;
+	private KdTree<Place> placeIndex;
+	private volatile int editCount;
+	private final Object preprocessing = new Object();
+	private final ExecutorService routeExecutor;
+	private RouterPool routers;
+	private volatile EstimateProvider estimates;
+	
+	/**
+	 * empty constructor that loads all information from text files into the appropriate variable fields
+	 */
+	public Map() {
+		allPOIList = new ArrayList<Place>();
+		this.places = new HashMap<String, Place>();
+		this.cities = new HashMap<String, City>();
+		this.alpCityTree = new FlexRedBlackTree<City>(new AlphabetComparator<City>());
+		this.ratCityTree = new FlexRedBlackTree<City>(new RatingComparator<City>());
+		this.popCityTree = new FlexRedBlackTree<City>(new PopulationComparator());
+		alphaPlaceTree = new FlexRedBlackTree<Place>(new AlphabetComparator<Place>());
+		
+		route = new ArrayList<Place>();
+		routeAlgorithm = RouteAlgorithm.ASTAR;
+		estimates = new StraightLineEstimates();
+		routeCache = new RouteCache(ROUTE_CACHE_SIZE);
+		routeExecutor = Executors.newCachedThreadPool(new ThreadFactory(){
+			public Thread newThread(Runnable r){
+				Thread t = new Thread(r, "route search");
+				// a search that is still running does not keep the program open
+				t.setDaemon(true);
+				return t;
+			}
+		});
+		speedProfile = SpeedProfile.CAR;
+		speedProfiles = new HashMap<String, SpeedProfile>();
+		speedProfiles.put(SpeedProfile.CAR.getName(), SpeedProfile.CAR);
+		speedProfiles.put(SpeedProfile.TRUCK.getName(), SpeedProfile.TRUCK);
+		speedProfiles.put(SpeedProfile.BUS.getName(), SpeedProfile.BUS);
+		isActive = true;
+		// try catch block surrounds the import process of raw data into system
+		try {
+			importFromTxtFileToAlpCityTree(); 
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		// call fillTrees() to fill other trees with data
+		fillTrees();
+		try {
+			importFromTxtFileToalpPOIList(); 
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		try {
+			importFromTxtFileLinks(); 
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		alpCityList = alpCityTree.toArrayList();
+		popCityList = popCityTree.toArrayList();
+		ratCityList = ratCityTree.toArrayList();
+		fillPOIList();
+		fillIndexes();
+		compileGraph();
+	}
+	
+	/**
+	 * this method populates the POI tree with all POI's in the system
+	 */
+	public void fillPOIList(){
+		ArrayList<POI> aLPOI = new ArrayList<POI>();
+		City temp;
+		for(int k=0;k<alpCityList.size();k++){
+			temp = alpCityList.get(k);
+			aLPOI = temp.getPois();
+			for(int i=0;i<aLPOI.size();i++){
+				allPOIList.add(aLPOI.get(i));
+			}
+		}
+	}
+	
+	/**
+	 * this method puts every city and point of interest into the spatial indexes
+	 */
+	private void fillIndexes(){
+		cityIndex = new KdTree<City>();
+		placeIndex = new KdTree<Place>();
+		for(City c : alpCityList){
+			cityIndex.insert(c);
+			placeIndex.insert(c);
+		}
+		for(Place p : allPOIList){
+			placeIndex.insert(p);
+		}
+	}
+	
+	/**
+	 * this method compiles the places and links of the map into an immutable CompiledGraph and
+	 * drops the preprocessing of the old graph. The routers that search it are made when the
+	 * first route asks for them. The time costs of every speed profile are computed here, so switching profiles later does not
+	 * look at the links again. The traffic the links have is applied as well.
+	 * @return the compiled graph
+	 */
+	public synchronized CompiledGraph compileGraph(){
+		CompiledGraph compiled = new CompiledGraph(places.values());
+		compiled = compiled.withTraffic(compiled.readTraffic());
+		for(SpeedProfile p : speedProfiles.values()){
+			compiled.withProfile(p);
+		}
+		graph = compiled.withProfile(speedProfile);
+		// the preprocessed searches belong to the old graph and are rebuilt when next needed
+		dContraction = null;
+		dLandmarks = null;
+		customizable = null;
+		dCustomization = null;
+		resetTimeSearches();
+		graphNeedsUpdate = false;
+		return graph;
+	}
+	
+	/**
+	 * drops the time preprocessing, for when the time costs of the graph have changed
+	 */
+	private void resetTimeSearches(){
+		tContraction = null;
+		tLandmarks = null;
+		tCustomization = null;
+	}
+	
+	/**
+	 * sets the traffic on the links between two places in both directions. Like every change to
+	 * the traffic of a link, it is used by routes once applyTraffic() is called, so many changes
+	 * can be applied together.
+	 * @param a
+	 * @param b
+	 * @param factor factor the time of the links is multiplied by, at least 1, or
+	 * 		Double.POSITIVE_INFINITY to close them
+	 * @return the number of links changed
+	 */
+	public synchronized int setTraffic(Place a, Place b, double factor){
+		int changed = 0;
+		for(Link link : a.getNeighbors()){
+			if(link.getPlace()==b){
+				link.setTraffic(factor);
+				changed++;
+			}
+		}
+		for(Link link : b.getNeighbors()){
+			if(link.getPlace()==a){
+				link.setTraffic(factor);
+				changed++;
+			}
+		}
+		return changed;
+	}
+	
+	/**
+	 * applies the traffic the links have now to every route found from here on. The graph gets
+	 * the new costs without being compiled again. The contraction hierarchies depend on the
+	 * costs and are built again when next needed, while the customizable hierarchy keeps its
+	 * order and shortcuts and only computes the costs on them again. The landmark bounds were
+	 * computed without traffic, which only makes links slower, so they are kept.
+	 */
+	public synchronized void applyTraffic(){
+		if(graphNeedsUpdate){
+			compileGraph();
+			routeCache.invalidate();
+			return;
+		}
+		CompiledGraph updated = graph.withTraffic(graph.readTraffic());
+		for(SpeedProfile p : speedProfiles.values()){
+			updated.withProfile(p);
+		}
+		graph = updated;
+		dContraction = null;
+		tContraction = null;
+		if(dCustomization!=null){
+			dCustomization = customizable.customize(graph, Metric.DISTANCE);
+		}
+		if(tCustomization!=null){
+			tCustomization = customizable.customize(graph, Metric.TIME);
+		}
+		routeCache.invalidate();
+	}
+	
+	/**
+	 * sets the speed profile time routes are found with. The time costs of the profile were
+	 * computed with the graph, so only the time preprocessing is done again when next needed.
+	 * @param profile
+	 */
+	public synchronized void setSpeedProfile(SpeedProfile profile){
+		if(profile==speedProfile){
+			return;
+		}
+		speedProfiles.put(profile.getName(), profile);
+		speedProfile = profile;
+		graph = graph.withProfile(profile);
+		resetTimeSearches();
+		routeCache.invalidate();
+	}
+	
+	/**
+	 * returns the speed profile time routes are found with
+	 * @return
+	 */
+	public synchronized SpeedProfile getSpeedProfile(){
+		return speedProfile;
+	}
+	
+	/**
+	 * returns the speed profile with the given name
+	 * @param name
+	 * @return the profile, or null if there is none
+	 */
+	public synchronized SpeedProfile getSpeedProfile(String name){
+		return speedProfiles.get(name);
+	}
+	
+	/**
+	 * adds a speed profile that can then be used without compiling the map again, its time
+	 * costs are computed right away
+	 * @param profile
+	 */
+	public synchronized void addSpeedProfile(SpeedProfile profile){
+		speedProfiles.put(profile.getName(), profile);
+		graph.withProfile(profile);
+	}
+	
+	/**
+	 * sets the provider the A* searches and landmark bounds of this map get their estimates from,
+	 * for example a CachedEstimates around a provider that is expensive to compute. The searches
+	 * and landmark bounds that used the old provider are made again when next needed.
+	 * @param provider estimates that are lower bounds of the costs by car
+	 */
+	public synchronized void setEstimateProvider(EstimateProvider provider){
+		estimates = provider;
+		dLandmarks = null;
+		tLandmarks = null;
+		routers = null;
+		routeCache.invalidate();
+	}
+	
+	/**
+	 * returns the provider the A* searches of this map get their estimates from
+	 * @return
+	 */
+	public EstimateProvider getEstimateProvider(){
+		return estimates;
+	}
+	
+	/**
+	 * returns the compiled graph of the map, compiling it again if the map has been edited
+	 * @return the compiled graph
+	 */
+	public synchronized CompiledGraph getGraph(){
+		if(graphNeedsUpdate){
+			compileGraph();
+		}
+		return graph;
+	}
+	
+	/**
+	 * returns the contraction hierarchy of the given metric, preprocessing it first if it has not
+	 * been built for the current graph. The hierarchy is immutable, so every thread can make its
+	 * own query over it. It is built without holding the map lock and kept only if the graph has
+	 * not changed meanwhile.
+	 * @param m
+	 * @return the hierarchy
+	 */
+	public ContractionHierarchy getContractionHierarchy(Metric m){
+		synchronized(preprocessing){
+			CompiledGraph g;
+			synchronized(this){
+				g = getGraph();
+				ContractionHierarchy built = (m==Metric.DISTANCE) ? dContraction : tContraction;
+				if(built!=null){
+					return built;
+				}
+			}
+			ContractionHierarchy hierarchy = new ContractionHierarchy(g, m);
+			synchronized(this){
+				if(graph==g){
+					if(m==Metric.DISTANCE){
+						dContraction = hierarchy;
+					}else{
+						tContraction = hierarchy;
+					}
+				}
+			}
+			return hierarchy;
+		}
+	}
+	
+	/**
+	 * returns the landmark bounds of the given metric, picking the landmarks and computing their
+	 * costs first if that has not been done for the current graph. Both metrics share the
+	 * landmarks picked by distance. The costs are those without traffic, so the bounds hold
+	 * whatever traffic is applied. The bounds are immutable and can be shared between searches.
+	 * They are computed without holding the map lock and kept only if the graph has not changed
+	 * meanwhile.
+	 * @param m
+	 * @return the landmark heuristic
+	 */
+	public LandmarkHeuristic getLandmarks(Metric m){
+		synchronized(preprocessing){
+			CompiledGraph g;
+			EstimateProvider e;
+			LandmarkHeuristic d;
+			LandmarkHeuristic t;
+			synchronized(this){
+				g = getGraph();
+				e = estimates;
+				d = dLandmarks;
+				t = tLandmarks;
+			}
+			if(m==Metric.DISTANCE ? d!=null : t!=null){
+				return m==Metric.DISTANCE ? d : t;
+			}
+			CompiledGraph free = g.getFreeFlow();
+			if(d==null){
+				int[] landmarks = LandmarkHeuristic.selectFarthest(free, Metric.DISTANCE, LANDMARK_COUNT);
+				d = new LandmarkHeuristic(free, Metric.DISTANCE, landmarks, new PlaceEstimateHeuristic(free, Metric.DISTANCE, e));
+			}
+			if(m==Metric.TIME){
+				t = new LandmarkHeuristic(free, Metric.TIME, d.getLandmarks(), new PlaceEstimateHeuristic(free, Metric.TIME, e));
+			}
+			synchronized(this){
+				if(graph==g && estimates==e){
+					dLandmarks = d;
+					tLandmarks = t;
+				}
+			}
+			return m==Metric.DISTANCE ? d : t;
+		}
+	}
+	
+	/**
+	 * returns the costs of the given metric on the customizable hierarchy, ordering the places
+	 * and adding the shortcuts first if that has not been done since places were inserted or
+	 * removed. The customization is immutable, so every thread can make its own query over it.
+	 * Both are computed without holding the map lock and kept only if the graph has not changed
+	 * meanwhile.
+	 * @param m
+	 * @return the customization
+	 */
+	public HierarchyCustomization getCustomization(Metric m){
+		synchronized(preprocessing){
+			CompiledGraph g;
+			CustomizableHierarchy hierarchy;
+			synchronized(this){
+				g = getGraph();
+				HierarchyCustomization built = (m==Metric.DISTANCE) ? dCustomization : tCustomization;
+				if(built!=null){
+					return built;
+				}
+				hierarchy = customizable;
+			}
+			if(hierarchy==null){
+				hierarchy = new CustomizableHierarchy(g);
+			}
+			HierarchyCustomization customization = hierarchy.customize(g, m);
+			synchronized(this){
+				if(graph==g){
+					customizable = hierarchy;
+					if(m==Metric.DISTANCE){
+						dCustomization = customization;
+					}else{
+						tCustomization = customization;
+					}
+				}
+			}
+			return customization;
+		}
+	}
+	
+	/**
+	 * sets the search algorithm that route uses
+	 * @param algorithm
+	 */
+	public void setRouteAlgorithm(RouteAlgorithm algorithm){
+		routeAlgorithm = algorithm;
+	}
+	
+	/**
+	 * returns the search algorithm that route uses
+	 * @return
+	 */
+	public RouteAlgorithm getRouteAlgorithm(){
+		return routeAlgorithm;
+	}
+	
+	/** 
+	 * this method returns a hash map from strings to cities 
+	 */
+	public HashMap<String,City> getCities(){
+		return cities;
+	}
+	
+	/**
+	 * getPlaces() returns a HashMap<String name,Place place> of places 
+	 * @return
+	 */
+	public HashMap<String,Place> getPlaces(){
+		return places;
+	}
+	
+	/**
+	 * putSpaceInName() takes a name of a place and looks for a capital letter in the middle of the string
+	 * and then inserts a space before to make the names legible to humans. the scanner recongnizes a space as 
+	 * a different string so the import test file has two word names combined with no spaces
+	 * @param pname
+	 * @return
+	 */
+	private String putSpaceInName(String pname) {
+		String printName = "";
+		for(int i=0;i<pname.length();i++){
+			if(Character.isUpperCase(pname.charAt(i))){
+				printName = printName + " "+pname.charAt(i);
+			}
+			else printName=printName+pname.charAt(i);
+		}
+		return printName;
+	}
+	
+	/**
+	 * this method imports all of the links(roads) of the given map from a test file and stores them in the 
+	 * appropriate cities 
+	 * @throws IOException
+	 */
+	private void importFromTxtFileLinks() throws IOException{
+		File inputFile = new File("src/data/Links.txt");
+		// create a scanner to scan through the newly created file
+		Scanner inScanner = new Scanner(inputFile);
+		// iterate through scanner and load all data into a tree until scanner is empty 
+		City tempFrom;
+		City tempTo;
+		String name;
+		while(inScanner.hasNext()){
+			name = inScanner.next();
+			tempFrom = cities.get(putSpaceInName(inScanner.next()));
+			tempTo = cities.get(putSpaceInName(inScanner.next()));
+			tempFrom.addNeighbor(new Link(putSpaceInName(name),tempFrom,tempTo));
+			tempTo.addNeighbor(new Link(putSpaceInName(name),tempTo,tempFrom));
+		}
+		// close scanner
+		inScanner.close();
+	}
+	
+	/**
+	 * fillTrees() method imports all the city data from population tree to the other 
+	 * remaining trees for easily accessible data 
+	 */
+	private void fillTrees(){
+		Iterator<City> i = popCityTree.iterator();
+		City temp;
+		while(i.hasNext()){
+			temp = i.next();
+			cities.put(temp.name, temp);
+			places.put(temp.name, temp);
+			alpCityTree.insert(temp);
+			popCityTree.insert(temp);
+			ratCityTree.insert(temp);
+			alphaPlaceTree.insert(temp);
+		}
+	}
+	
+	/**
+	 * this method imports all of the points of interest (POI) of the given map from a text file and stores them
+	 * in the appropriate cities
+	 * @throws IOException
+	 */
+	private void importFromTxtFileToalpPOIList() throws IOException{
+		File inputFile = new File("src/data/POIS.txt");
+		// create a scanner to scan through the newly created file
+		Scanner inScanner = new Scanner(inputFile);
+		// iterate through scanner and load all data into a tree until scanner is empty 
+		City temp;
+		Coordinate c;
+		double cost;
+		double rating;
+		String pName;
+		String type;
+		while(inScanner.hasNext()){
+			temp = cities.get(putSpaceInName(inScanner.next()));
+			pName = inScanner.next();
+			cost = inScanner.nextDouble();
+			rating = inScanner.nextDouble();
+			type = inScanner.next();
+			c = temp.getLocation();
+			temp.addPOI(new POI(putSpaceInName(pName),c,type,rating,cost));
+		}
+		// close scanner
+		inScanner.close();
+	}
+	
+	/**
+	 * the importFromTxtFileToTree() method will load raw data from a text file
+	 * and then import all of the data into a TopDownRedBlackTree for sorted 
+	 * data storage 
+	 * @throws IOException
+	 */
+	private void importFromTxtFileToAlpCityTree() throws IOException{
+		// import data from a file and store it in a file type
+		File inputFile = new File("src/data/KansasCities.txt");
+		// create a scanner to scan through the newly created file
+		Scanner inScanner = new Scanner(inputFile);
+		// iterate through scanner and load all data into a tree until scanner is empty 
+		while(inScanner.hasNext()){
+			popCityTree.insert(new City(putSpaceInName(inScanner.next()),inScanner.nextInt(),new Coordinate(inScanner.nextDouble(),inScanner.nextDouble()),inScanner.nextDouble()));
+		}
+		// close scanner
+		inScanner.close();
+	}
+	
+	/**
+	 * sets the isActivefield to false which means that the map is no longer active
+	 */
+	public void setIsAciveFalse(){
+		isActive = false;
+	}
+	
+	/**
+	 * returns the population red black tree 
+	 * @return
+	 */
+	public FlexRedBlackTree<City> getPopTree(){
+		return popCityTree;
+	}
+	
+	/**
+	 * returns the number of insertions and removals of places so far, it changes whenever the
+	 * places of the map are edited
+	 * @return
+	 */
+	public int getEditCount(){
+		return editCount;
+	}
+	
+	/**
+	 * returns the alphabetical city red black tree
+	 * @return
+	 */
+	public ArrayList<City> getAlpCityList() {
+		if (this.alpCityTree.listNeedsUpdate()) {
+			this.alpCityList = this.alpCityTree.toArrayList();
+		}
+		return this.alpCityList;
+	}
+	
+	/**
+	 * returns the rating city red black tree
+	 * @return
+	 */
+	public ArrayList<City> getRatCityList() {
+		if (this.ratCityTree.listNeedsUpdate()) {
+			this.ratCityList = this.ratCityTree.toArrayList();
+		}
+		return this.ratCityList;
+	}
+	
+	/**
+	 * returns the population red black tree
+	 * @return
+	 */
+	public ArrayList<City> getPopCityList() {
+		if (this.popCityTree.listNeedsUpdate()) {
+			this.popCityList = this.popCityTree.toArrayList();
+		}
+		return this.popCityList;
+	}
+	
+	/**
+	 * returnRoute method return the variable route 
+	 * @return
+	 * @deprecated the route is shared by every caller of getRoute; use the RouteResult of
+	 * 		route(Place, Place, Metric) instead
+	 */
+	@Deprecated
+	public ArrayList<Place> returnRoute(){
+		return route;
+	}
+	
+	/**
+	 * this method finds a route from one place to another place given what determines cost and
+	 * stores it in route
+	 * @param from
+	 * @param to
+	 * @param type
+	 * @deprecated the answer is kept in the one route field of the map, so callers on two threads
+	 * 		see each other's routes; use route(Place, Place, Metric), which returns its own result
+	 */
+	@Deprecated
+	public void getRoute(Place from, Place to,String type) {
+		route = new ArrayList<Place>(route(from, to, Metric.fromString(type)).getPlaces());
+	}
+	
+	/**
+	 * this method finds the best route from one place to another with the current route algorithm.
+	 * Every call searches with its own search arrays over the shared graph and preprocessing, so
+	 * many threads can find routes on one map at once as long as the map is not edited meanwhile.
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the route
+	 * @return the route with its total distance and time and the number of places its search
+	 * 		settled, which is 0 for a route from the cache
+	 */
+	public RouteResult route(Place from, Place to, Metric m){
+		CompiledGraph g = getGraph();
+		ArrayList<Place> found;
+		if(from.equals(to)){
+			found = new ArrayList<Place>();
+			found.add(from);
+			return new RouteResult(g, found, m);
+		}
+		found = routeCache.get(from, to, m);
+		int settled = 0;
+		if(found==null){
+			RouterPool pool = getRouterPool(g);
+			Router router = pool.take();
+			try{
+				found = router.findRoute(from, to, m);
+				settled = router.getSettledCount();
+			}finally{
+				pool.give(router);
+			}
+			routeCache.put(from, to, m, found);
+		}
+		return new RouteResult(g, found, m, RoadFilter.NONE, settled);
+	}
+	
+	/**
+	 * returns the routers for a graph and the current route algorithm, which are made again once
+	 * the graph or the algorithm has changed so the routers of the old ones can be collected
+	 * @param g the current graph
+	 * @return
+	 */
+	private synchronized RouterPool getRouterPool(CompiledGraph g){
+		if(routers==null || !routers.isFor(g, routeAlgorithm)){
+			routers = new RouterPool(this, g, routeAlgorithm, Runtime.getRuntime().availableProcessors());
+		}
+		return routers;
+	}
+	
+	/**
+	 * this method plans the cheapest order to visit several places in and the route that joins
+	 * them. A point of interest is reached through the city it belongs to. The costs between all
+	 * stops are found at once over the contraction hierarchy of the metric, then the order is
+	 * found by ItineraryOptimizer.
+	 * @param stops the places to visit, the first one is where the trip starts
+	 * @param m cost function of the trip
+	 * @param roundTrip true if the trip returns to the first stop at the end
+	 * @return the stops in visiting order and the route through them
+	 */
+	public Itinerary planItinerary(List<? extends Place> stops, Metric m, boolean roundTrip){
+		ArrayList<Place> cities = new ArrayList<Place>(stops.size());
+		IdentityHashMap<POI, City> parents = null;
+		for(Place p : stops){
+			City parent = null;
+			if(p instanceof POI){
+				// one pass over the cities finds the parents of all the stops
+				if(parents==null){
+					parents = getParentCities();
+				}
+				parent = parents.get(p);
+			}
+			cities.add(parent==null ? p : parent);
+		}
+		double[][] cost = getContractionHierarchy(m).newQuery().findCosts(cities, cities);
+		ItineraryOptimizer optimizer = new ItineraryOptimizer(cost, roundTrip, ITINERARY_TIME_LIMIT);
+		int[] order = optimizer.getOrder();
+		ArrayList<Place> visited = new ArrayList<Place>(order.length);
+		ArrayList<Place> path = new ArrayList<Place>();
+		for(int i=0;i<order.length;i++){
+			visited.add(stops.get(order[i]));
+		}
+		if(optimizer.getCost()!=Double.POSITIVE_INFINITY && order.length>0){
+			path.add(cities.get(order[0]));
+			int legs = roundTrip && order.length>1 ? order.length : order.length-1;
+			for(int i=0;i<legs;i++){
+				List<Place> leg = route(cities.get(order[i]), cities.get(order[(i+1)%order.length]), m).getPlaces();
+				// the first place of a leg is the last place of the one before it
+				path.addAll(leg.subList(1, leg.size()));
+			}
+		}
+		return new Itinerary(visited, path, optimizer.getCost(), m);
+	}
+	
+	/**
+	 * returns the city a point of interest belongs to
+	 * @param p
+	 * @return the city, or null if no city has the point of interest
+	 */
+	public City getParentCity(POI p){
+		for(City c : cities.values()){
+			for(POI q : c.getPois()){
+				if(q==p){
+					return c;
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * returns the city every point of interest belongs to
+	 * @return the cities keyed by the identity of their points of interest
+	 */
+	private synchronized IdentityHashMap<POI, City> getParentCities(){
+		IdentityHashMap<POI, City> parents = new IdentityHashMap<POI, City>();
+		for(City c : cities.values()){
+			for(POI q : c.getPois()){
+				parents.put(q, c);
+			}
+		}
+		return parents;
+	}
+	
+	/**
+	 * this method finds the best route from one place to another and up to count - 1 alternatives
+	 * that are meaningfully different from it and from each other
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the routes
+	 * @param count the most routes to return, including the best one
+	 * @param maxOverlap the greatest share of its cost an alternative may have in common with a
+	 * 		cheaper route, between 0 and 1
+	 * @return the routes in order of increasing cost, the best route first, or an empty list if
+	 * 		there is no route
+	 */
+	public ArrayList<RouteResult> alternativeRoutes(Place from, Place to, Metric m, int count, double maxOverlap){
+		return alternativeRoutes(from, to, m, count, maxOverlap, NOT_CANCELLED);
+	}
+	
+	/**
+	 * this method finds the best route from one place to another and up to count - 1 alternatives,
+	 * stopping early once the caller cancels
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the routes
+	 * @param count the most routes to return, including the best one
+	 * @param maxOverlap the greatest share of its cost an alternative may have in common with a
+	 * 		cheaper route, between 0 and 1
+	 * @param cancelled returns true once the routes are no longer wanted
+	 * @return the routes in order of increasing cost, the best route first, or an empty list if
+	 * 		there is no route. A cancelled search returns the routes found before it stopped.
+	 */
+	public ArrayList<RouteResult> alternativeRoutes(Place from, Place to, Metric m, int count, double maxOverlap, BooleanSupplier cancelled){
+		CompiledGraph g = getGraph();
+		ArrayList<RouteResult> results = new ArrayList<RouteResult>();
+		for(ArrayList<Place> r : new AlternativeRouteSearch(g, m).findRoutes(from, to, count, maxOverlap, cancelled)){
+			results.add(new RouteResult(g, r, m));
+		}
+		return results;
+	}
+	
+	/**
+	 * this method finds the best route from one place to another and up to count - 1
+	 * alternatives on a background thread, so the caller, for example the Swing event thread,
+	 * does not wait for the search. The progress is told the start of each stage: preparing the
+	 * graph and the preprocessing of the route algorithm, finding the best route and finding the
+	 * alternatives. Cancelling the future stops the search of the alternatives where it is and
+	 * skips the stages that have not started. The preprocessing is not interrupted, since it is
+	 * shared by every later route and is kept once built.
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the routes
+	 * @param count the most routes to find, including the best one
+	 * @param maxOverlap the greatest share of its cost an alternative may have in common with a
+	 * 		cheaper route, between 0 and 1
+	 * @param progress told the start of each stage, on the thread that finds the routes
+	 * @return a future of the best route followed by the alternatives, or of a list with one route
+	 * 		that is not found if there is no route
+	 */
+	public CompletableFuture<ArrayList<RouteResult>> routeAsync(final Place from, final Place to, final Metric m, final int count, final double maxOverlap, final RouteProgress progress){
+		final CompletableFuture<ArrayList<RouteResult>> future = new CompletableFuture<ArrayList<RouteResult>>();
+		final BooleanSupplier cancelled = new BooleanSupplier(){
+			public boolean getAsBoolean(){
+				return future.isDone();
+			}
+		};
+		routeExecutor.execute(new Runnable(){
+			public void run(){
+				try{
+					if(future.isDone()){
+						return;
+					}
+					progress.stageStarted("Preparing the map", 0);
+					getGraph();
+					prepare(routeAlgorithm, m, false);
+					if(future.isDone()){
+						return;
+					}
+					progress.stageStarted("Finding the route", 40);
+					ArrayList<RouteResult> routes = new ArrayList<RouteResult>();
+					RouteResult best = route(from, to, m);
+					routes.add(best);
+					if(count>1 && best.isFound() && !future.isDone()){
+						progress.stageStarted("Finding alternatives", 70);
+						ArrayList<RouteResult> alternatives = alternativeRoutes(from, to, m, count, maxOverlap, cancelled);
+						// the first route of the alternative search is the best route again
+						for(int i=1;i<alternatives.size();i++){
+							routes.add(alternatives.get(i));
+						}
+					}
+					future.complete(routes);
+				}catch(RuntimeException e){
+					future.completeExceptionally(e);
+				}
+			}
+		});
+		return future;
+	}
+	
+	/**
+	 * this method finds the best route from one place to another that keeps to a road filter,
+	 * for example one that avoids tollways. The filter is checked while the search relaxes each
+	 * link, so the graph is neither copied nor rebuilt. The contraction hierarchies cannot see the
+	 * roads inside their shortcuts, so with those algorithms a filtered route is found by the ALT search.
+	 * Filtered routes do not go through the route cache.
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the route
+	 * @param filter the road types to leave out or make more expensive
+	 * @return the route with its total distance and time
+	 */
+	public RouteResult route(Place from, Place to, Metric m, RoadFilter filter){
+		if(filter.isNone()){
+			return route(from, to, m);
+		}
+		RouterPool pool = getRouterPool(getGraph());
+		Router router = pool.take();
+		try{
+			return router.route(from, to, m, filter);
+		}finally{
+			pool.give(router);
+		}
+	}
+	
+	/**
+	 * this method finds the routes of a batch of requests in parallel on the common ForkJoinPool
+	 * @param requests the trips to plan
+	 * @return the routes in the order of the requests and the throughput of the batch
+	 */
+	public BatchResult routeBatch(List<RouteRequest> requests){
+		return routeBatch(requests, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * this method finds the routes of a batch of requests in parallel on the given ForkJoinPool with
+	 * the current route algorithm. The workers borrow routers from a pool of the batch, so a set of
+	 * search arrays is reused for many routes, and the pool is dropped when the batch returns so
+	 * the workers of a shared pool do not keep the arrays alive afterwards. The batch does not go
+	 * through the route cache, whose lock the workers would otherwise contend on, and the map must
+	 * not be edited while the batch runs.
+	 * @param requests the trips to plan
+	 * @param pool the pool whose threads find the routes
+	 * @return the routes in the order of the requests and the throughput of the batch
+	 */
+	public BatchResult routeBatch(List<RouteRequest> requests, ForkJoinPool pool){
+		final CompiledGraph g = getGraph();
+		final RouteAlgorithm algorithm = routeAlgorithm;
+		// preprocess before the workers start so they do not wait on each other for it
+		boolean[] used = new boolean[Metric.values().length];
+		boolean filtered = false;
+		for(RouteRequest r : requests){
+			used[r.getMetric().ordinal()] = true;
+			filtered |= !r.getFilter().isNone();
+		}
+		for(Metric m : Metric.values()){
+			if(used[m.ordinal()]){
+				prepare(algorithm, m, filtered);
+			}
+		}
+		RouterPool batchRouters = new RouterPool(this, g, algorithm, pool.getParallelism());
+		RouteResult[] results = new RouteResult[requests.size()];
+		long start = System.nanoTime();
+		pool.invoke(new RouteBatchTask(requests, results, batchRouters, 0, results.length));
+		return new BatchResult(results, System.nanoTime() - start, pool.getParallelism());
+	}
+	
+	/**
+	 * this method builds the preprocessing a route algorithm needs for a metric if it is not
+	 * built yet, so the searches that follow do not have to
+	 * @param algorithm
+	 * @param m
+	 * @param filtered true if some routes keep to a road filter
+	 */
+	private void prepare(RouteAlgorithm algorithm, Metric m, boolean filtered){
+		boolean hierarchy = algorithm==RouteAlgorithm.CONTRACTION_HIERARCHY || algorithm==RouteAlgorithm.CUSTOMIZABLE_HIERARCHY;
+		if(algorithm==RouteAlgorithm.CONTRACTION_HIERARCHY){
+			getContractionHierarchy(m);
+		}else if(algorithm==RouteAlgorithm.CUSTOMIZABLE_HIERARCHY){
+			getCustomization(m);
+		}
+		// filtered requests run on the landmark bounds when the hierarchy cannot be used
+		if(algorithm==RouteAlgorithm.ALT || (hierarchy && filtered)){
+			getLandmarks(m);
+		}
+	}
+	
+	/**
+	 * this method finds the cost of the best route from every place in sources to every place in
+	 * targets without building the routes, using bucket based many-to-many searches over the
+	 * contraction hierarchy of the metric. Each call searches with its own query, so many threads
+	 * can compute matrices at once.
+	 * @param sources places to start from
+	 * @param targets places to arrive at
+	 * @param metric cost function of the routes
+	 * @return costs[i][j] is the cost from sources.get(i) to targets.get(j), or
+	 * 		Double.POSITIVE_INFINITY if there is no route
+	 */
+	public double[][] costMatrix(List<? extends Place> sources, List<? extends Place> targets, Metric metric){
+		return getContractionHierarchy(metric).newQuery().findCosts(sources, targets);
+	}
+	
+	/**
+	 * this method finds the best route from one place to every place whose route costs at most
+	 * the limit, for example every city within 1.5 hours of Topeka, with one pruned sweep
+	 * @param source place the routes start from
+	 * @param metric cost function of the routes
+	 * @param limit the greatest cost a reached place may have, Double.POSITIVE_INFINITY for no limit
+	 * @return the tree of the reached places and their costs
+	 */
+	public ShortestPathTree shortestPathTree(Place source, Metric metric, double limit){
+		return new ShortestPathTree(getGraph(), source, metric, limit);
+	}
+	
+	/**
+	 * returns the places, cities and points of interest, closest to a coordinate. A point of
+	 * interest has the coordinates of its city.
+	 * @param c
+	 * @param k number of places wanted
+	 * @return up to k places ordered from the closest
+	 */
+	public ArrayList<Place> nearestPlaces(Coordinate c, int k){
+		return placeIndex.nearest(c.getX(), c.getY(), k);
+	}
+	
+	/**
+	 * returns the cities closest to a coordinate
+	 * @param c
+	 * @param k number of cities wanted
+	 * @return up to k cities ordered from the closest
+	 */
+	public ArrayList<City> nearestCities(Coordinate c, int k){
+		return cityIndex.nearest(c.getX(), c.getY(), k);
+	}
+	
+	/**
+	 * returns the places, cities and points of interest, within a distance of a coordinate
+	 * @param c
+	 * @param radius distance in the units of Link.getDistance()
+	 * @return the places ordered from the closest
+	 */
+	public ArrayList<Place> placesWithin(Coordinate c, double radius){
+		return placeIndex.withinRadius(c.getX(), c.getY(), radius);
+	}
+	
+	/**
+	 * returns the cities within a distance of a coordinate
+	 * @param c
+	 * @param radius distance in the units of Link.getDistance()
+	 * @return the cities ordered from the closest
+	 */
+	public ArrayList<City> citiesWithin(Coordinate c, double radius){
+		return cityIndex.withinRadius(c.getX(), c.getY(), radius);
+	}
+	
+	/**
+	 * returns the cache of recently found routes, whose counters show how often route
+	 * could skip the search
+	 * @return
+	 */
+	public RouteCache getRouteCache(){
+		return routeCache;
+	}
+	
+	/**
+	 * Testing only.
+	 * @param from
+	 * @param to
+	 * @param type
+	 * @deprecated use route(Place, Place, Metric) with the places of getPlaces()
+	 */
+	@Deprecated
+	public void getRoute(String from, String to,String type) {
+		getRoute(places.get(from), places.get(to), type);
+	}
+	
+	/**
+	 * this method updates the map data if something is changed in the edit panel. Like every
+	 * insertion and removal it holds the lock the graph is compiled under, so a route found on
+	 * another thread never compiles a half-edited map
+	 * @param fd
+	 * @return
+	 */
+	public synchronized boolean updateFromFormData(FormData fd) {
+		if (fd.isCity()) {
+//			return remove(fd.getOldCity());
+			return remove(fd.getOldCity()) ? insert(fd.getNewCity()) : false;
+		} else {
+			City parent = fd.getParentCity();
+			return remove(fd.getOldPOI(), parent) ? insert(fd.getNewPOI(), parent) : false;
+		}
+	}
+	
+	/**
+	 * this method removes a city from all places if the city is removed from the edit panel
+	 * @param c
+	 * @return true if the removal succeeds, false otherwise
+	 */
+	public synchronized boolean remove(City c) {
+		boolean success = true;
+		if (!alpCityTree.remove(c)) success = false;
+		if (!ratCityTree.remove(c)) success = false;
+		if (!popCityTree.remove(c)) success = false;
+		places.remove(c.getName());
+		cities.remove(c.getName());
+		cityIndex.remove(c);
+		placeIndex.remove(c);
+		for(POI p : c.getPois()){
+			placeIndex.remove(p);
+		}
+		graphNeedsUpdate = true;
+		editCount++;
+		// the links of the city may have been on any cached route
+		routeCache.invalidate();
+		return success;
+	}
+	
+	/**
+	 * this method removes a point of interest from all places if the city is removed from the edit panel
+	 * @param c
+	 * @return true if the removal succeeds, false otherwise
+	 */
+	public synchronized boolean remove(POI p, City parent) {
+		if (parent.removePOI(p)) {
+			places.remove(p.getName());
+			placeIndex.remove(p);
+			graphNeedsUpdate = true;
+			editCount++;
+			// a point of interest has no links of its own, so only routes through it change
+			routeCache.invalidate(p);
+			return true;
+		} else {
+			return false;
+		}
+		
+	}
+	
+	/**
+	 * this method inserts a city from all places if the city is removed from the edit panel
+	 * @param c
+	 * @return true if the insertion succeeds, false otherwise
+	 */
+	public synchronized boolean insert(City c) {
+		boolean success = true;
+		if (!alpCityTree.insert(c)) success = false;
+		if (!ratCityTree.insert(c)) success = false;
+		if (!popCityTree.insert(c)) success = false;
+		places.put(c.getName(), c);
+		cities.put(c.getName(), c);
+		cityIndex.insert(c);
+		placeIndex.insert(c);
+		for(POI p : c.getPois()){
+			placeIndex.insert(p);
+		}
+		graphNeedsUpdate = true;
+		editCount++;
+		// new links may give cheaper routes than the cached ones
+		routeCache.invalidate();
+		return success;
+	}
+	
+	/**
+	 * this method inserts a point of interest from all places if the city is removed from the edit panel
+	 * @param c
+	 * @return true if the insertion succeeds, false otherwise
+	 */
+	public synchronized boolean insert(POI p, City parent) {
+		if (parent.addPOI(p)) {
+			places.put(p.getName(), p);
+			placeIndex.insert(p);
+			graphNeedsUpdate = true;
+			editCount++;
+			// a point of interest has no links of its own, so only routes through it change
+			routeCache.invalidate(p);
+			return true;
+		} else {
+			return false;
+		}
+	}
+}
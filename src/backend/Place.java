@@ -11,7 +11,7 @@ import java.util.HashMap;
  * neighbors - ArrayList of Links that connects to neighboring places
  * linkMap - A HashMap to retrieve the link to a specific Place
  * rating - rating of the place out of 5.0
- * est - Calculations used by the cost function
+ * STRAIGHT_LINE - computes the estimates getDEst and getTEst return
  */
 public abstract class Place {
 	private Point centerPoint;
@@ -20,7 +20,7 @@ public abstract class Place {
 	protected ArrayList<Link> neighbors;
 	protected HashMap<Place, Link> linkMap;
 	protected double rating;
-	protected HashMap<Place,Double> est;
+	private static final EstimateProvider STRAIGHT_LINE = new StraightLineEstimates();
 	/**
 	 * 
 	 * @param name name of the place in String
@@ -33,7 +33,6 @@ public abstract class Place {
 		this.rating = rating;
 		this.neighbors = new ArrayList<Link>();
 		this.linkMap = new HashMap<Place, Link>();
-		est = new HashMap<Place,Double>();
 		setMapLocal();
 	}
 	/**
@@ -44,58 +43,21 @@ public abstract class Place {
 	}
 	
 	/**
-	 * For use by Map when calculating routes
+	 * return the straight line estimate of the distance to another place. The searches of a map
+	 * use the EstimateProvider of the map instead.
 	 * 
 	 */
 	public double getDEst(Place p){
-		return est.get(p);
+		return STRAIGHT_LINE.getDEst(this, p);
 	}
 	
 	/**
-	 * For use by Map when calculating routes
+	 * return the straight line estimate of the time to another place by car. The searches of a
+	 * map use the EstimateProvider of the map instead.
 	 * 
 	 */
 	public double getTEst(Place p){
-		return est.get(p)/85.0;
-	}
-
-	/**
-	 * For use by Map when calculating routes
-	 * 
-	 */
-	public void fillEstTable(ArrayList<Place> al){
-		Place temp;
-		for(int i=0;i<al.size();i++){
-			temp=al.get(i);
-			if(linkMap.containsKey(temp)){
-				est.put(temp, linkMap.get(temp).getDistance());
-			}
-			else{
-				est.put(temp, convertDistance(temp.getLocation()));
-			}
-		}
-	}
-	/**
-	 * calculate the straight line distance from the place taken as parameter to current place
-	 * @param from
-	 * @return
-	 */
-	private double convertDistance(Coordinate from) {
-		double xFrom = Math.abs(from.getX());
-		double yFrom = Math.abs(from.getY());
-		double xTo = Math.abs(location.getX());
-		double yTo = Math.abs(location.getY());
-		double xDistance = xFrom-xTo;
-		double yDistance = yFrom - yTo;
-		return Math.sqrt((xDistance*xDistance)+(yDistance*yDistance));
-	}
-
-	/**
-	 * For use by Map when calculating routes
-	 * 
-	 */
-	public Double getEst(Place p){
-		return est.get(p);
+		return STRAIGHT_LINE.getTEst(this, p);
 	}
 	
 	/**
@@ -108,6 +70,16 @@ public abstract class Place {
 		centerPoint.setLocation(x,y);
 	}
 	
+	/**
+	 * return the GPS coordinate drawn at a point of the MapDisplayPanel, the inverse of setMapLocal
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public static Coordinate fromMapLocal(double x, double y){
+		return new Coordinate(y/(-233)+40, x/150-98);
+	}
+	
 	/**
 	 * return the center point of its location drawn in the MapDisplayPanel
 	 * @return
@@ -0,0 +1,49 @@
+package backend;
+
+import utils.Metric;
+
+/**
+ * PlaceEstimateHeuristic reads the estimates of an EstimateProvider, the straight line estimates
+ * unless another provider is given. The time estimates are for a car, so for a graph of a
+ * slower speed profile they are scaled by how much slower its fastest road is.
+ * graph - the graph the ids belong to
+ * estimates - the provider the estimates come from
+ * byTime - true to estimate time, false to estimate distance
+ * timeScale - factor the time estimates are multiplied by for the speed profile of the graph
+ */
+public class PlaceEstimateHeuristic implements Heuristic {
+
+	private final CompiledGraph graph;
+	private final EstimateProvider estimates;
+	private final boolean byTime;
+	private final double timeScale;
+
+	/**
+	 * @param graph the graph the ids belong to
+	 * @param metric cost function to estimate
+	 */
+	public PlaceEstimateHeuristic(CompiledGraph graph, Metric metric) {
+		this(graph, metric, new StraightLineEstimates());
+	}
+
+	/**
+	 * @param graph the graph the ids belong to
+	 * @param metric cost function to estimate
+	 * @param estimates the provider the estimates come from
+	 */
+	public PlaceEstimateHeuristic(CompiledGraph graph, Metric metric, EstimateProvider estimates) {
+		this.graph = graph;
+		this.estimates = estimates;
+		this.byTime = metric == Metric.TIME;
+		this.timeScale = SpeedProfile.CAR.getMaxSpeed() / graph.getProfile().getMaxSpeed();
+	}
+
+	public double estimate(int from, int to) {
+		if (from == to) {
+			return 0.0;
+		}
+		Place p = graph.getPlace(from);
+		Place t = graph.getPlace(to);
+		return byTime ? estimates.getTEst(p, t) * timeScale : estimates.getDEst(p, t);
+	}
+}
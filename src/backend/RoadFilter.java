@@ -0,0 +1,157 @@
+package backend;
+
+import java.util.Arrays;
+
+import utils.RoadType;
+
+/**
+ * RoadFilter says which types of road a route may not use and which it should use only when they
+ * save enough. The road types are kept as bitmasks of their ordinals, so a search checks an edge
+ * with one shift and mask while it relaxes the edge, without copying or rebuilding the graph.
+ * Leaving roads out or making them more expensive never makes a route cheaper, so the A*
+ * estimates and landmark bounds of the searches stay lower bounds.
+ * NONE - the filter that allows every road at its normal cost
+ * avoidMask - bit t is set if roads of the type with ordinal t may not be used
+ * penaltyMask - bit t is set if roads of the type with ordinal t cost more
+ * penalties - factor the cost of a road is multiplied by, indexed by the ordinal of its type, 1
+ * 		for the types that are not penalized
+ */
+public class RoadFilter {
+
+	public static final RoadFilter NONE = new RoadFilter(0, 0, noPenalties());
+	private final int avoidMask;
+	private final int penaltyMask;
+	private final double[] penalties;
+
+	private RoadFilter(int avoidMask, int penaltyMask, double[] penalties) {
+		this.avoidMask = avoidMask;
+		this.penaltyMask = penaltyMask;
+		this.penalties = penalties;
+	}
+
+	/**
+	 * return a factor of 1 for every road type
+	 * @return
+	 */
+	private static double[] noPenalties() {
+		double[] penalties = new double[RoadType.values().length];
+		Arrays.fill(penalties, 1.0);
+		return penalties;
+	}
+
+	/**
+	 * return a filter that leaves out roads of the given types
+	 * @param types
+	 * @return
+	 */
+	public static RoadFilter avoid(RoadType... types) {
+		return NONE.andAvoid(types);
+	}
+
+	/**
+	 * return a filter that makes roads of the given types more expensive
+	 * @param penalty factor the cost of those roads is multiplied by, at least 1
+	 * @param types
+	 * @return
+	 */
+	public static RoadFilter penalize(double penalty, RoadType... types) {
+		return NONE.andPenalize(penalty, types);
+	}
+
+	/**
+	 * return this filter that also leaves out roads of the given types
+	 * @param types
+	 * @return
+	 */
+	public RoadFilter andAvoid(RoadType... types) {
+		return new RoadFilter(avoidMask | mask(types), penaltyMask, penalties);
+	}
+
+	/**
+	 * return this filter that also makes roads of the given types more expensive. Each type keeps
+	 * its own factor, so a type that was penalized before gets the new factor and the others keep
+	 * theirs.
+	 * @param factor factor the cost of those roads is multiplied by, at least 1
+	 * @param types
+	 * @return
+	 */
+	public RoadFilter andPenalize(double factor, RoadType... types) {
+		if (!(factor >= 1.0)) {
+			throw new IllegalArgumentException("Penalty must be at least 1: " + factor);
+		}
+		double[] p = penalties.clone();
+		for (RoadType t : types) {
+			p[t.ordinal()] = factor;
+		}
+		return new RoadFilter(avoidMask, penaltyMask | mask(types), p);
+	}
+
+	/**
+	 * return the bitmask of the ordinals of the given types
+	 * @param types
+	 * @return
+	 */
+	private static int mask(RoadType... types) {
+		int m = 0;
+		for (RoadType t : types) {
+			m |= 1 << t.ordinal();
+		}
+		return m;
+	}
+
+	/**
+	 * return true if roads of the type with the given ordinal may be used
+	 * @param type ordinal of the road type
+	 * @return
+	 */
+	public boolean allows(int type) {
+		return (avoidMask & (1 << type)) == 0;
+	}
+
+	/**
+	 * return the cost of an edge under this filter
+	 * @param weight the normal cost of the edge
+	 * @param type ordinal of the road type of the edge
+	 * @return the cost, Double.POSITIVE_INFINITY if the edge may not be used
+	 */
+	public double cost(double weight, int type) {
+		int bit = 1 << type;
+		if ((avoidMask & bit) != 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return (penaltyMask & bit) != 0 ? weight * penalties[type] : weight;
+	}
+
+	/**
+	 * return true if the filter allows every road at its normal cost
+	 * @return
+	 */
+	public boolean isNone() {
+		return avoidMask == 0 && penaltyMask == 0;
+	}
+
+	/**
+	 * return the bitmask of the road types that may not be used
+	 * @return
+	 */
+	public int getAvoidMask() {
+		return avoidMask;
+	}
+
+	/**
+	 * return the bitmask of the road types that cost more
+	 * @return
+	 */
+	public int getPenaltyMask() {
+		return penaltyMask;
+	}
+
+	/**
+	 * return the factor the cost of a road is multiplied by
+	 * @param type ordinal of the road type
+	 * @return the factor, 1 if the type is not penalized
+	 */
+	public double getPenalty(int type) {
+		return penalties[type];
+	}
+}
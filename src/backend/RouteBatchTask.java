@@ -0,0 +1,59 @@
+package backend;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RouteBatchTask plans a range of the requests of a batch on a ForkJoinPool. A range larger than
+ * the threshold is split in half and both halves are forked, a smaller range is planned by the
+ * worker that runs it with a Router it borrows from the pool of the batch for the whole range, so
+ * search arrays are allocated about once per worker and reused for the routes it plans. Each route is written to the
+ * index of its request, which keeps the results in the order of the requests.
+ * requests - every request of the batch
+ * results - the route of every request, filled in by the tasks
+ * routers - the routers of the batch
+ * start, end - the range of requests this task plans, start inclusive and end exclusive
+ */
+class RouteBatchTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+	private static final int THRESHOLD = 32;
+	private final List<RouteRequest> requests;
+	private final RouteResult[] results;
+	private final RouterPool routers;
+	private final int start;
+	private final int end;
+
+	/**
+	 * @param requests every request of the batch
+	 * @param results array the routes are written to, as long as requests
+	 * @param routers lends routers to the workers
+	 * @param start first request to plan
+	 * @param end one past the last request to plan
+	 */
+	RouteBatchTask(List<RouteRequest> requests, RouteResult[] results, RouterPool routers, int start, int end) {
+		this.requests = requests;
+		this.results = results;
+		this.routers = routers;
+		this.start = start;
+		this.end = end;
+	}
+
+	protected void compute() {
+		if (end - start > THRESHOLD) {
+			int mid = (start + end) >>> 1;
+			invokeAll(new RouteBatchTask(requests, results, routers, start, mid),
+					new RouteBatchTask(requests, results, routers, mid, end));
+			return;
+		}
+		Router router = routers.take();
+		try {
+			for (int i = start; i < end; i++) {
+				RouteRequest r = requests.get(i);
+				results[i] = router.route(r.getFrom(), r.getTo(), r.getMetric(), r.getFilter());
+			}
+		} finally {
+			routers.give(router);
+		}
+	}
+}
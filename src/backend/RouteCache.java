@@ -0,0 +1,170 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import utils.Metric;
+
+/**
+ * RouteCache keeps the most recently used routes in a bounded least recently used cache keyed by
+ * start, destination and metric. A route is stored as an array of places that is never modified,
+ * and every lookup hands out a new list so callers cannot change the cached route.
+ * The Map invalidates the cache whenever an edit changes the graph, by one rule: inserting or
+ * removing a city changes links, so every route is dropped, while inserting or removing a point of
+ * interest leaves every link as it is, so only the routes that pass through that point of interest
+ * are dropped.
+ * routes - the cached routes in access order
+ * capacity - the most routes that are kept
+ * hits - number of lookups that found a route
+ * misses - number of lookups that did not find a route
+ * evictions - number of routes dropped to make room for newer ones
+ */
+public class RouteCache {
+
+	private final LinkedHashMap<RouteKey, Place[]> routes;
+	private final int capacity;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * @param capacity the most routes that are kept
+	 */
+	public RouteCache(int capacity) {
+		this.capacity = capacity;
+		this.routes = new LinkedHashMap<RouteKey, Place[]>(16, 0.75f, true) {
+			protected boolean removeEldestEntry(java.util.Map.Entry<RouteKey, Place[]> eldest) {
+				if (size() > RouteCache.this.capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * return the cached route between two places
+	 * @param from
+	 * @param to
+	 * @param metric
+	 * @return a new list of the places along the route, or null if the route is not cached
+	 */
+	public synchronized ArrayList<Place> get(Place from, Place to, Metric metric) {
+		Place[] route = routes.get(new RouteKey(from, to, metric));
+		if (route == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		ArrayList<Place> list = new ArrayList<Place>(route.length);
+		for (Place p : route) {
+			list.add(p);
+		}
+		return list;
+	}
+
+	/**
+	 * stores a copy of a route
+	 * @param from
+	 * @param to
+	 * @param metric
+	 * @param route places along the route in order
+	 */
+	public synchronized void put(Place from, Place to, Metric metric, ArrayList<Place> route) {
+		if (capacity > 0) {
+			routes.put(new RouteKey(from, to, metric), route.toArray(new Place[route.size()]));
+		}
+	}
+
+	/**
+	 * drops every cached route, for edits that change links
+	 */
+	public synchronized void invalidate() {
+		routes.clear();
+	}
+
+	/**
+	 * drops every cached route that passes through a place, for edits that only change that place
+	 * @param p
+	 */
+	public synchronized void invalidate(Place p) {
+		Iterator<Place[]> i = routes.values().iterator();
+		while (i.hasNext()) {
+			for (Place q : i.next()) {
+				if (q == p) {
+					i.remove();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * return the number of lookups that found a route
+	 * @return
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * return the number of lookups that did not find a route
+	 * @return
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * return the number of routes dropped to make room for newer ones
+	 * @return
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * return the number of routes in the cache
+	 * @return
+	 */
+	public synchronized int size() {
+		return routes.size();
+	}
+
+	/**
+	 * return the most routes that are kept
+	 * @return
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * key of the cache, the places are compared by identity
+	 */
+	private static class RouteKey {
+		private final Place from;
+		private final Place to;
+		private final Metric metric;
+
+		private RouteKey(Place from, Place to, Metric metric) {
+			this.from = from;
+			this.to = to;
+			this.metric = metric;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof RouteKey)) {
+				return false;
+			}
+			RouteKey other = (RouteKey) obj;
+			return from == other.from && to == other.to && metric == other.metric;
+		}
+
+		public int hashCode() {
+			return (31 * System.identityHashCode(from) + System.identityHashCode(to)) * 31 + metric.ordinal();
+		}
+	}
+}
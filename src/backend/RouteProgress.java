@@ -0,0 +1,23 @@
+package backend;
+
+/**
+ * RouteProgress is told how far a route that is found in the background has come. It is called
+ * on the thread that finds the route, once at the start of every stage of the search.
+ */
+public interface RouteProgress {
+
+	/**
+	 * a RouteProgress that ignores the progress
+	 */
+	RouteProgress NONE = new RouteProgress() {
+		public void stageStarted(String stage, int percent) {
+		}
+	};
+
+	/**
+	 * called when a stage of the search starts
+	 * @param stage what the search does next, for showing to the user
+	 * @param percent share of the search done before the stage, between 0 and 100
+	 */
+	void stageStarted(String stage, int percent);
+}
@@ -0,0 +1,72 @@
+package backend;
+
+import utils.Metric;
+
+/**
+ * RouteRequest is one trip of a batch of routes to plan
+ * from - place to start from
+ * to - place to arrive at
+ * metric - cost function of the route
+ * filter - the road types the route has to leave out or should avoid
+ */
+public class RouteRequest {
+
+	private final Place from;
+	private final Place to;
+	private final Metric metric;
+	private final RoadFilter filter;
+
+	/**
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param metric cost function of the route
+	 */
+	public RouteRequest(Place from, Place to, Metric metric) {
+		this(from, to, metric, RoadFilter.NONE);
+	}
+
+	/**
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param metric cost function of the route
+	 * @param filter the road types the route has to leave out or should avoid
+	 */
+	public RouteRequest(Place from, Place to, Metric metric, RoadFilter filter) {
+		this.from = from;
+		this.to = to;
+		this.metric = metric;
+		this.filter = filter;
+	}
+
+	/**
+	 * return the place to start from
+	 * @return
+	 */
+	public Place getFrom() {
+		return from;
+	}
+
+	/**
+	 * return the place to arrive at
+	 * @return
+	 */
+	public Place getTo() {
+		return to;
+	}
+
+	/**
+	 * return the cost function of the route
+	 * @return
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * return the road filter of the route
+	 * @return
+	 */
+	public RoadFilter getFilter() {
+		return filter;
+	}
+}
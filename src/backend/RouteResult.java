@@ -0,0 +1,144 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import utils.Metric;
+
+/**
+ * RouteResult is the immutable answer to one route query. It can be shared between threads and
+ * kept after the map has found other routes.
+ * places - the places along the route in order, empty if there is no route
+ * metric - the cost function the route was found with
+ * totalDistance - sum of the distances of the links along the route
+ * totalTime - sum of the times of the links along the route
+ * settledCount - number of places the search settled to find the route, which shows how much of
+ * 		the map each route algorithm has to look at, 0 if no search was needed
+ */
+public class RouteResult {
+
+	private final List<Place> places;
+	private final Metric metric;
+	private final double totalDistance;
+	private final double totalTime;
+	private final int settledCount;
+
+	/**
+	 * The constructor adds up the links between the places of the route. Between two places that
+	 * follow each other the cheapest link for the metric is the one the route uses.
+	 * @param graph the graph the route was found on
+	 * @param route the places along the route in order, copied by the constructor
+	 * @param metric the cost function the route was found with
+	 */
+	RouteResult(CompiledGraph graph, List<Place> route, Metric metric) {
+		this(graph, route, metric, RoadFilter.NONE);
+	}
+
+	/**
+	 * The constructor adds up the links between the places of a route that keeps to a road
+	 * filter. Between two places that follow each other the link the filter allows that costs
+	 * least under it is the one the route uses.
+	 * @param graph the graph the route was found on
+	 * @param route the places along the route in order, copied by the constructor
+	 * @param metric the cost function the route was found with
+	 * @param filter the road filter the route was found with
+	 */
+	RouteResult(CompiledGraph graph, List<Place> route, Metric metric, RoadFilter filter) {
+		this(graph, route, metric, filter, 0);
+	}
+
+	/**
+	 * The constructor adds up the links of a route like the one above and keeps the number of
+	 * places its search settled
+	 * @param graph the graph the route was found on
+	 * @param route the places along the route in order, copied by the constructor
+	 * @param metric the cost function the route was found with
+	 * @param filter the road filter the route was found with
+	 * @param settledCount number of places the search settled to find the route
+	 */
+	RouteResult(CompiledGraph graph, List<Place> route, Metric metric, RoadFilter filter, int settledCount) {
+		this.settledCount = settledCount;
+		this.places = Collections.unmodifiableList(new ArrayList<Place>(route));
+		this.metric = metric;
+		double[] distance = graph.getWeights(Metric.DISTANCE);
+		double[] time = graph.getWeights(Metric.TIME);
+		double d = route.isEmpty() ? Double.POSITIVE_INFINITY : 0.0;
+		double t = d;
+		for (int i = 1; i < route.size(); i++) {
+			int from = graph.indexOf(route.get(i - 1));
+			int to = graph.indexOf(route.get(i));
+			int e = (from == -1 || to == -1) ? -1 : graph.findEdge(from, to, metric, filter);
+			if (e == -1) {
+				d = Double.POSITIVE_INFINITY;
+				t = Double.POSITIVE_INFINITY;
+				break;
+			}
+			d += distance[e];
+			t += time[e];
+		}
+		this.totalDistance = d;
+		this.totalTime = t;
+	}
+
+	/**
+	 * return the places along the route in order, the list cannot be modified
+	 * @return
+	 */
+	public List<Place> getPlaces() {
+		return places;
+	}
+
+	/**
+	 * return true if a route was found
+	 * @return
+	 */
+	public boolean isFound() {
+		return !places.isEmpty();
+	}
+
+	/**
+	 * return the cost function the route was found with
+	 * @return
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * return the total distance of the route, Double.POSITIVE_INFINITY if there is no route
+	 * @return
+	 */
+	public double getTotalDistance() {
+		return totalDistance;
+	}
+
+	/**
+	 * return the total time of the route, Double.POSITIVE_INFINITY if there is no route
+	 * @return
+	 */
+	public double getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * return the number of places the search settled to find the route, 0 if it was not searched
+	 * for, for example because it came from the route cache
+	 * @return
+	 */
+	public int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * return the total cost of the route for the metric it was found with
+	 * @return
+	 */
+	public double getCost() {
+		return metric == Metric.TIME ? totalTime : totalDistance;
+	}
+
+	public String toString() {
+		return places + " distance: " + totalDistance + " time: " + totalTime;
+	}
+}
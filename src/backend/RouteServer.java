@@ -0,0 +1,417 @@
+package backend;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import utils.Metric;
+import utils.RoadType;
+
+/**
+ * RouteServer answers routing queries over HTTP with the HTTP server built into the JDK, so the
+ * map can be used without the Swing frontend. Every answer is a JSON object.
+ * GET /route?from=Topeka&to=Wichita&metric=time&avoid=tollway,interstate - the best route between
+ * 		two places, avoid is optional and lists the road types the route may not use
+ * GET /place?name=Topeka - the details of one place
+ * GET /cities?sort=alpha|rating|population - every city in the given order, alpha by default
+ * GET /nearest?latitude=39.05&longitude=-95.68&k=5 - the k places closest to a coordinate,
+ * 		k must be positive and is cut down to the number of places
+ * Places are looked up by name with or without the leading space the map stores them with.
+ * A missing or malformed parameter, or a place in the parameters of /route that is not on the
+ * map, is answered with status 400; a place asked for by /place that is not on the map with 404.
+ * Requests run on one virtual thread each when the JDK has them (Java 21 and later). The project
+ * targets Java 8, so the executor is looked up by reflection and a fixed pool of platform
+ * threads is used on older JDKs.
+ * map - the map the queries run on, it must not be edited while the server runs
+ * server - the HTTP server
+ * executor - the executor the requests run on
+ */
+public class RouteServer {
+
+	private final Map map;
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	/**
+	 * The constructor binds the server to a port, it does not accept requests until start is called
+	 * @param map the map the queries run on
+	 * @param port the port to listen on, 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public RouteServer(Map map, int port) throws IOException {
+		this.map = map;
+		this.server = HttpServer.create(new InetSocketAddress(port), 0);
+		this.executor = newRequestExecutor();
+		server.setExecutor(executor);
+		server.createContext("/route", new JsonHandler() {
+			Response answer(HashMap<String, String> query) {
+				return handleRoute(query);
+			}
+		});
+		server.createContext("/place", new JsonHandler() {
+			Response answer(HashMap<String, String> query) {
+				return handlePlace(query);
+			}
+		});
+		server.createContext("/cities", new JsonHandler() {
+			Response answer(HashMap<String, String> query) {
+				return handleCities(query);
+			}
+		});
+		server.createContext("/nearest", new JsonHandler() {
+			Response answer(HashMap<String, String> query) {
+				return handleNearest(query);
+			}
+		});
+	}
+
+	/**
+	 * starts accepting requests
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * stops accepting requests, waits up to the given number of seconds for open requests to
+	 * finish and shuts the executor down
+	 * @param delay
+	 */
+	public void stop(int delay) {
+		server.stop(delay);
+		executor.shutdown();
+	}
+
+	/**
+	 * return the port the server listens on
+	 * @return
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * return an executor that runs every task on a new virtual thread if the JDK has virtual
+	 * threads, otherwise a fixed pool of platform threads
+	 * @return
+	 */
+	public static ExecutorService newRequestExecutor() {
+		return newRequestExecutor("newVirtualThreadPerTaskExecutor");
+	}
+
+	/**
+	 * return the executor made by a factory method of Executors that takes no arguments, or a
+	 * fixed pool of platform threads if this JDK does not have the method
+	 * @param factory name of the method
+	 * @return
+	 */
+	public static ExecutorService newRequestExecutor(String factory) {
+		try {
+			return (ExecutorService) Executors.class.getMethod(factory).invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4);
+		}
+	}
+
+	/**
+	 * answers /route
+	 * @param query parameters of the request
+	 * @return
+	 */
+	private Response handleRoute(HashMap<String, String> query) {
+		if (!query.containsKey("from") || !query.containsKey("to")) {
+			return error(400, "from and to are required");
+		}
+		Place from = findPlace(query.get("from"));
+		Place to = findPlace(query.get("to"));
+		// the places are parameters of the query, so a name that is not on the map is a bad request
+		if (from == null) {
+			return error(400, "unknown place: " + query.get("from"));
+		}
+		if (to == null) {
+			return error(400, "unknown place: " + query.get("to"));
+		}
+		Metric metric;
+		try {
+			metric = query.containsKey("metric") ? Metric.fromString(query.get("metric")) : Metric.DISTANCE;
+		} catch (RuntimeException e) {
+			return error(400, "unknown metric: " + query.get("metric"));
+		}
+		RoadFilter filter = RoadFilter.NONE;
+		if (query.containsKey("avoid")) {
+			for (String type : query.get("avoid").split(",")) {
+				try {
+					filter = filter.andAvoid(RoadType.valueOf(type.trim().toUpperCase()));
+				} catch (IllegalArgumentException e) {
+					return error(400, "unknown road type: " + type);
+				}
+			}
+		}
+		RouteResult result = map.route(from, to, metric, filter);
+		StringBuilder json = new StringBuilder();
+		json.append("{\"found\":").append(result.isFound());
+		json.append(",\"metric\":");
+		appendString(json, metric.name().toLowerCase());
+		if (result.isFound()) {
+			json.append(",\"distance\":").append(result.getTotalDistance());
+			json.append(",\"time\":").append(result.getTotalTime());
+		}
+		json.append(",\"places\":[");
+		List<Place> places = result.getPlaces();
+		for (int i = 0; i < places.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendPlace(json, places.get(i));
+		}
+		json.append("]}");
+		return new Response(200, json.toString());
+	}
+
+	/**
+	 * answers /place
+	 * @param query parameters of the request
+	 * @return
+	 */
+	private Response handlePlace(HashMap<String, String> query) {
+		if (!query.containsKey("name")) {
+			return error(400, "name is required");
+		}
+		Place p = findPlace(query.get("name"));
+		if (p == null) {
+			return error(404, "unknown place: " + query.get("name"));
+		}
+		StringBuilder json = new StringBuilder();
+		appendPlace(json, p);
+		return new Response(200, json.toString());
+	}
+
+	/**
+	 * answers /cities
+	 * @param query parameters of the request
+	 * @return
+	 */
+	private Response handleCities(HashMap<String, String> query) {
+		String sort = query.get("sort");
+		ArrayList<City> cities;
+		if (sort == null || sort.equals("alpha")) {
+			cities = map.getAlpCityList();
+		} else if (sort.equals("rating")) {
+			cities = map.getRatCityList();
+		} else if (sort.equals("population")) {
+			cities = map.getPopCityList();
+		} else {
+			return error(400, "unknown sort: " + sort);
+		}
+		StringBuilder json = new StringBuilder("{\"cities\":[");
+		for (int i = 0; i < cities.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendPlace(json, cities.get(i));
+		}
+		json.append("]}");
+		return new Response(200, json.toString());
+	}
+
+	/**
+	 * answers /nearest
+	 * @param query parameters of the request
+	 * @return
+	 */
+	private Response handleNearest(HashMap<String, String> query) {
+		if (!query.containsKey("latitude") || !query.containsKey("longitude") || !query.containsKey("k")) {
+			return error(400, "latitude, longitude and k are required");
+		}
+		Coordinate c;
+		int k;
+		try {
+			c = new Coordinate(Double.parseDouble(query.get("latitude")), Double.parseDouble(query.get("longitude")));
+			k = Integer.parseInt(query.get("k"));
+		} catch (NumberFormatException e) {
+			return error(400, "not a number: " + e.getMessage());
+		}
+		if (k <= 0) {
+			return error(400, "k must be positive: " + k);
+		}
+		k = Math.min(k, map.getPlaces().size());
+		StringBuilder json = new StringBuilder("{\"places\":[");
+		List<Place> places = map.nearestPlaces(c, k);
+		for (int i = 0; i < places.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			appendPlace(json, places.get(i));
+		}
+		json.append("]}");
+		return new Response(200, json.toString());
+	}
+
+	/**
+	 * return the place with the given name, with or without its leading space
+	 * @param name
+	 * @return the place, or null if there is none
+	 */
+	private Place findPlace(String name) {
+		Place p = map.getPlaces().get(name);
+		if (p == null) {
+			p = map.getPlaces().get(" " + name.trim());
+		}
+		return p;
+	}
+
+	/**
+	 * appends a place as a JSON object
+	 * @param json
+	 * @param p
+	 */
+	private static void appendPlace(StringBuilder json, Place p) {
+		json.append("{\"name\":");
+		appendString(json, p.getName().trim());
+		json.append(",\"latitude\":").append(p.getLocation().getY());
+		json.append(",\"longitude\":").append(p.getLocation().getX());
+		json.append(",\"rating\":").append(p.getRating());
+		if (p instanceof City) {
+			json.append(",\"kind\":\"city\",\"population\":").append(((City) p).getPopulation());
+		} else if (p instanceof POI) {
+			POI poi = (POI) p;
+			json.append(",\"kind\":\"poi\",\"type\":");
+			appendString(json, poi.getType());
+			json.append(",\"cost\":").append(poi.getCost());
+		}
+		json.append('}');
+	}
+
+	/**
+	 * appends a string as a JSON string literal
+	 * @param json
+	 * @param s
+	 */
+	public static void appendString(StringBuilder json, String s) {
+		json.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+
+	/**
+	 * return the parameters of the query string of a request. Names and values are URL decoded;
+	 * a pair without a name or that is badly escaped is left out, and a later value of a name
+	 * replaces an earlier one.
+	 * @param query the raw query string, null if the request has none
+	 * @return
+	 */
+	public static HashMap<String, String> parseQuery(String query) {
+		HashMap<String, String> params = new HashMap<String, String>();
+		if (query == null) {
+			return params;
+		}
+		for (String pair : query.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq <= 0) {
+				continue;
+			}
+			try {
+				params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+			} catch (UnsupportedEncodingException e) {
+				// UTF-8 is always supported
+			} catch (IllegalArgumentException e) {
+				// a badly escaped parameter is left out
+			}
+		}
+		return params;
+	}
+
+	/**
+	 * return an error response
+	 * @param status
+	 * @param message
+	 * @return
+	 */
+	private static Response error(int status, String message) {
+		StringBuilder json = new StringBuilder("{\"error\":");
+		appendString(json, message);
+		json.append('}');
+		return new Response(status, json.toString());
+	}
+
+	/**
+	 * sends a response and closes the exchange
+	 * @param exchange
+	 * @param response
+	 * @throws IOException
+	 */
+	private static void respond(HttpExchange exchange, Response response) throws IOException {
+		byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(response.status, body.length);
+		OutputStream out = exchange.getResponseBody();
+		try {
+			out.write(body);
+		} finally {
+			out.close();
+			exchange.close();
+		}
+	}
+
+	/**
+	 * JsonHandler answers GET requests with the response of answer and every other method with
+	 * an error. An exception thrown by answer is sent back as an internal server error.
+	 */
+	private static abstract class JsonHandler implements HttpHandler {
+
+		public void handle(HttpExchange exchange) throws IOException {
+			Response response;
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				response = error(405, "only GET is supported");
+			} else {
+				try {
+					response = answer(parseQuery(exchange.getRequestURI().getRawQuery()));
+				} catch (RuntimeException e) {
+					response = error(500, String.valueOf(e));
+				}
+			}
+			respond(exchange, response);
+		}
+
+		/**
+		 * return the response to a GET request
+		 * @param query parameters of the request
+		 * @return
+		 */
+		abstract Response answer(HashMap<String, String> query);
+	}
+
+	/**
+	 * status code and JSON body of a response
+	 */
+	private static class Response {
+		private final int status;
+		private final String body;
+
+		private Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package backend;
+
+import java.util.ArrayList;
+
+import utils.Metric;
+import utils.RouteAlgorithm;
+
+/**
+ * Router keeps one search of a route algorithm for each metric and reuses it for every route it
+ * finds, so a thread that finds many routes allocates the search arrays only once. The searches
+ * are created the first time a metric is used. The preprocessing of the fast algorithms is taken
+ * from the map and shared with every other router.
+ * A route with a RoadFilter is found by checking the filter inside the search. The shortcuts of a
+ * contraction hierarchy hide the roads they stand for, so with either hierarchy algorithm a
+ * filtered route is found by the ALT search instead, whose landmark bounds stay lower bounds
+ * when roads are left out or cost more.
+ * A router must only be used by one thread at a time.
+ * map - the map whose preprocessing the searches use
+ * graph - the graph that is searched
+ * estimates - the estimate provider of the map when the router was made, which guides A*
+ * algorithm - the search algorithm used for every route
+ * aStar, landmarkSearch, bidirectional, hierarchy, customized - the searches of each metric,
+ * 		indexed by the metric ordinal
+ * settledCount - number of places the search of the last route settled
+ */
+class Router {
+
+	private final Map map;
+	private final CompiledGraph graph;
+	private final EstimateProvider estimates;
+	private final RouteAlgorithm algorithm;
+	private final AStarSearch[] aStar;
+	private final AStarSearch[] landmarkSearch;
+	private final BidirectionalSearch[] bidirectional;
+	private final ContractionHierarchyQuery[] hierarchy;
+	private final CustomizableHierarchyQuery[] customized;
+	private int settledCount;
+
+	/**
+	 * @param map the map whose preprocessing the searches use
+	 * @param graph the current graph of the map
+	 * @param algorithm the search algorithm used for every route
+	 */
+	Router(Map map, CompiledGraph graph, RouteAlgorithm algorithm) {
+		int metrics = Metric.values().length;
+		this.map = map;
+		this.graph = graph;
+		this.estimates = map.getEstimateProvider();
+		this.algorithm = algorithm;
+		aStar = new AStarSearch[metrics];
+		landmarkSearch = new AStarSearch[metrics];
+		bidirectional = new BidirectionalSearch[metrics];
+		hierarchy = new ContractionHierarchyQuery[metrics];
+		customized = new CustomizableHierarchyQuery[metrics];
+	}
+
+	/**
+	 * finds the least cost route from one place to another
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the route
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	ArrayList<Place> findRoute(Place from, Place to, Metric m) {
+		return findRoute(from, to, m, RoadFilter.NONE);
+	}
+
+	/**
+	 * finds the least cost route from one place to another that keeps to a road filter
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the route
+	 * @param filter the road types to leave out or make more expensive
+	 * @return the places along the route in order, or an empty list if to cannot be reached
+	 */
+	ArrayList<Place> findRoute(Place from, Place to, Metric m, RoadFilter filter) {
+		settledCount = 0;
+		if (from.equals(to)) {
+			ArrayList<Place> route = new ArrayList<Place>();
+			route.add(from);
+			return route;
+		}
+		int i = m.ordinal();
+		RouteAlgorithm a = algorithm;
+		ArrayList<Place> route;
+		if (a == RouteAlgorithm.CONTRACTION_HIERARCHY) {
+			if (filter.isNone()) {
+				if (hierarchy[i] == null) {
+					hierarchy[i] = map.getContractionHierarchy(m).newQuery();
+				}
+				route = hierarchy[i].findRoute(from, to);
+				settledCount = hierarchy[i].getSettledCount();
+				return route;
+			}
+			a = RouteAlgorithm.ALT;
+		} else if (a == RouteAlgorithm.CUSTOMIZABLE_HIERARCHY) {
+			if (filter.isNone()) {
+				if (customized[i] == null) {
+					customized[i] = map.getCustomization(m).newQuery();
+				}
+				route = customized[i].findRoute(from, to);
+				settledCount = customized[i].getSettledCount();
+				return route;
+			}
+			a = RouteAlgorithm.ALT;
+		}
+		if (a == RouteAlgorithm.BIDIRECTIONAL) {
+			if (bidirectional[i] == null) {
+				bidirectional[i] = new BidirectionalSearch(graph, m);
+			}
+			route = bidirectional[i].findRoute(from, to, filter);
+			settledCount = bidirectional[i].getSettledCount();
+			return route;
+		}
+		AStarSearch search;
+		if (a == RouteAlgorithm.ALT) {
+			if (landmarkSearch[i] == null) {
+				landmarkSearch[i] = new AStarSearch(graph, m, map.getLandmarks(m));
+			}
+			search = landmarkSearch[i];
+		} else {
+			if (aStar[i] == null) {
+				aStar[i] = new AStarSearch(graph, m, new PlaceEstimateHeuristic(graph, m, estimates));
+			}
+			search = aStar[i];
+		}
+		route = search.findRoute(from, to, filter);
+		settledCount = search.getSettledCount();
+		return route;
+	}
+
+	/**
+	 * finds the least cost route from one place to another
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the route
+	 * @return the route with its total distance and time
+	 */
+	RouteResult route(Place from, Place to, Metric m) {
+		ArrayList<Place> route = findRoute(from, to, m);
+		return new RouteResult(graph, route, m, RoadFilter.NONE, settledCount);
+	}
+
+	/**
+	 * finds the least cost route from one place to another that keeps to a road filter
+	 * @param from place to start from
+	 * @param to place to arrive at
+	 * @param m cost function of the route
+	 * @param filter the road types to leave out or make more expensive
+	 * @return the route with its total distance and time
+	 */
+	RouteResult route(Place from, Place to, Metric m, RoadFilter filter) {
+		ArrayList<Place> route = findRoute(from, to, m, filter);
+		return new RouteResult(graph, route, m, filter, settledCount);
+	}
+
+	/**
+	 * return the number of places the search of the last route settled
+	 * @return
+	 */
+	int getSettledCount() {
+		return settledCount;
+	}
+
+	/**
+	 * return the graph the router searches
+	 * @return
+	 */
+	CompiledGraph getGraph() {
+		return graph;
+	}
+}
@@ -0,0 +1,70 @@
+package backend;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import utils.RouteAlgorithm;
+
+/**
+ * RouterPool lends routers of one graph and route algorithm to the threads that find routes, so
+ * a route reuses the search arrays of an earlier route instead of allocating them again. A thread
+ * takes a router, finds its routes and gives the router back. Up to the given number of idle
+ * routers are kept; more are left for the garbage collector. A pool that is no longer used is
+ * dropped as a whole together with every router in it.
+ * map - the map whose preprocessing the routers use
+ * graph - the graph the routers search
+ * algorithm - the search algorithm of the routers
+ * idle - the routers that are not lent out
+ * maxIdle - the most idle routers that are kept
+ */
+class RouterPool {
+
+	private final Map map;
+	private final CompiledGraph graph;
+	private final RouteAlgorithm algorithm;
+	private final ConcurrentLinkedQueue<Router> idle;
+	private final int maxIdle;
+
+	/**
+	 * @param map the map whose preprocessing the routers use
+	 * @param graph the graph the routers search
+	 * @param algorithm the search algorithm of the routers
+	 * @param maxIdle the most idle routers that are kept
+	 */
+	RouterPool(Map map, CompiledGraph graph, RouteAlgorithm algorithm, int maxIdle) {
+		this.map = map;
+		this.graph = graph;
+		this.algorithm = algorithm;
+		this.idle = new ConcurrentLinkedQueue<Router>();
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * return true if the routers of the pool search the given graph with the given algorithm
+	 * @param g
+	 * @param a
+	 * @return
+	 */
+	boolean isFor(CompiledGraph g, RouteAlgorithm a) {
+		return graph == g && algorithm == a;
+	}
+
+	/**
+	 * lends a router to the calling thread, which must give it back when it is done
+	 * @return an idle router, or a new one if none is idle
+	 */
+	Router take() {
+		Router r = idle.poll();
+		return r != null ? r : new Router(map, graph, algorithm);
+	}
+
+	/**
+	 * gives back a router that was taken from this pool
+	 * @param r
+	 */
+	void give(Router r) {
+		// the size of the queue is only a hint when threads give back at once, which is enough
+		if (idle.size() < maxIdle) {
+			idle.offer(r);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import utils.IntDoubleHeap;
+import utils.Metric;
+
+/**
+ * ShortestPathTree holds the least cost from one place to every place that can be reached within
+ * a cost limit, for example every city within 90 minutes of Topeka. It is computed by a single
+ * Dijkstra sweep that stops as soon as the next place would cost more than the limit. The costs
+ * and parents are kept in arrays indexed by place id and the reached places are kept in the order
+ * the sweep settled them, which is also the order of increasing cost.
+ * graph - the graph the tree was computed on
+ * metric - the cost function of the tree
+ * source - id of the root place, -1 if the root is not on the graph
+ * limit - the greatest cost a reached place may have
+ * cost - least cost from the root to each place, Double.POSITIVE_INFINITY if it was not reached
+ * parent - id of the place before each place on its least cost route, -1 for the root and
+ * 		for places that were not reached
+ * order - ids of the reached places in order of increasing cost
+ */
+public class ShortestPathTree {
+
+	private final CompiledGraph graph;
+	private final Metric metric;
+	private final int source;
+	private final double limit;
+	private final double[] cost;
+	private final int[] parent;
+	private final int[] order;
+
+	/**
+	 * The constructor runs the sweep from the root
+	 * @param graph the graph to search
+	 * @param root place the routes start from
+	 * @param metric the cost function
+	 * @param limit the greatest cost a reached place may have, Double.POSITIVE_INFINITY for no limit
+	 */
+	public ShortestPathTree(CompiledGraph graph, Place root, Metric metric, double limit) {
+		int n = graph.nodeCount();
+		this.graph = graph;
+		this.metric = metric;
+		this.source = graph.indexOf(root);
+		this.limit = limit;
+		cost = new double[n];
+		parent = new int[n];
+		Arrays.fill(cost, Double.POSITIVE_INFINITY);
+		Arrays.fill(parent, -1);
+		if (source == -1) {
+			order = new int[0];
+			return;
+		}
+		int[] offsets = graph.getOffsets();
+		int[] targets = graph.getTargets();
+		double[] weights = graph.getWeights(metric);
+		boolean[] settled = new boolean[n];
+		int[] settledOrder = new int[n];
+		int count = 0;
+		IntDoubleHeap heap = new IntDoubleHeap(n);
+		cost[source] = 0.0;
+		heap.offer(source, 0.0);
+		while (!heap.isEmpty() && heap.peekKey() <= limit) {
+			int u = heap.poll();
+			settled[u] = true;
+			settledOrder[count++] = u;
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int v = targets[e];
+				double c = cost[u] + weights[e];
+				if (settled[v] || !(c < cost[v])) {
+					continue;
+				}
+				if (Double.isInfinite(cost[v])) {
+					cost[v] = c;
+					parent[v] = u;
+					heap.offer(v, c);
+				} else {
+					cost[v] = c;
+					parent[v] = u;
+					heap.decreaseKey(v, c);
+				}
+			}
+		}
+		// places left in the heap were reached over the limit and do not belong to the tree
+		while (!heap.isEmpty()) {
+			int v = heap.poll();
+			cost[v] = Double.POSITIVE_INFINITY;
+			parent[v] = -1;
+		}
+		order = Arrays.copyOf(settledOrder, count);
+	}
+
+	/**
+	 * return true if the place can be reached within the limit
+	 * @param p
+	 * @return
+	 */
+	public boolean isReached(Place p) {
+		int id = graph.indexOf(p);
+		return id != -1 && !Double.isInfinite(cost[id]);
+	}
+
+	/**
+	 * return the least cost from the root to a place
+	 * @param p
+	 * @return the cost, or Double.POSITIVE_INFINITY if the place is not reached within the limit
+	 */
+	public double getCost(Place p) {
+		int id = graph.indexOf(p);
+		return id == -1 ? Double.POSITIVE_INFINITY : cost[id];
+	}
+
+	/**
+	 * return the place before a place on its least cost route from the root
+	 * @param p
+	 * @return the parent, or null for the root and for places that are not reached
+	 */
+	public Place getParent(Place p) {
+		int id = graph.indexOf(p);
+		return (id == -1 || parent[id] == -1) ? null : graph.getPlace(parent[id]);
+	}
+
+	/**
+	 * return the least cost route from the root to a place
+	 * @param p
+	 * @return the places along the route in order, or an empty list if p is not reached
+	 */
+	public ArrayList<Place> getRoute(Place p) {
+		int id = graph.indexOf(p);
+		if (id == -1 || Double.isInfinite(cost[id])) {
+			return new ArrayList<Place>();
+		}
+		int hops = 0;
+		for (int v = id; v != -1; v = parent[v]) {
+			hops++;
+		}
+		int[] path = new int[hops];
+		for (int v = id; v != -1; v = parent[v]) {
+			path[--hops] = v;
+		}
+		return graph.toPlaces(path);
+	}
+
+	/**
+	 * return the reached places in order of increasing cost, starting with the root
+	 * @return
+	 */
+	public ArrayList<Place> getReachedPlaces() {
+		return graph.toPlaces(order);
+	}
+
+	/**
+	 * return the number of places reached within the limit, including the root
+	 * @return
+	 */
+	public int getReachedCount() {
+		return order.length;
+	}
+
+	/**
+	 * return the id of the i-th reached place in order of increasing cost, for streaming the tree
+	 * without building a list
+	 * @param i
+	 * @return
+	 */
+	public int getReachedId(int i) {
+		return order[i];
+	}
+
+	/**
+	 * return the least cost from the root to the place with the given id
+	 * @param id
+	 * @return the cost, or Double.POSITIVE_INFINITY if the place is not reached within the limit
+	 */
+	public double getCost(int id) {
+		return cost[id];
+	}
+
+	/**
+	 * return the id of the place before the place with the given id on its least cost route
+	 * @param id
+	 * @return the id of the parent, or -1 for the root and for places that are not reached
+	 */
+	public int getParent(int id) {
+		return parent[id];
+	}
+
+	/**
+	 * return the graph the tree was computed on, whose ids the tree uses
+	 * @return
+	 */
+	public CompiledGraph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * return the cost function of the tree
+	 * @return
+	 */
+	public Metric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * return the root place of the tree
+	 * @return the root, or null if it is not on the graph
+	 */
+	public Place getRoot() {
+		return source == -1 ? null : graph.getPlace(source);
+	}
+
+	/**
+	 * return the cost limit of the tree
+	 * @return
+	 */
+	public double getLimit() {
+		return limit;
+	}
+}
@@ -0,0 +1,78 @@
+package backend;
+
+import utils.RoadType;
+
+/**
+ * SpeedProfile is a named set of speeds in miles per hour for each type of road, so the time of a
+ * link depends on the vehicle driving it. The CompiledGraph keeps one array of time weights per
+ * profile, computed the first time the profile is used, so switching profiles does not look at
+ * the links again.
+ * CAR, TRUCK, BUS - the profiles every map has, CAR is the one Link.getTime() uses
+ * name - name of the profile
+ * interstate, highway, tollway, road - speed on each type of road
+ */
+public class SpeedProfile {
+
+	public static final SpeedProfile CAR = new SpeedProfile("car", 85.0, 45.0, 75.0, 40.0);
+	public static final SpeedProfile TRUCK = new SpeedProfile("truck", 65.0, 45.0, 60.0, 35.0);
+	public static final SpeedProfile BUS = new SpeedProfile("bus", 70.0, 45.0, 65.0, 35.0);
+	private final String name;
+	private final double interstate;
+	private final double highway;
+	private final double tollway;
+	private final double road;
+
+	/**
+	 * @param name name of the profile
+	 * @param interstate speed on interstates
+	 * @param highway speed on highways
+	 * @param tollway speed on tollways
+	 * @param road speed on every other road
+	 */
+	public SpeedProfile(String name, double interstate, double highway, double tollway, double road) {
+		if (!(interstate > 0 && highway > 0 && tollway > 0 && road > 0)) {
+			throw new IllegalArgumentException("Speeds must be positive");
+		}
+		this.name = name;
+		this.interstate = interstate;
+		this.highway = highway;
+		this.tollway = tollway;
+		this.road = road;
+	}
+
+	/**
+	 * return the speed on a type of road
+	 * @param type
+	 * @return
+	 */
+	public double getSpeed(RoadType type) {
+		if (type == RoadType.INTERSTATE) {
+			return interstate;
+		} else if (type == RoadType.HIGHWAY) {
+			return highway;
+		} else if (type == RoadType.TOLLWAY) {
+			return tollway;
+		}
+		return road;
+	}
+
+	/**
+	 * return the fastest speed on any type of road, which bounds the time estimates
+	 * @return
+	 */
+	public double getMaxSpeed() {
+		return Math.max(Math.max(interstate, highway), Math.max(tollway, road));
+	}
+
+	/**
+	 * return the name of the profile
+	 * @return
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public String toString() {
+		return name;
+	}
+}
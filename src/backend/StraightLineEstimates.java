@@ -0,0 +1,24 @@
+package backend;
+
+/**
+ * StraightLineEstimates estimates from the coordinates of the places. The distance estimate is
+ * the straight line distance, computed the same way Link computes its distance, and the time
+ * estimate is that distance driven at the fastest speed of any road.
+ * MAX_SPEED - the fastest speed of any road in miles per hour for a car
+ */
+public class StraightLineEstimates implements EstimateProvider {
+
+	public static final double MAX_SPEED = SpeedProfile.CAR.getMaxSpeed();
+
+	public double getDEst(Place from, Place to) {
+		Coordinate a = from.getLocation();
+		Coordinate b = to.getLocation();
+		double xDistance = Math.abs(a.getX()) - Math.abs(b.getX());
+		double yDistance = Math.abs(a.getY()) - Math.abs(b.getY());
+		return Math.sqrt((xDistance * xDistance) + (yDistance * yDistance));
+	}
+
+	public double getTEst(Place from, Place to) {
+		return getDEst(from, to) / MAX_SPEED;
+	}
+}
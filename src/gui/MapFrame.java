@@ -0,0 +1,1432 @@
+package gui;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import javax.swing.AbstractListModel;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.ButtonGroup;
+import javax.swing.GroupLayout;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JRadioButton;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.ListCellRenderer;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import backend.City;
+import backend.Coordinate;
+import backend.Link;
+import backend.Map;
+import backend.POI;
+import backend.Place;
+import backend.RouteProgress;
+import backend.RouteResult;
+import utils.Metric;
+import utils.QuadTree;
+import utils.RoadType;
+
+/**
+ * MapFrame class extends JFrame and displays GUI of navigation system.
+ * 
+ * FRAME_WIDTH - width of the frame
+ * FRAME_HEIGHT - height of the frame
+ * FRAME_TITLE - title of the frame
+ * CITY_SIZE - size of city displayed on the MapPanel
+ * ALTERNATIVE_COUNT - number of alternative routes drawn next to the best route
+ * MAX_OVERLAP - greatest share of its cost an alternative route may have in common with a cheaper one
+ * mp - Map panel
+ * selectedPlaces - stack of places that the user has selected
+ * currentMap - variable to represent Map class
+ */
+public class MapFrame extends JFrame{
+	// constants
+	private static final int FRAME_WIDTH = 1100;
+	private static final int FRAME_HEIGHT = 930;
+	private static final String FRAME_TITLE = "Kansas";
+	private static final int CITY_SIZE = 20;
+	private static final int ALTERNATIVE_COUNT = 2;
+	private static final double MAX_OVERLAP = 0.6;
+	
+	// fields
+	private MapPanel mp;
+	private final Stack<Place> selectedPlaces;
+	private Map currentMap;
+	/**
+	 * The constructor initialize the frame and field variables.
+	 * @param map Map to display in the frame
+	 */
+	public MapFrame(Map map){
+		super();
+		currentMap = map;
+		Dimension d = new Dimension(FRAME_WIDTH, FRAME_HEIGHT);
+		this.setTitle(FRAME_TITLE);
+		this.setMinimumSize(d);
+		this.setPreferredSize(d);
+		this.setMaximumSize(d);
+		this.setResizable(false);
+		
+		selectedPlaces = new Stack<Place>();
+		
+		mp = new MapPanel();
+		this.add(mp);
+		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		this.setLocationRelativeTo(null); // Centers it
+		
+		mp.mdp.drawCityToMap();
+
+		this.setVisible(true);
+	}
+	/**
+	 * This method helps to store the data and prints out the places that user selected
+	 * @param p place that is selected
+	 */
+	private void placeSelected(Place p) {
+		selectedPlaces.push(p);
+		// Set the to and from fields 
+		if (mp.sfp.lockFrom.isSelected()) {
+			if (!mp.sfp.lockTo.isSelected()) {
+				// Updating To city
+				mp.sfp.to.setText(p.getName());
+			}
+		} else {
+			// Updating From city
+			mp.sfp.from.setText(p.getName());
+		}
+		mp.ldp.drawList();
+	}
+	/**
+	 * MapPanel is the main Panel for the Frame.
+	 * This panel contains following four panels. 
+	 *  MapDisplayPanel mdp
+	 *	ListDisplayPanel ldp
+	 *	SearchFormPanel sfp
+	 *	EditButtonPanel ebp
+	 */
+	public class MapPanel extends JPanel {
+		private MapDisplayPanel mdp;
+		private ListDisplayPanel ldp;
+		private SearchFormPanel sfp;
+		private EditButtonPanel ebp;
+		
+		/**
+		 * The constructor initialize all the panels inside the MapPanel
+		 */
+		public MapPanel() {
+			super(new GridBagLayout());
+			GridBagConstraints c = new GridBagConstraints();
+			// Inserting MapDisplayPanel
+			c.gridx = 0;
+			c.gridy = 0;
+			c.weightx = 0.50;
+			c.weighty = 0.50;
+			c.ipadx = 50;
+			c.ipady = 50;
+			mdp = new MapDisplayPanel();
+			this.add(mdp, c);
+			// Inserting ListDisplayPanel
+			c.gridx = 1;
+			c.gridy = 0;
+			c.weightx = 0.50;
+			c.weighty = 0.50;
+			c.ipadx = 0;
+			c.ipady = 0;
+			ldp = new ListDisplayPanel();
+			this.add(ldp, c);
+			// Inserting SearchFormPanel
+			c.gridx = 0;
+			c.gridy = 1;
+			c.weightx = 0.50;
+			c.weighty = 0.50;
+			c.ipadx = 50;
+			c.ipady = 50;
+			sfp = new SearchFormPanel();
+			this.add(sfp, c);
+			// Inserting EditButtonPanel
+			c.gridx = 1;
+			c.gridy = 1;
+			c.weightx = 0.50;
+			c.weighty = 0.50;
+			c.ipadx = 50;
+			c.ipady = 50;
+			ebp = new EditButtonPanel();
+			this.add(ebp, c);
+		}
+		
+		/**
+		 * MapDisplayPanel displays map of cities and their links. The cities and roads are kept in
+		 * quadtrees by the area they are painted on, so drawing a part of the map only visits the
+		 * cities and roads inside it.
+		 * The map is zoomed with the mouse wheel and moved by dragging it. Zoom level z shows the
+		 * map 2^z times as large as level 0, which fits the panel. The roads and the cities are
+		 * drawn into the tiles of a TilePyramid, in a layer each, and every repaint copies the
+		 * tiles it covers. Only the route lines are drawn on each repaint, between the two layers
+		 * so the cities stay above them. Until a tile is drawn, the part of a drawn tile of a
+		 * lower zoom level that covers it is shown instead.
+		 * Lower zoom levels leave out detail, so a tile takes about as long to draw at every level:
+		 * level 0 shows the interstates and the LOD_CITIES most populous cities, level 1 adds the
+		 * highways and tollways, level 2 every road, and each level shows four times as many cities
+		 * as the level below, up to every city at MAX_ZOOM.
+		 * The tiles are drawn again when the edit count of the map changes.
+		 * circleLabels - quadtree of CircleLabel components by the area of the circle and its label
+		 * roads - quadtree of RoadLine components by the area of the line and its stroke
+		 * routeLines - RoadLine components of the routes that are shown, painted above the roads
+		 * cityZooms - lowest zoom level each city is shown at
+		 * tiles - tiles of the roads and the cities at every zoom level
+		 * layerEdits - edit count of the map the cities and roads were taken from
+		 * zoom - current zoom level
+		 * originX, originY - position of the top left corner of the panel on the current zoom
+		 * 		level, in pixels
+		 * dragX, dragY - position of the mouse when the map was last dragged
+		 */
+		public class MapDisplayPanel extends JPanel {
+			private static final int MAX_STROKE = 5;
+			private static final int MAX_ZOOM = 4;
+			private static final int LOD_CITIES = 5;
+			private static final int TILE_CAPACITY = 64;
+			private static final int ROAD_LAYER = 0;
+			private static final int CITY_LAYER = 1;
+			private QuadTree<CircleLabel> circleLabels;
+			private QuadTree<RoadLine> roads;
+			private ArrayList<RoadLine> routeLines;
+			private IdentityHashMap<City, Integer> cityZooms;
+			private final TilePyramid tiles;
+			private int layerEdits;
+			private int zoom;
+			private int originX;
+			private int originY;
+			private int dragX;
+			private int dragY;
+			
+			/**
+			 * the constructor initialize the panel and displays the map and the links
+			 */
+			public MapDisplayPanel() {
+				super();
+				this.setBackground(new Color(0,128,0));
+				Dimension d = new Dimension(650, 650);
+				this.setMinimumSize(d);
+				this.setPreferredSize(d);
+				this.setMaximumSize(d);
+				routeLines = new ArrayList<RoadLine>();
+				tiles = new TilePyramid(TILE_CAPACITY, 2, this);
+				
+				this.addMouseListener(new MouseListener() {
+					public void mouseClicked(MouseEvent e) {
+						// only the cities whose circle can hold the click are looked at
+						double scale = 1 << zoom;
+						double half = CITY_SIZE/2.0;
+						double x = (e.getX()+originX)/scale;
+						double y = (e.getY()+originY)/scale;
+						Coordinate click = Place.fromMapLocal(x-half, y-half);
+						Coordinate corner = Place.fromMapLocal(x-half+half/scale, y-half+half/scale);
+						double radius = Math.hypot(click.getX()-corner.getX(), click.getY()-corner.getY());
+						for (City c : currentMap.citiesWithin(click, radius)) {
+							Integer shown = cityZooms.get(c);
+							if (shown == null || shown > zoom) {
+								continue;
+							}
+							double dx = e.getX()-((c.getMapLoc().getX()+half)*scale-originX);
+							double dy = e.getY()-((c.getMapLoc().getY()+half)*scale-originY);
+							if (dx*dx+dy*dy <= half*half) {
+								placeSelected(c);
+								return;
+							}
+						}
+						selectedPlaces.clear();
+						ldp.drawList();
+						System.out.println("Mouse click detected on map!");
+					}
+
+					public void mouseEntered(MouseEvent e) {
+					}
+
+					public void mouseExited(MouseEvent e) {
+					}
+
+					public void mousePressed(MouseEvent e) {
+					}
+
+					public void mouseReleased(MouseEvent e) {					
+					}
+					
+				});
+				
+				MouseAdapter navigation = new MouseAdapter() {
+					public void mousePressed(MouseEvent e) {
+						dragX = e.getX();
+						dragY = e.getY();
+					}
+					
+					public void mouseDragged(MouseEvent e) {
+						moveTo(originX-(e.getX()-dragX), originY-(e.getY()-dragY));
+						dragX = e.getX();
+						dragY = e.getY();
+					}
+					
+					public void mouseWheelMoved(MouseWheelEvent e) {
+						zoomTo(zoom-e.getWheelRotation(), e.getX(), e.getY());
+					}
+				};
+				this.addMouseListener(navigation);
+				this.addMouseMotionListener(navigation);
+				this.addMouseWheelListener(navigation);
+			}
+			/**
+			 * remove the previous route that is searched when next route is searched
+			 */
+			public void resetRoute(){
+				routeLines.clear();
+				updateUI();
+			}
+			
+			/**
+			 * changes the zoom level, keeping the point of the map under a point of the panel in place
+			 * @param level the new zoom level, it is kept between 0 and MAX_ZOOM
+			 * @param x
+			 * @param y
+			 */
+			public void zoomTo(int level, int x, int y){
+				level = Math.max(0, Math.min(MAX_ZOOM, level));
+				if (level == zoom) {
+					return;
+				}
+				double factor = Math.pow(2, level-zoom);
+				int toX = (int) Math.round((x+originX)*factor)-x;
+				int toY = (int) Math.round((y+originY)*factor)-y;
+				zoom = level;
+				moveTo(toX, toY);
+			}
+			
+			/**
+			 * moves the top left corner of the panel to a point of the current zoom level, kept so
+			 * the panel does not go past the edges of the map
+			 * @param x
+			 * @param y
+			 */
+			public void moveTo(int x, int y){
+				Dimension size = getPreferredSize();
+				originX = Math.max(0, Math.min((size.width << zoom)-getWidth(), x));
+				originY = Math.max(0, Math.min((size.height << zoom)-getHeight(), y));
+				repaint();
+			}
+
+			public void paintComponent(Graphics g) {
+				super.paintComponent(g);
+				if (layerEdits != currentMap.getEditCount()) {
+					drawCityToMap();
+				}
+				Graphics2D g2 = (Graphics2D) g;
+				Rectangle clip = g.getClipBounds();
+				if (clip == null) {
+					clip = new Rectangle(0, 0, getWidth(), getHeight());
+				}
+				paintTiles(g2, clip, ROAD_LAYER);
+				double scale = 1 << zoom;
+				AffineTransform at = new AffineTransform(scale, 0, 0, scale, -originX, -originY);
+				Rectangle2D area = new Rectangle2D.Double((clip.x+originX)/scale, (clip.y+originY)/scale, clip.width/scale, clip.height/scale);
+				for (RoadLine rd : routeLines) {
+					if (roadBounds(rd).intersects(area)) {
+						paintRoad(g2, rd, at);
+					}
+				}
+				paintTiles(g2, clip, CITY_LAYER);
+			}
+			
+			/**
+			 * copies one layer of the tiles of the current zoom level that meet the clip
+			 * @param g
+			 * @param clip
+			 * @param layer
+			 */
+			private void paintTiles(Graphics2D g, Rectangle clip, int layer){
+				Dimension size = getPreferredSize();
+				int columns = ((size.width << zoom)+TilePyramid.TILE_SIZE-1)/TilePyramid.TILE_SIZE;
+				int rows = ((size.height << zoom)+TilePyramid.TILE_SIZE-1)/TilePyramid.TILE_SIZE;
+				int firstColumn = Math.max(0, (clip.x+originX)/TilePyramid.TILE_SIZE);
+				int lastColumn = Math.min(columns-1, (clip.x+clip.width-1+originX)/TilePyramid.TILE_SIZE);
+				int firstRow = Math.max(0, (clip.y+originY)/TilePyramid.TILE_SIZE);
+				int lastRow = Math.min(rows-1, (clip.y+clip.height-1+originY)/TilePyramid.TILE_SIZE);
+				for (int row = firstRow; row <= lastRow; row++) {
+					for (int column = firstColumn; column <= lastColumn; column++) {
+						int x = column*TilePyramid.TILE_SIZE-originX;
+						int y = row*TilePyramid.TILE_SIZE-originY;
+						BufferedImage[] tile = tiles.getTile(zoom, column, row);
+						if (tile != null) {
+							g.drawImage(tile[layer], x, y, null);
+						} else {
+							paintLowerTile(g, layer, column, row, x, y);
+						}
+					}
+				}
+			}
+			
+			/**
+			 * stands in for a tile that is not drawn yet with the part of the closest drawn tile of
+			 * a lower zoom level that covers it, made larger
+			 * @param g
+			 * @param layer
+			 * @param column
+			 * @param row
+			 * @param x
+			 * @param y
+			 */
+			private void paintLowerTile(Graphics2D g, int layer, int column, int row, int x, int y){
+				for (int up = 1; up <= zoom; up++) {
+					BufferedImage[] lower = tiles.getDrawnTile(zoom-up, column >> up, row >> up);
+					if (lower != null) {
+						int part = TilePyramid.TILE_SIZE >> up;
+						int partX = (column & ((1 << up)-1))*part;
+						int partY = (row & ((1 << up)-1))*part;
+						g.drawImage(lower[layer], x, y, x+TilePyramid.TILE_SIZE, y+TilePyramid.TILE_SIZE,
+								partX, partY, partX+part, partY+part, null);
+						return;
+					}
+				}
+			}
+			
+			/**
+			 * paints a road with the color and stroke of its type
+			 * @param g
+			 * @param rd
+			 * @param at transform from the map to the graphics
+			 */
+			private void paintRoad(Graphics2D g, RoadLine rd, AffineTransform at){
+				if(rd.getRtype().equals(RoadType.INTERSTATE)){
+					g.setPaint(Color.BLUE);
+					g.setStroke(new BasicStroke(3));
+				}
+				else if(rd.getRtype().equals(RoadType.HIGHWAY)){
+					g.setPaint(Color.BLACK);
+					g.setStroke(new BasicStroke(2));
+				}
+				else if(rd.getRtype().equals(RoadType.ROUTE)){
+					g.setPaint(Color.RED);
+					g.setStroke(new BasicStroke(5));
+				}
+				else if(rd.getRtype().equals(RoadType.ALTERNATIVE)){
+					g.setPaint(Color.ORANGE);
+					g.setStroke(new BasicStroke(4));
+				}
+				else{
+					g.setPaint(new Color(192,192,192));
+					g.setStroke(new BasicStroke(1));
+				}
+				g.draw(at.createTransformedShape(rd));
+			}
+			
+			/**
+			 * paints a city circle and its label, which keep their size at every zoom level
+			 * @param g
+			 * @param cl
+			 * @param at transform from the map to the graphics
+			 */
+			private void paintCity(Graphics2D g, CircleLabel cl, AffineTransform at){
+				Point2D center = at.transform(new Point2D.Double(cl.getCenterX(), cl.getCenterY()), null);
+				double half = cl.getWidth()/2;
+				g.setPaint(new Color(255,215,0));
+				g.fill(new Ellipse2D.Double(center.getX()-half, center.getY()-half, cl.getWidth(), cl.getHeight()));
+				g.setPaint(Color.WHITE);
+				g.drawString(cl.getLabel(), (float) (center.getX()+half), (float) center.getY());
+			}
+			
+			/**
+			 * return the lowest zoom level roads of a type are shown at
+			 * @param type
+			 * @return
+			 */
+			private int roadZoom(RoadType type){
+				if(type.equals(RoadType.INTERSTATE)){
+					return 0;
+				}
+				else if(type.equals(RoadType.HIGHWAY) || type.equals(RoadType.TOLLWAY)){
+					return 1;
+				}
+				return 2;
+			}
+			
+			/**
+			 * return the area a road is painted on at zoom level 0, the line grown by half the
+			 * widest stroke, which also holds it at every higher level
+			 * @param rd
+			 * @return
+			 */
+			private Rectangle2D roadBounds(RoadLine rd){
+				Rectangle2D b = rd.getBounds2D();
+				double pad = MAX_STROKE/2.0;
+				return new Rectangle2D.Double(b.getX()-pad, b.getY()-pad, b.getWidth()+2*pad, b.getHeight()+2*pad);
+			}
+			
+			/**
+			 * return the area a city is painted on at zoom level 0, its circle and its label, which
+			 * also holds it at every higher level
+			 * @param cl
+			 * @return
+			 */
+			private Rectangle2D labelBounds(CircleLabel cl){
+				FontMetrics fm = getFontMetrics(getFont());
+				Rectangle2D label = new Rectangle2D.Double(cl.getMaxX(), cl.getCenterY()-fm.getAscent(), fm.stringWidth(cl.getLabel()), fm.getAscent()+fm.getDescent());
+				return cl.getBounds2D().createUnion(label);
+			}
+			
+			/**
+			 * this method draws the route on the map with red lines 
+			 * @param p ArrayList of the places for the route
+			 */
+			protected void drawRoute(ArrayList<Place> p){
+				drawRoute(p, RoadType.ROUTE);
+			}
+			
+			/**
+			 * this method draws every route but the first, which is the best route, on the map
+			 * with orange lines
+			 * @param routes the best route and its alternatives
+			 */
+			protected void drawAlternatives(List<RouteResult> routes){
+				for(int i=1;i<routes.size();i++){
+					drawRoute(routes.get(i).getPlaces(), RoadType.ALTERNATIVE);
+				}
+			}
+			
+			/**
+			 * this method draws a route on the map with lines of the given type
+			 * @param p the places for the route
+			 * @param type ROUTE for the best route or ALTERNATIVE for an alternative route
+			 */
+			private void drawRoute(List<Place> p, RoadType type){
+				// get the route to be drawn
+				List<Place> drawRoute = p;
+				// get hash map of cities 
+				HashMap<String,City> cities = currentMap.getCities();
+				// if route is longer than one add the road lines to the list of roads to be drawn
+				if(drawRoute.size()>1){
+					City from = cities.get(drawRoute.get(0).getName());
+					City to = from;
+					for(int i=1;i<drawRoute.size();i++){
+						from = to;
+						to = cities.get(drawRoute.get(i).getName());
+						mp.mdp.routeLines.add(new RoadLine(type,from.getMapLoc().getX()+(CITY_SIZE/2),from.getMapLoc().getY()+(CITY_SIZE/2),to.getMapLoc().getX()+(CITY_SIZE/2),to.getMapLoc().getY()+(CITY_SIZE/2)));
+					}
+				}
+				this.updateUI();
+			}
+			
+			/**
+			 * Draw cities and their roads on the map
+			 */
+			private void drawCityToMap(){
+				Rectangle area = new Rectangle(getPreferredSize());
+				circleLabels = new QuadTree<CircleLabel>(area);
+				roads = new QuadTree<RoadLine>(area);
+				cityZooms = new IdentityHashMap<City, Integer>();
+				layerEdits = currentMap.getEditCount();
+				ArrayList<Link> links;
+				Iterator<City> i = currentMap.getPopTree().iterator();
+				int x;
+				int y;
+				City temp;
+				Point location;
+				// the tree is in order of population, so the rank of a city gives its zoom level
+				int rank = 0;
+				int level = 0;
+				long shown = LOD_CITIES;
+				for (City c : currentMap.getPopTree()) {
+					temp = i.next();
+					while (rank >= shown && level < MAX_ZOOM) {
+						level++;
+						shown *= 4;
+					}
+					cityZooms.put(temp, level);
+					rank++;
+					location = temp.getMapLoc();
+					x = (int)location.getX();
+					y = (int)location.getY();
+					CircleLabel cl = new CircleLabel(temp.getName(), x, y, CITY_SIZE, c);
+					circleLabels.insert(cl, labelBounds(cl));
+					links = temp.getNeighbors();
+					for(int t=0;t<links.size();t++){
+						RoadLine rd = new RoadLine(links.get(t).getRoadType(),
+								location.getX()+(CITY_SIZE/2),
+								location.getY()+(CITY_SIZE/2), 
+								links.get(t).getPlace().getMapLoc().getX()+(CITY_SIZE/2), 
+								links.get(t).getPlace().getMapLoc().getY()+(CITY_SIZE/2));
+						roads.insert(rd, roadBounds(rd));
+					}
+				}
+				// the tiles are drawn on another thread from what the map is now
+				final QuadTree<RoadLine> tileRoads = roads;
+				final QuadTree<CircleLabel> tileCities = circleLabels;
+				final IdentityHashMap<City, Integer> tileZooms = cityZooms;
+				final Font font = getFont();
+				// the text of the labels is drawn with the same hints as on the screen
+				final java.util.Map<?,?> hints = (java.util.Map<?,?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+				tiles.setPainter(new TilePyramid.Painter() {
+					public void paintTile(Graphics2D g, int layer, int level, int column, int row) {
+						double scale = 1 << level;
+						AffineTransform at = new AffineTransform(scale, 0, 0, scale, -column*TilePyramid.TILE_SIZE, -row*TilePyramid.TILE_SIZE);
+						double side = TilePyramid.TILE_SIZE/scale;
+						Rectangle2D tile = new Rectangle2D.Double(column*side, row*side, side, side);
+						if (layer == ROAD_LAYER) {
+							for (RoadLine rd : tileRoads.query(tile)) {
+								if (roadZoom(rd.getRtype()) <= level) {
+									paintRoad(g, rd, at);
+								}
+							}
+						} else {
+							g.setFont(font);
+							if (hints != null) {
+								g.addRenderingHints(hints);
+							}
+							for (CircleLabel cl : tileCities.query(tile)) {
+								if (tileZooms.get(cl.getCity()) <= level) {
+									paintCity(g, cl, at);
+								}
+							}
+						}
+					}
+				});
+				repaint();
+			}
+	
+			/**
+			 * This class represents the lines of roads to be drawn 
+			 * type - type of the road to be drawn
+			 */
+			public class RoadLine extends Line2D.Double{
+				private final RoadType type;
+				
+				public RoadLine(RoadType type,double w,double x,double y,double z){
+					super(w,x,y,z);
+					this.type = type;
+				}
+				
+				/**
+				 * Returns the type of the road
+				 * @return the road type
+				 */
+				public RoadType getRtype(){
+					return type;
+				}
+			}
+			/**
+			 * This class helps to display the location of cities and their names
+			 * name - name of the city
+			 * city - city to be drawn 
+			 */
+			public class CircleLabel extends Ellipse2D.Double {
+				private final String name;
+				private final City city;
+				
+				/**
+				 * 
+				 * @param name
+				 *            name of the city to be written
+				 * @param x
+				 *            x coordinate of the center point of the city
+				 * @param y
+				 *            y coordinate of the center point of the city
+				 * @param size
+				 *            size of the circle to represent the city
+				 * @param city
+				 *            city to be drawn
+				 */
+				public CircleLabel (String name, int x, int y, int size, City city) {
+					super(x, y, size,size);
+					this.name = name;
+					this.city = city;
+				}
+				/**
+				 * return the name of the string to be labeled
+				 * @return
+				 */
+				public String getLabel() {
+					return name;
+				}
+				/**
+				 * return the city to be drawn
+				 * @return
+				 */
+				public City getCity() {
+					return city;
+				}
+			}
+		}
+		/**
+		 * ListDisplacePanel is an inner class of MapFrame class
+		 * This class is a panel to show the list of Cities, POIs, information about the Places, and the route searched. 
+		 * txt - Text field of information to be displayed
+		 * back - Button that goes back to the list of cities
+		 * list - the list that displays the information, the points of interest of a city and the route
+		 * cityRows - the list of cities, which only draws the rows that can be seen, so it takes as
+		 * 		long to show a hundred thousand cities as ten
+		 * cityModel - the cities of cityRows, in the order that is selected
+		 * sp - the scroll pane that shows either list or cityRows
+		 * orderOptions - a small panel with radio buttons to choose the ordering
+		 * orders - The group of radio buttons
+		 * alp - Buttons in alphabetical order
+		 * pop - Buttons by order of population
+		 * rat - Buttons by order of ratings
+		 */
+		public class ListDisplayPanel extends JPanel{
+			private final InfoArea txt;
+			private final BackButton back;
+			private final JPanel list;
+			private final JList<Place> cityRows;
+			private final PlaceListModel cityModel;
+			private final JScrollPane sp;
+			private final JPanel orderOptions;
+			private final ButtonGroup orders;
+			private final JRadioButton alp;
+			private final JRadioButton pop;
+			private final JRadioButton rat;
+			
+			
+			/**
+			 * The constructor initialize the variables and displays the list panel with the list of cities.
+			 */
+			public ListDisplayPanel() {//there is going to be parameter of some data structure of cities.
+				super();
+				Dimension d = new Dimension(250, 650);
+				this.setMinimumSize(d);
+				this.setPreferredSize(d);
+				this.setMaximumSize(d);
+				 
+				txt = new InfoArea();
+				this.setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+				back = new BackButton();
+
+				// Initialize List Panel
+				list = new JPanel();
+				list.setLayout(new BoxLayout(list, BoxLayout.Y_AXIS));
+				// Initialize the list of cities, every row has the size of a PlaceButton so no row
+				// has to be measured
+				cityModel = new PlaceListModel();
+				cityRows = new JList<Place>(cityModel);
+				Dimension cell = new PlaceButton("", null).getPreferredSize();
+				cityRows.setFixedCellWidth(cell.width);
+				cityRows.setFixedCellHeight(cell.height);
+				cityRows.setCellRenderer(new PlaceRenderer());
+				cityRows.addMouseListener(new MouseAdapter() {
+					public void mouseClicked(MouseEvent e) {
+						int index = cityRows.locationToIndex(e.getPoint());
+						if (index != -1 && cityRows.getCellBounds(index, index).contains(e.getPoint())) {
+							choosePlace(cityModel.getElementAt(index));
+						}
+					}
+				});
+				// Create a Scroll Pane for the list and set the scrollbar to enable as needed.
+				sp = new JScrollPane(list, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED, JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+				sp.setMinimumSize(new Dimension(250, 630));
+				sp.setPreferredSize(d);
+				sp.getVerticalScrollBar().setUnitIncrement(16); // Make scrolling faster
+				this.add(sp);
+				
+				// Create gap to place options at the bottom.
+				this.add(Box.createVerticalGlue());
+				
+				// Initialize radio buttons
+				orderOptions = new JPanel();
+				orderOptions.setLayout(new BoxLayout(orderOptions, BoxLayout.X_AXIS));
+				orders = new ButtonGroup();
+				ActionListener rbl = new ActionListener() {
+					public void actionPerformed(ActionEvent e) {
+						// This is the listener that tells the panel to redraw the list
+						drawList();
+					}
+				};
+				alp = new JRadioButton("Alphabetical");
+				alp.addActionListener(rbl);
+				pop = new JRadioButton("Population");
+				pop.addActionListener(rbl);
+				rat = new JRadioButton("Rating");
+				rat.addActionListener(rbl);
+				// Adding to the panel
+				orderOptions.add(alp);
+				orderOptions.add(pop);
+				orderOptions.add(rat);
+				// Adding to the ButtonGroup
+				orders.add(alp);
+				orders.add(pop);
+				orders.add(rat);
+				alp.setSelected(true);
+				
+				this.add(orderOptions);
+				
+				drawList();
+			}
+			/**
+			 * This method empties the list field and changes what needs to be drawn next.
+			 */
+			private void drawList() {
+				list.removeAll();
+				if (selectedPlaces.isEmpty()) {
+					cityModel.setPlaces(getCityList());
+					sp.setViewportView(cityRows);
+				} else if (selectedPlaces.peek() instanceof City) {
+					sp.setViewportView(list);
+					City c = (City) selectedPlaces.peek();
+					txt.setPlace(c);
+					list.add(txt);
+					for (POI p : getPOIList(c)) {
+						list.add(new PlaceButton(p.getName(), p));
+					}
+					list.add(back);
+				} else {
+					sp.setViewportView(list);
+					POI poi = (POI) selectedPlaces.pop();
+					City c = (City) selectedPlaces.peek();
+					selectedPlaces.push(poi);
+					txt.setPlace(poi);
+					list.add(txt);
+					for (POI p : getPOIList(c)) {
+						list.add(new PlaceButton(p.getName(), p));
+					}
+					list.add(back);
+				}
+				orderOptions.setVisible(true);
+				updateUI();
+			}
+			/**
+			 * This method prints out the route in the text area.
+			 * @param r ArrayList of places that needs to be visited for the route
+			 */
+			private void drawRouteList(ArrayList<Place> r) {
+				list.removeAll();
+				sp.setViewportView(list);
+				txt.setRoute(r);
+				list.add(txt);
+				orderOptions.setVisible(false);
+				updateUI();
+			}
+			/**
+			 * return the group of buttons of city list based on the order selected
+			 * @return
+			 */
+			public ArrayList<City> getCityList() {
+				// Gets the list in the selected order
+				if (orders.getSelection().equals(alp.getModel())) {
+					return currentMap.getAlpCityList();
+				} else if (orders.getSelection().equals(rat.getModel())) {
+					return currentMap.getRatCityList();
+				} else {
+					return currentMap.getPopCityList();
+				}
+			}
+			/**
+			 * return the group of buttons of POI either by alphabetical or by their ratings
+			 * @param c
+			 * @return
+			 */
+			public ArrayList<POI> getPOIList(City c) {
+				// Gets the list in the selected order
+				if (orders.getSelection().equals(alp.getModel())) {
+					return c.getAlpPOITree().toArrayList();
+				} else {
+					return c.getRatPOITree().toArrayList();
+				}
+			}
+
+			/**
+			 * InfoArea class represents the text area that displays the
+			 * information about the place or the route that is searched by an
+			 * user.
+			 */
+			public class InfoArea extends JTextArea {
+				
+				/**
+				 * The constructor initialize the text area of the information
+				 */
+				public InfoArea() {
+					super();
+					Dimension d = new Dimension(247, 300);
+					this.setMinimumSize(new Dimension(230, 300));
+					this.setPreferredSize(d);
+					this.setMaximumSize(d);
+					this.setEditable(false);
+					this.setAlignmentX(CENTER_ALIGNMENT);
+				}
+
+				/**
+				 * This method sets the text area with the information of place
+				 * that is given as parameter.
+				 * 
+				 * @param p
+				 *            place to show the information
+				 */
+				public void setPlace(Place p) {
+					setText(null);
+					append(p.getName() + '\n');
+					append("Rating: " + p.getRating() + " / 5.0\n");
+					if (p instanceof City) {
+						append("Population: " + ((City) p).getPopulation());
+					} else {
+						append("Type: " + ((POI) p).getType() + '\n');
+						append("Estimated Cost: " + ((POI) p).getCost());
+					}					
+				}
+
+				/**
+				 * This method sets the text area with the route that is
+				 * searched by an user.
+				 * 
+				 * @param r
+				 */
+				public void setRoute(ArrayList<Place> r) {
+					setText(null);
+					int i = 0;
+					append((i+1) + ". Start from: " + r.get(i).getName() + '\n');
+					for (i++;i<r.size()-1;i++) {
+						append((i+1) + ". Go to: " + r.get(i).getName() + '\n');
+					}
+					append((i+1) + ". You will then arrive at: " + r.get(i).getName());
+				}
+			}
+			/**
+			 * This method selects a place that is chosen from the list.
+			 * @param p place that is chosen
+			 */
+			private void choosePlace(Place p) {
+				if (!selectedPlaces.isEmpty() && selectedPlaces.peek() instanceof POI) {
+					selectedPlaces.pop();
+				} else {
+					if (pop.isSelected()) alp.setSelected(true);
+					pop.setEnabled(false);
+				}
+				placeSelected(p);
+			}
+			/**
+			 * PlaceListModel is the model of the list of cities. It only hands out the places of
+			 * the rows that are drawn, and changing the order only swaps the sorted list it reads.
+			 * places - the places in the order they are listed
+			 */
+			public class PlaceListModel extends AbstractListModel<Place> {
+				private List<? extends Place> places;
+				
+				/**
+				 * The constructor initialize an empty model.
+				 */
+				public PlaceListModel() {
+					super();
+					places = new ArrayList<Place>();
+				}
+				
+				/**
+				 * This method swaps the places that are listed.
+				 * @param list places in the order they are listed
+				 */
+				public void setPlaces(List<? extends Place> list) {
+					int old = places.size();
+					if (old > 0) {
+						// the listeners read the size when they hear of the removal, so the rows
+						// must already be gone
+						places = new ArrayList<Place>();
+						fireIntervalRemoved(this, 0, old - 1);
+					}
+					places = list;
+					if (!places.isEmpty()) {
+						fireIntervalAdded(this, 0, places.size() - 1);
+					}
+				}
+				
+				public int getSize() {
+					return places.size();
+				}
+				
+				public Place getElementAt(int index) {
+					return places.get(index);
+				}
+			}
+			/**
+			 * PlaceRenderer draws a row of the list of cities as a PlaceButton would look. The
+			 * same button is used for every row.
+			 */
+			public class PlaceRenderer extends JButton implements ListCellRenderer<Place> {
+				
+				/**
+				 * The constructor initialize the button that draws the rows.
+				 */
+				public PlaceRenderer() {
+					super();
+				}
+				
+				public Component getListCellRendererComponent(JList<? extends Place> rows, Place value, int index, boolean isSelected, boolean cellHasFocus) {
+					setText(value.getName());
+					return this;
+				}
+			}
+			/**
+			 * PlaceButton class represents the buttons for the places.
+			 * 
+			 * p - place that represents that button
+			 */
+			public class PlaceButton extends JButton {
+				private final Place p;
+				
+				/**
+				 * The constructor initialize the button for the place.
+				 * 
+				 * @param s
+				 *            name of the button in String
+				 * @param place
+				 *            place that represents the button
+				 */
+				public PlaceButton(String s, Place place) {
+					super(s);
+					Dimension d = new Dimension(247, 50);
+					this.setMinimumSize(new Dimension(230, 50));
+					this.setPreferredSize(d);
+					this.setMaximumSize(d);
+					this.setAlignmentX(CENTER_ALIGNMENT);
+					
+					p = place;
+					
+					this.addActionListener(new ActionListener() {
+						public void actionPerformed(ActionEvent e) {
+							choosePlace(p);
+						}
+					});
+				}
+
+				/**
+				 * return the place for the button
+				 * @return
+				 */
+				public Place getPlace() {
+					return p;
+				}
+			}
+			/**
+			 * BackButton class represents the button that goes back to the list of the cities 
+			 */
+			public class BackButton extends JButton {
+				/**
+				 * The contstructor initialize the back button
+				 */
+				public BackButton() {
+					super("Back");
+					Dimension d = new Dimension(247, 50);
+					this.setMinimumSize(new Dimension(230, 50));
+//					this.setPreferredSize(d);
+					this.setMaximumSize(d);
+					this.setAlignmentX(CENTER_ALIGNMENT);
+					
+					this.addActionListener(new ActionListener() {
+						public void actionPerformed(ActionEvent arg0) {
+							selectedPlaces.clear();
+							pop.setEnabled(true);
+							drawList();
+						}
+					});
+				}
+			}
+		}
+		
+		/**
+		 * SearchFormPanel is an inner class of MapFrame class
+		 * This class is a panel to with options for selecting from, to places, cost 
+		 * functions, finding routes and resetting the form and the UI.
+		 * from - A label + text field for from
+		 * to - A label + text field for to
+		 * lockFrom - A check box to lock from in run time
+		 * lockTo - A check box to lock to in run time
+		 * options - the ButtonGroup for time and distance buttons
+		 * time - RadioButton to select time as the cost function
+		 * distance - RadioButton to select distance as the cost function
+		 * progress - bar that shows the stage of the search while a route is found
+		 * pending - the route search that is running, null if there is none
+		 * searches - number of route searches started or cancelled, the answer of a search that
+		 * 		is no longer the last one is ignored
+		 * Routes are found on a background thread of the map, so the window keeps responding while
+		 * a search runs. Changing the from or to field or resetting the form cancels the search,
+		 * and the routes are drawn on the event thread when the search is done.
+		 */
+		public class SearchFormPanel extends JPanel {
+			
+			private JTextField from;
+			private JTextField to;
+			private JCheckBox lockFrom;
+			private JCheckBox lockTo;
+			private ButtonGroup options;
+			private JRadioButton time;
+			private JRadioButton distance;
+			private JProgressBar progress;
+			private CompletableFuture<ArrayList<RouteResult>> pending;
+			private int searches;
+			
+			public SearchFormPanel() {
+				super();
+				GroupLayout sl = new GroupLayout(this);
+				
+				// Some configuration of the GroupLayout
+				this.setLayout(sl);
+				sl.setAutoCreateGaps(true);
+				sl.setAutoCreateContainerGaps(true);
+				
+				Dimension d = new Dimension(650, 80);
+				this.setMinimumSize(d);
+				this.setPreferredSize(d);
+				this.setMaximumSize(d);
+				
+				// Start initializing screen elements
+				JLabel fromLabel = new JLabel("From: ");
+				JLabel toLabel = new JLabel("To: ");
+				from = new JTextField() {
+					// Override this method because if it is not enabled we don't want to change text;
+					public void setText(String t) {
+						if (this.isEnabled()) {
+							super.setText(t);
+						}
+					}
+				};
+				
+				// To is disabled until from is locked.
+				to = new JTextField() {
+					// Override this method because if it is not enabled we don't want to change text;
+					public void setText(String t) {
+						if (this.isEnabled()) {
+							super.setText(t);
+						}
+					}
+				};
+				to.setEnabled(false);
+				
+				// New endpoints make the route that is being found useless
+				DocumentListener endpointsChanged = new DocumentListener() {
+					public void insertUpdate(DocumentEvent e) {
+						cancelRoute();
+					}
+					
+					public void removeUpdate(DocumentEvent e) {
+						cancelRoute();
+					}
+					
+					public void changedUpdate(DocumentEvent e) {
+						cancelRoute();
+					}
+				};
+				from.getDocument().addDocumentListener(endpointsChanged);
+				to.getDocument().addDocumentListener(endpointsChanged);
+				
+				progress = new JProgressBar(0, 100);
+				progress.setStringPainted(true);
+				progress.setVisible(false);
+				
+				lockFrom = new JCheckBox("lock this selection");
+				lockFrom.addItemListener(new ItemListener() {
+					public void itemStateChanged(ItemEvent e) {
+						if (e.getStateChange() == ItemEvent.SELECTED) {
+							// Lock From field
+							from.setEnabled(false);
+							
+							// Enable changing of To field
+							to.setEnabled(true);
+							lockTo.setEnabled(true);
+						} else {
+							// Unlock From field
+							from.setEnabled(true);
+							
+							// Disable To field
+							to.setEnabled(false);
+							lockTo.setEnabled(false);
+						}
+					}
+				});
+				
+				// To is disabled until from is locked.
+				lockTo = new JCheckBox("lock this selection");
+				lockTo.addItemListener(new ItemListener() {
+					public void itemStateChanged(ItemEvent e) {
+						if (e.getStateChange() == ItemEvent.SELECTED) {
+							// Lock To field
+							to.setEnabled(false);
+						} else {
+							// Unlock To field
+							to.setEnabled(true);
+						}
+					}
+				});
+				lockTo.setEnabled(false);
+				
+				// Radio buttons belong to a ButtonGroup
+				options = new ButtonGroup();
+				time = new JRadioButton("time");
+				time.setSelected(true);
+				distance = new JRadioButton("distance");
+				options.add(time);
+				options.add(distance);
+				
+				JButton findRoute = new JButton("Find Route");
+				findRoute.addActionListener(new ActionListener() {
+					public void actionPerformed(ActionEvent arg0) {
+						Place fromP = currentMap.getPlaces().get(from.getText());
+						Place toP = currentMap.getPlaces().get(to.getText());
+						if (fromP == null) {
+							JOptionPane.showMessageDialog(MapFrame.this, "Your input for from isn't valid", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+							return;
+						}
+						if (toP == null) {
+							JOptionPane.showMessageDialog(MapFrame.this, "Your input for to isn't valid", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+							return;
+						}
+						findRoute(fromP, toP, Metric.fromString(time.isSelected() ? "time" : "distance"));
+					}
+				});
+				JButton reset = new JButton("Reset");
+				reset.addActionListener(new ActionListener() {
+					public void actionPerformed(ActionEvent arg0) {
+						reset();
+					}
+				});
+				
+				// Start adding elements, too complicated to actually explain what's going on here
+				// Basically, we describe the relative locations of each item both horizontally and vertically.
+				// For more information, please consult the documentation of GroupLayout.
+				sl.setHorizontalGroup(
+						sl.createParallelGroup(GroupLayout.Alignment.LEADING)
+							.addGroup(sl.createSequentialGroup()
+								.addGroup(sl.createParallelGroup(GroupLayout.Alignment.LEADING)
+										.addComponent(fromLabel)
+										.addComponent(toLabel)
+										)
+								.addGroup(sl.createParallelGroup(GroupLayout.Alignment.LEADING)
+										.addComponent(from)
+										.addComponent(to)
+										)
+								.addGroup(sl.createParallelGroup(GroupLayout.Alignment.LEADING)
+										.addComponent(lockFrom)
+										.addComponent(lockTo)
+										)
+								.addGroup(sl.createParallelGroup(GroupLayout.Alignment.LEADING)
+										.addComponent(time)
+										.addComponent(distance)
+										)
+								.addGroup(sl.createParallelGroup(GroupLayout.Alignment.LEADING, false)
+										.addComponent(findRoute, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+										.addComponent(reset, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+										)
+								)
+							.addComponent(progress, GroupLayout.DEFAULT_SIZE, GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+						);
+				
+				sl.setVerticalGroup(
+						sl.createSequentialGroup()
+							.addGroup(sl.createParallelGroup(GroupLayout.Alignment.CENTER)
+									.addComponent(fromLabel)
+									.addComponent(from)
+									.addComponent(lockFrom)
+									.addGroup(sl.createSequentialGroup()
+											.addComponent(time)
+											)
+									.addComponent(findRoute)
+									)
+							.addGroup(sl.createParallelGroup(GroupLayout.Alignment.CENTER)
+									.addComponent(toLabel)
+									.addComponent(to)
+									.addComponent(lockTo)
+									.addGroup(sl.createSequentialGroup()
+											.addComponent(distance)
+											)
+									.addComponent(reset)
+									)
+							.addComponent(progress)
+							
+							
+						);
+			}
+			
+			/**
+			 * starts finding the best route and its alternatives in the background, cancelling the
+			 * search that is running
+			 * @param fromP place to start from
+			 * @param toP place to arrive at
+			 * @param m cost function of the route
+			 */
+			private void findRoute(Place fromP, Place toP, Metric m) {
+				cancelRoute();
+				final int search = searches;
+				progress.setValue(0);
+				progress.setString("Finding the route");
+				progress.setVisible(true);
+				pending = currentMap.routeAsync(fromP, toP, m, ALTERNATIVE_COUNT + 1, MAX_OVERLAP, new RouteProgress() {
+					public void stageStarted(final String stage, final int percent) {
+						SwingUtilities.invokeLater(new Runnable() {
+							public void run() {
+								if (search == searches) {
+									progress.setValue(percent);
+									progress.setString(stage);
+								}
+							}
+						});
+					}
+				});
+				pending.whenComplete(new BiConsumer<ArrayList<RouteResult>, Throwable>() {
+					public void accept(final ArrayList<RouteResult> routes, final Throwable error) {
+						SwingUtilities.invokeLater(new Runnable() {
+							public void run() {
+								showRoutes(search, routes, error);
+							}
+						});
+					}
+				});
+			}
+			
+			/**
+			 * draws the routes a search found, on the event thread
+			 * @param search number of the search
+			 * @param routes the best route followed by its alternatives, null if the search failed
+			 * @param error what made the search fail, null if it did not
+			 */
+			private void showRoutes(int search, ArrayList<RouteResult> routes, Throwable error) {
+				if (search != searches) {
+					// the search was cancelled or a newer one was started
+					return;
+				}
+				pending = null;
+				progress.setVisible(false);
+				if (error != null) {
+					JOptionPane.showMessageDialog(MapFrame.this, "The route could not be found: " + error.getMessage(), "Search Failed", JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+				if (!routes.get(0).isFound()) {
+					JOptionPane.showMessageDialog(MapFrame.this, "There is no route between these places", "No Route Found", JOptionPane.ERROR_MESSAGE);
+					return;
+				}
+				ArrayList<Place> route = new ArrayList<Place>(routes.get(0).getPlaces());
+				MapPanel.this.ldp.drawRouteList(route);
+				// alternatives go below the best route so it stays on top
+				mdp.drawAlternatives(routes);
+				mdp.drawRoute(route);
+			}
+			
+			/**
+			 * cancels the route search that is running, if there is one
+			 */
+			private void cancelRoute() {
+				searches++;
+				if (pending != null) {
+					pending.cancel(false);
+					pending = null;
+				}
+				progress.setVisible(false);
+			}
+			
+			private void reset() {
+				cancelRoute();
+				// Clears the form
+				from.setEnabled(true);
+				from.setText(null);
+				lockFrom.setEnabled(true);
+				lockFrom.setSelected(false);
+				lockTo.setEnabled(false);
+				lockTo.setSelected(false);
+				to.setEnabled(true);
+				to.setText(null);
+				to.setEnabled(false);
+				time.setSelected(true);
+				
+				// Remove the routes drawn
+				MapPanel.this.mdp.resetRoute();
+				
+				// Reset selected
+				selectedPlaces.clear();
+				
+				// Reset ListDisplayPanel
+				MapPanel.this.ldp.alp.setSelected(true);
+				MapPanel.this.ldp.pop.setEnabled(true);
+				MapPanel.this.ldp.drawList();
+			}
+		}
+		
+		/**
+		 * This class contains only the edit button which will create an EditFrame.
+		 * 
+		 */
+		public class EditButtonPanel extends JPanel {
+			
+			public EditButtonPanel() {
+				super();
+				Dimension d = new Dimension(250, 80);
+				this.setMinimumSize(d);
+				this.setPreferredSize(d);
+				this.setMaximumSize(d);
+				this.setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+				
+				// Sets up the button
+				Dimension de = new Dimension(200, 64);
+				JButton edit = new JButton("Edit Selection");
+				edit.setMinimumSize(de);
+				edit.setPreferredSize(de);
+				edit.setMaximumSize(de);
+				edit.addActionListener(new ActionListener() {
+					public void actionPerformed(ActionEvent arg0) {
+						
+						if (!selectedPlaces.isEmpty()) {
+							// Creates the Edit dialogue box if there is a selected place
+							if (selectedPlaces.peek() instanceof City) {
+								new EditFrame((City) selectedPlaces.peek(), currentMap.getAlpCityList(), currentMap);
+							} else {
+								POI poi = (POI) selectedPlaces.pop();
+								City c = (City) selectedPlaces.peek();
+								selectedPlaces.push(poi);
+								new EditFrame(poi, c, currentMap);
+							}
+						} else {
+							// Or prompts the user that no place is selected.
+							JOptionPane.showMessageDialog(MapFrame.this, "Please select a place first to edit its properties", "No Place Selected", JOptionPane.ERROR_MESSAGE);
+						}
+					}
+				});
+				edit.setAlignmentX(CENTER_ALIGNMENT);
+				edit.setAlignmentY(CENTER_ALIGNMENT);
+				
+				// Adding glue to center the button
+				this.add(Box.createVerticalGlue());
+				this.add(edit);
+				this.add(Box.createVerticalGlue());
+			}
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package gui;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+
+import javax.swing.JComponent;
+
+/**
+ * TilePyramid keeps square images of a map at every zoom level, so a view can be drawn by copying
+ * the tiles it covers instead of drawing every shape. Zoom level z is 2^z times as large as level
+ * 0 and is cut into tiles of TILE_SIZE pixels, addressed by column and row. Each tile has a number
+ * of layers that are drawn separately, so a view can draw its own shapes between them.
+ * Tiles are drawn by a Painter on a background thread the first time they are asked for, and the
+ * view is repainted when a tile is ready. The tiles asked for last are drawn first, so the tiles
+ * of the current view come before those of views that were only passed through. The least
+ * recently used tiles are dropped once there are more than the capacity, and so are the oldest
+ * requests once more than the capacity are waiting. A tile whose painter throws is not kept and no
+ * longer waits, so the next paint of the view asks for it again.
+ * TILE_SIZE - width and height of a tile in pixels
+ * view - the component that is repainted when a tile is ready
+ * layers - number of layers of each tile
+ * capacity - the most tiles that are kept and the most requests that wait
+ * tiles - the drawn tiles in access order, each an array with one image per layer
+ * requested - keys of the tiles that are waiting to be drawn, the last one is drawn first
+ * waiting - the same keys as requested, for looking them up
+ * painter - draws the tiles, null until it is set
+ * generation - number of times the painter was set, tiles of an older painter are thrown away
+ * worker - the thread that draws the tiles, null until the first tile is asked for
+ */
+public class TilePyramid {
+
+	public static final int TILE_SIZE = 256;
+	private final JComponent view;
+	private final int layers;
+	private final int capacity;
+	private final LinkedHashMap<Long, BufferedImage[]> tiles;
+	private final ArrayDeque<Long> requested;
+	private final HashSet<Long> waiting;
+	private Painter painter;
+	private int generation;
+	private Thread worker;
+
+	/**
+	 * @param capacity the most tiles that are kept
+	 * @param layers number of layers of each tile
+	 * @param view the component that is repainted when a tile is ready
+	 */
+	public TilePyramid(int capacity, int layers, JComponent view) {
+		this.view = view;
+		this.layers = layers;
+		this.capacity = capacity;
+		this.tiles = new LinkedHashMap<Long, BufferedImage[]>(16, 0.75f, true) {
+			protected boolean removeEldestEntry(java.util.Map.Entry<Long, BufferedImage[]> eldest) {
+				return size() > TilePyramid.this.capacity;
+			}
+		};
+		this.requested = new ArrayDeque<Long>();
+		this.waiting = new HashSet<Long>();
+	}
+
+	/**
+	 * sets the painter that draws the tiles and drops every tile drawn so far, for when what the
+	 * tiles show has changed
+	 * @param painter
+	 */
+	public synchronized void setPainter(Painter painter) {
+		this.painter = painter;
+		generation++;
+		tiles.clear();
+		requested.clear();
+		waiting.clear();
+	}
+
+	/**
+	 * return a tile, asking for it to be drawn if it is not drawn yet
+	 * @param zoom
+	 * @param column
+	 * @param row
+	 * @return one image per layer, or null if the tile is not drawn yet
+	 */
+	public synchronized BufferedImage[] getTile(int zoom, int column, int row) {
+		Long key = key(zoom, column, row);
+		BufferedImage[] tile = tiles.get(key);
+		if (tile == null && painter != null) {
+			// a tile that is asked for again moves to the front of the queue
+			if (!waiting.add(key)) {
+				requested.remove(key);
+			}
+			requested.addLast(key);
+			if (requested.size() > capacity) {
+				waiting.remove(requested.pollFirst());
+			}
+			if (worker == null) {
+				worker = new Thread(new Runnable() {
+					public void run() {
+						drawTiles();
+					}
+				}, "map tiles");
+				worker.setDaemon(true);
+				worker.start();
+			}
+			notifyAll();
+		}
+		return tile;
+	}
+
+	/**
+	 * return a tile only if it is drawn already, without asking for it to be drawn
+	 * @param zoom
+	 * @param column
+	 * @param row
+	 * @return one image per layer, or null if the tile is not drawn
+	 */
+	public synchronized BufferedImage[] getDrawnTile(int zoom, int column, int row) {
+		return tiles.get(key(zoom, column, row));
+	}
+
+	/**
+	 * draws the requested tiles one at a time, the last requested first, for as long as the
+	 * program runs
+	 */
+	private void drawTiles() {
+		while (true) {
+			Long key;
+			Painter p;
+			int g;
+			synchronized (this) {
+				while (requested.isEmpty()) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				key = requested.pollLast();
+				p = painter;
+				g = generation;
+			}
+			int zoom = (int) (key >>> 56);
+			int column = (int) ((key >>> 28) & 0xFFFFFFF);
+			int row = (int) (key & 0xFFFFFFF);
+			BufferedImage[] tile = new BufferedImage[layers];
+			try {
+				for (int layer = 0; layer < layers; layer++) {
+					tile[layer] = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB_PRE);
+					Graphics2D g2 = tile[layer].createGraphics();
+					try {
+						p.paintTile(g2, layer, zoom, column, row);
+					} finally {
+						g2.dispose();
+					}
+				}
+			} catch (RuntimeException e) {
+				// the tile failed, it stays undrawn until it is asked for again
+				tile = null;
+			}
+			synchronized (this) {
+				// a tile of a painter that was replaced while it was drawn is thrown away, and a
+				// failed tile leaves waiting so getTile requests it again
+				if (g == generation) {
+					waiting.remove(key);
+					if (tile != null) {
+						tiles.put(key, tile);
+					}
+				}
+			}
+			// no repaint for a failed tile, which would only ask for it again at once
+			if (tile != null) {
+				view.repaint();
+			}
+		}
+	}
+
+	/**
+	 * return the key of a tile, with the zoom level in the top 8 bits and the column and row in
+	 * 28 bits each
+	 */
+	private static Long key(int zoom, int column, int row) {
+		return Long.valueOf(((long) zoom << 56) | ((long) column << 28) | row);
+	}
+
+	/**
+	 * Painter draws the layers of tiles. It is called on the thread that draws the tiles, so it
+	 * must only read shapes that are not changed once the painter is set.
+	 */
+	public interface Painter {
+
+		/**
+		 * draws one layer of a tile
+		 * @param g graphics of the layer, with the top left corner of the tile at 0,0
+		 * @param layer
+		 * @param zoom
+		 * @param column
+		 * @param row
+		 */
+		void paintTile(Graphics2D g, int layer, int zoom, int column, int row);
+	}
+}
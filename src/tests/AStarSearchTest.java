@@ -0,0 +1,47 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import backend.AStarSearch;
+import backend.City;
+import backend.CompiledGraph;
+import backend.Coordinate;
+import backend.Place;
+import backend.PlaceEstimateHeuristic;
+import utils.Metric;
+
+public class AStarSearchTest {
+
+	@Test
+	public void testSamePlace() {
+		ArrayList<City> cities = RandomGraphs.build(1, 20);
+		CompiledGraph graph = new CompiledGraph(cities);
+		AStarSearch search = new AStarSearch(graph, Metric.DISTANCE, new PlaceEstimateHeuristic(graph, Metric.DISTANCE));
+		ArrayList<Place> route = search.findRoute(cities.get(5), cities.get(5));
+		assertEquals(1, route.size());
+		assertSame(cities.get(5), route.get(0));
+	}
+
+	@Test
+	public void testUnreachable() {
+		ArrayList<City> cities = RandomGraphs.build(2, 20);
+		City alone = new City(" Alone", 10, new Coordinate(38, -98), 3.0);
+		cities.add(alone);
+		CompiledGraph graph = new CompiledGraph(cities);
+		AStarSearch search = new AStarSearch(graph, Metric.TIME, new PlaceEstimateHeuristic(graph, Metric.TIME));
+		assertTrue(search.findRoute(cities.get(0), alone).isEmpty());
+		assertTrue(search.findRoute(alone, cities.get(0)).isEmpty());
+	}
+
+	@Test
+	public void testPlaceNotOnGraph() {
+		ArrayList<City> cities = RandomGraphs.build(3, 20);
+		CompiledGraph graph = new CompiledGraph(cities.subList(0, 10));
+		AStarSearch search = new AStarSearch(graph, Metric.DISTANCE, new PlaceEstimateHeuristic(graph, Metric.DISTANCE));
+		assertTrue(search.findRoute(cities.get(0), cities.get(15)).isEmpty());
+	}
+}
@@ -0,0 +1,187 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import backend.AlternativeRouteSearch;
+import backend.City;
+import backend.CompiledGraph;
+import backend.Coordinate;
+import backend.Link;
+import backend.Place;
+import backend.RoadFilter;
+import utils.Metric;
+
+public class AlternativeRouteSearchTest {
+
+	@Test
+	public void testKShortestLooplessPaths() {
+		for (long seed = 0; seed < 20; seed++) {
+			Random random = new Random(seed);
+			ArrayList<City> cities = smallMap(random, 9, 15);
+			CompiledGraph graph = new CompiledGraph(cities);
+			for (Metric m : Metric.values()) {
+				AlternativeRouteSearch search = new AlternativeRouteSearch(graph, m);
+				City from = cities.get(0);
+				City to = cities.get(cities.size() - 1);
+				ArrayList<Double> all = new ArrayList<Double>();
+				simplePaths(from, to, m, 0.0, new IdentityHashMap<Place, Boolean>(), all);
+				Collections.sort(all);
+				int count = Math.min(5, all.size());
+				// with every overlap allowed the routes are exactly the cheapest loopless paths
+				ArrayList<ArrayList<Place>> routes = search.findRoutes(from, to, count, 1.0);
+				assertEquals(count, routes.size());
+				for (int i = 0; i < count; i++) {
+					assertLoopless(routes.get(i), from, to);
+					assertEquals(all.get(i), RandomGraphs.routeCost(routes.get(i), m, RoadFilter.NONE), RandomGraphs.EPSILON);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testOverlapLimit() {
+		for (long seed = 0; seed < 10; seed++) {
+			ArrayList<City> cities = RandomGraphs.build(seed, 80);
+			CompiledGraph graph = new CompiledGraph(cities);
+			Random random = new Random(seed);
+			AlternativeRouteSearch search = new AlternativeRouteSearch(graph, Metric.DISTANCE);
+			for (int q = 0; q < 5; q++) {
+				City from = cities.get(random.nextInt(cities.size()));
+				City to = cities.get(random.nextInt(cities.size()));
+				if (from == to) {
+					continue;
+				}
+				ArrayList<ArrayList<Place>> routes = search.findRoutes(from, to, 4, 0.6);
+				assertFalse(routes.isEmpty());
+				RandomGraphs.assertLeastCost(routes.get(0), from, to, Metric.DISTANCE, RoadFilter.NONE);
+				for (int i = 1; i < routes.size(); i++) {
+					assertLoopless(routes.get(i), from, to);
+					double cost = RandomGraphs.routeCost(routes.get(i), Metric.DISTANCE, RoadFilter.NONE);
+					assertTrue(cost < Double.POSITIVE_INFINITY);
+					for (int j = 0; j < i; j++) {
+						assertTrue(shared(routes.get(i), routes.get(j)) <= 0.6 * cost + RandomGraphs.EPSILON);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCancel() {
+		ArrayList<City> cities = RandomGraphs.build(6, 300);
+		AlternativeRouteSearch search = new AlternativeRouteSearch(new CompiledGraph(cities), Metric.TIME);
+		City from = cities.get(0);
+		City to = cities.get(299);
+		ArrayList<ArrayList<Place>> all = search.findRoutes(from, to, 5, 0.8);
+		assertTrue(search.findRoutes(from, to, 5, 0.8, new BooleanSupplier() {
+			public boolean getAsBoolean() {
+				return true;
+			}
+		}).isEmpty());
+		for (final int checks : new int[] { 1, 5, 20, 100 }) {
+			// cancelled after some checks, the routes found so far are the first of the full answer
+			ArrayList<ArrayList<Place>> some = search.findRoutes(from, to, 5, 0.8, new BooleanSupplier() {
+				private int left = checks;
+
+				public boolean getAsBoolean() {
+					return left-- <= 0;
+				}
+			});
+			assertTrue(some.size() <= all.size());
+			assertEquals(all.subList(0, some.size()), some);
+		}
+		// the search is not left cancelled
+		assertEquals(all, search.findRoutes(from, to, 5, 0.8));
+	}
+
+	@Test
+	public void testUnreachable() {
+		ArrayList<City> cities = RandomGraphs.build(3, 20);
+		City alone = new City(" Alone", 10, new Coordinate(38, -98), 3.0);
+		cities.add(alone);
+		AlternativeRouteSearch search = new AlternativeRouteSearch(new CompiledGraph(cities), Metric.TIME);
+		assertTrue(search.findRoutes(cities.get(0), alone, 3, 0.5).isEmpty());
+	}
+
+	/**
+	 * return a map of places with at most one road between any two of them, so routes with the
+	 * same places have the same cost
+	 */
+	private ArrayList<City> smallMap(Random random, int n, int roads) {
+		ArrayList<City> cities = new ArrayList<City>();
+		for (int i = 0; i < n; i++) {
+			cities.add(new City(" S" + i, 1, new Coordinate(37 + random.nextDouble() * 3, -102 + random.nextDouble() * 8), 3.0));
+		}
+		HashSet<Integer> linked = new HashSet<Integer>();
+		for (int i = 1; i < n; i++) {
+			int j = random.nextInt(i);
+			linked.add(j * n + i);
+			RandomGraphs.link(cities.get(i), cities.get(j), random, true);
+		}
+		for (int k = n - 1; k < roads; k++) {
+			int i = random.nextInt(n);
+			int j = random.nextInt(n);
+			if (i != j && linked.add(Math.min(i, j) * n + Math.max(i, j))) {
+				RandomGraphs.link(cities.get(i), cities.get(j), random, true);
+			}
+		}
+		return cities;
+	}
+
+	/**
+	 * adds the cost of every loopless path from a place to the destination
+	 */
+	private void simplePaths(Place at, Place to, Metric m, double cost, IdentityHashMap<Place, Boolean> visited, List<Double> costs) {
+		if (at == to) {
+			costs.add(cost);
+			return;
+		}
+		visited.put(at, Boolean.TRUE);
+		for (Link link : at.getNeighbors()) {
+			if (!visited.containsKey(link.getPlace())) {
+				simplePaths(link.getPlace(), to, m, cost + RandomGraphs.cost(link, m, RoadFilter.NONE), visited, costs);
+			}
+		}
+		visited.remove(at);
+	}
+
+	/**
+	 * checks that a route runs from a place to another without visiting a place twice
+	 */
+	private void assertLoopless(List<Place> route, Place from, Place to) {
+		assertSame(from, route.get(0));
+		assertSame(to, route.get(route.size() - 1));
+		IdentityHashMap<Place, Boolean> seen = new IdentityHashMap<Place, Boolean>();
+		for (Place p : route) {
+			assertNull(seen.put(p, Boolean.TRUE));
+		}
+	}
+
+	/**
+	 * return the cost of the roads of a route that the other route also uses, in either direction
+	 */
+	private double shared(List<Place> route, List<Place> other) {
+		double total = 0.0;
+		for (int i = 1; i < route.size(); i++) {
+			for (int j = 1; j < other.size(); j++) {
+				Place a = other.get(j - 1);
+				Place b = other.get(j);
+				if ((route.get(i - 1) == a && route.get(i) == b) || (route.get(i - 1) == b && route.get(i) == a)) {
+					total += RandomGraphs.routeCost(route.subList(i - 1, i + 1), Metric.DISTANCE, RoadFilter.NONE);
+					break;
+				}
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,55 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.BidirectionalSearch;
+import backend.City;
+import backend.CompiledGraph;
+import backend.Coordinate;
+import backend.Place;
+import backend.RoadFilter;
+import utils.Metric;
+
+public class BidirectionalSearchTest {
+
+	@Test
+	public void testOneWayLinks() {
+		Random random = new Random(9);
+		ArrayList<City> cities = new ArrayList<City>();
+		for (int i = 0; i < 30; i++) {
+			cities.add(new City(" W" + i, 1, new Coordinate(37 + random.nextDouble() * 3, -102 + random.nextDouble() * 8), 3.0));
+		}
+		// a one way ring with a few shortcuts across it, so the way back is a different route
+		for (int i = 0; i < 30; i++) {
+			RandomGraphs.link(cities.get(i), cities.get((i + 1) % 30), random, false);
+		}
+		for (int i = 0; i < 8; i++) {
+			RandomGraphs.link(cities.get(random.nextInt(30)), cities.get(random.nextInt(30)), random, false);
+		}
+		CompiledGraph graph = new CompiledGraph(cities);
+		BidirectionalSearch search = new BidirectionalSearch(graph, Metric.DISTANCE);
+		for (int i = 0; i < 30; i++) {
+			for (int j = 0; j < 30; j += 7) {
+				RandomGraphs.assertLeastCost(search.findRoute(cities.get(i), cities.get(j)), cities.get(i), cities.get(j),
+						Metric.DISTANCE, RoadFilter.NONE);
+			}
+		}
+	}
+
+	@Test
+	public void testUnreachable() {
+		ArrayList<City> cities = RandomGraphs.build(2, 20);
+		City alone = new City(" Alone", 10, new Coordinate(38, -98), 3.0);
+		cities.add(alone);
+		CompiledGraph graph = new CompiledGraph(cities);
+		BidirectionalSearch search = new BidirectionalSearch(graph, Metric.TIME);
+		assertTrue(search.findRoute(cities.get(3), alone).isEmpty());
+		ArrayList<Place> route = search.findRoute(alone, alone);
+		assertEquals(1, route.size());
+	}
+}
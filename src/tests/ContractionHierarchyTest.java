@@ -0,0 +1,68 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.CompiledGraph;
+import backend.ContractionHierarchy;
+import backend.ContractionHierarchyQuery;
+import backend.Coordinate;
+import backend.RoadFilter;
+import utils.Metric;
+
+public class ContractionHierarchyTest {
+
+	@Test
+	public void testParallelLinks() {
+		Random random = new Random(11);
+		ArrayList<City> cities = RandomGraphs.build(11, 40);
+		for (int i = 0; i < 20; i++) {
+			// a second road of another type between places that are linked already
+			City a = cities.get(random.nextInt(cities.size()));
+			City b = (City) a.getNeighbors().get(0).getPlace();
+			RandomGraphs.link(a, b, random, random.nextBoolean());
+		}
+		checkQueries(cities, random, 40);
+	}
+
+	@Test
+	public void testGridWithEqualCosts() {
+		// every row and column has the same length, so many routes tie
+		int side = 12;
+		Random random = new Random(5);
+		ArrayList<City> cities = new ArrayList<City>();
+		for (int i = 0; i < side * side; i++) {
+			cities.add(new City(" G" + i, 1, new Coordinate(38 + (i / side) * 0.05, -98 + (i % side) * 0.05), 3.0));
+		}
+		for (int i = 0; i < side * side; i++) {
+			if (i % side + 1 < side) {
+				RandomGraphs.link(cities.get(i), cities.get(i + 1), random, true);
+			}
+			if (i + side < side * side) {
+				RandomGraphs.link(cities.get(i), cities.get(i + side), random, true);
+			}
+		}
+		checkQueries(cities, random, 60);
+	}
+
+	/**
+	 * checks routes and costs of a hierarchy of every metric between random places
+	 */
+	private void checkQueries(ArrayList<City> cities, Random random, int count) {
+		CompiledGraph graph = new CompiledGraph(cities);
+		for (Metric m : Metric.values()) {
+			ContractionHierarchyQuery query = new ContractionHierarchy(graph, m).newQuery();
+			for (int i = 0; i < count; i++) {
+				City from = cities.get(random.nextInt(cities.size()));
+				City to = cities.get(random.nextInt(cities.size()));
+				RandomGraphs.assertLeastCost(query.findRoute(from, to), from, to, m, RoadFilter.NONE);
+				assertEquals(RandomGraphs.dijkstra(from, to, m, RoadFilter.NONE), query.findCost(from, to), RandomGraphs.EPSILON);
+			}
+		}
+	}
+}
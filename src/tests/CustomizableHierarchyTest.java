@@ -0,0 +1,44 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.CompiledGraph;
+import backend.CustomizableHierarchy;
+import backend.CustomizableHierarchyQuery;
+import backend.RoadFilter;
+import utils.Metric;
+
+public class CustomizableHierarchyTest {
+
+	@Test
+	public void testParallelLinks() {
+		ArrayList<City> cities = RandomGraphs.build(4, 30);
+		Random random = new Random(4);
+		// a second road of another type between places that are already linked
+		for (int i = 1; i < cities.size(); i += 3) {
+			RandomGraphs.link(cities.get(i), cities.get(i).getNeighbors().get(0).getPlace(), random, random.nextBoolean());
+		}
+		CompiledGraph graph = new CompiledGraph(cities);
+		CustomizableHierarchy hierarchy = new CustomizableHierarchy(graph);
+		for (Metric m : Metric.values()) {
+			CustomizableHierarchyQuery query = hierarchy.customize(graph, m).newQuery();
+			for (City from : cities) {
+				for (City to : cities) {
+					RandomGraphs.assertLeastCost(query.findRoute(from, to), from, to, m, RoadFilter.NONE);
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOtherGraph() {
+		CustomizableHierarchy hierarchy = new CustomizableHierarchy(new CompiledGraph(RandomGraphs.build(1, 10)));
+		hierarchy.customize(new CompiledGraph(RandomGraphs.build(2, 10)), Metric.TIME);
+	}
+}
@@ -0,0 +1,95 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.CachedEstimates;
+import backend.City;
+import backend.EstimateProvider;
+import backend.Map;
+import backend.Place;
+import backend.RoadFilter;
+import backend.StraightLineEstimates;
+import utils.Metric;
+import utils.RouteAlgorithm;
+
+public class EstimateProviderTest {
+
+	@Test
+	public void testCacheKeepsTheRecentEstimates() {
+		ArrayList<City> cities = RandomGraphs.build(1, 10);
+		CountingEstimates counting = new CountingEstimates();
+		CachedEstimates cached = new CachedEstimates(counting, 4);
+		StraightLineEstimates straight = new StraightLineEstimates();
+		for (int i = 0; i < 4; i++) {
+			assertEquals(straight.getDEst(cities.get(0), cities.get(i)), cached.getDEst(cities.get(0), cities.get(i)), 0.0);
+			assertEquals(straight.getTEst(cities.get(0), cities.get(i)), cached.getTEst(cities.get(0), cities.get(i)), 0.0);
+		}
+		assertEquals(8, counting.calls);
+		for (int i = 0; i < 4; i++) {
+			cached.getDEst(cities.get(0), cities.get(i));
+			cached.getTEst(cities.get(0), cities.get(i));
+		}
+		assertEquals(8, counting.calls);
+		// a fifth pair drops the least recently used one, which has to be computed again
+		cached.getDEst(cities.get(0), cities.get(4));
+		cached.getDEst(cities.get(0), cities.get(0));
+		assertEquals(10, counting.calls);
+		cached.getDEst(cities.get(4), cities.get(0));
+		assertEquals(11, counting.calls);
+	}
+
+	@Test
+	public void testEveryMapHasItsOwnProvider() {
+		ArrayList<City> cities = RandomGraphs.build(5, 80);
+		Map counted = new Map();
+		Map other = new Map();
+		for (City c : cities) {
+			counted.insert(c);
+		}
+		for (City c : RandomGraphs.build(6, 80)) {
+			other.insert(c);
+		}
+		CountingEstimates counting = new CountingEstimates();
+		counted.setEstimateProvider(new CachedEstimates(counting, 1000));
+		assertTrue(other.getEstimateProvider() instanceof StraightLineEstimates);
+		Random random = new Random(5);
+		for (RouteAlgorithm a : new RouteAlgorithm[] { RouteAlgorithm.ASTAR, RouteAlgorithm.ALT }) {
+			counted.setRouteAlgorithm(a);
+			other.setRouteAlgorithm(a);
+			for (int i = 0; i < 30; i++) {
+				City from = cities.get(random.nextInt(cities.size()));
+				City to = cities.get(random.nextInt(cities.size()));
+				for (Metric m : Metric.values()) {
+					int before = counting.calls;
+					other.route(other.getGraph().getPlace(0), other.getGraph().getPlace(i), m);
+					assertEquals(before, counting.calls);
+					RandomGraphs.assertLeastCost(counted.route(from, to, m).getPlaces(), from, to, m, RoadFilter.NONE);
+				}
+			}
+		}
+		assertTrue(counting.calls > 0);
+	}
+
+	/**
+	 * straight line estimates that count how often they are asked for
+	 */
+	private static class CountingEstimates implements EstimateProvider {
+		private final StraightLineEstimates straight = new StraightLineEstimates();
+		private int calls;
+
+		public synchronized double getDEst(Place from, Place to) {
+			calls++;
+			return straight.getDEst(from, to);
+		}
+
+		public synchronized double getTEst(Place from, Place to) {
+			calls++;
+			return straight.getTEst(from, to);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.IndexedHeap;
+
+public class IndexedHeapTest {
+
+	@Test
+	public void testAgainstBruteForce() {
+		Random random = new Random(7);
+		IndexedHeap<String> heap = new IndexedHeap<String>();
+		// the key of every element in the heap
+		HashMap<String, Double> keys = new HashMap<String, Double>();
+		for (int step = 0; step < 20000; step++) {
+			// a new string every time, so the heap has to find elements by equals
+			String o = "place" + random.nextInt(200);
+			int op = random.nextInt(3);
+			if (op == 0) {
+				double key = random.nextInt(1000);
+				boolean added = !keys.containsKey(o);
+				assertEquals(added, heap.offer(o, key));
+				if (added) {
+					keys.put(o, key);
+				}
+			} else if (op == 1) {
+				double key = random.nextInt(1000);
+				boolean lowered = keys.containsKey(o) && key < keys.get(o);
+				assertEquals(lowered, heap.decreaseKey(o, key));
+				if (lowered) {
+					keys.put(o, key);
+				}
+			} else if (!keys.isEmpty()) {
+				double least = Double.POSITIVE_INFINITY;
+				for (double k : keys.values()) {
+					least = Math.min(least, k);
+				}
+				assertEquals(least, heap.peekKey(), 0.0);
+				assertEquals(least, keys.get(heap.peek()), 0.0);
+				String polled = heap.poll();
+				assertEquals(least, keys.remove(polled), 0.0);
+			}
+			assertEquals(keys.size(), heap.size());
+			assertEquals(keys.isEmpty(), heap.isEmpty());
+			assertEquals(keys.containsKey(o), heap.contains(o));
+			if (keys.containsKey(o)) {
+				assertEquals(keys.get(o), heap.getKey(o), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testPollsInKeyOrder() {
+		Random random = new Random(3);
+		IndexedHeap<Integer> heap = new IndexedHeap<Integer>();
+		double[] sorted = new double[1000];
+		for (int i = 0; i < 1000; i++) {
+			sorted[i] = random.nextDouble();
+			heap.offer(i, sorted[i]);
+		}
+		Arrays.sort(sorted);
+		for (double key : sorted) {
+			assertEquals(key, heap.peekKey(), 0.0);
+			heap.poll();
+		}
+		assertTrue(heap.isEmpty());
+		assertNull(heap.peek());
+		assertNull(heap.poll());
+	}
+
+	@Test
+	public void testClearAndReuse() {
+		IndexedHeap<String> heap = new IndexedHeap<String>();
+		heap.offer("a", 1.0);
+		heap.offer("b", 2.0);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains("a"));
+		assertTrue(heap.offer("b", 5.0));
+		assertEquals(5.0, heap.getKey("b"), 0.0);
+		assertEquals("b", heap.poll());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPeekKeyEmpty() {
+		new IndexedHeap<String>().peekKey();
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testGetKeyMissing() {
+		new IndexedHeap<String>().getKey("a");
+	}
+}
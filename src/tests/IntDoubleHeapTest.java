@@ -0,0 +1,93 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.IntDoubleHeap;
+
+public class IntDoubleHeapTest {
+
+	@Test
+	public void testAgainstBruteForce() {
+		Random random = new Random(7);
+		int capacity = 200;
+		IntDoubleHeap heap = new IntDoubleHeap(capacity);
+		// the key of every id in the heap, NaN for ids that are not
+		double[] keys = new double[capacity];
+		Arrays.fill(keys, Double.NaN);
+		int size = 0;
+		for (int step = 0; step < 20000; step++) {
+			int id = random.nextInt(capacity);
+			int op = random.nextInt(3);
+			if (op == 0) {
+				double key = random.nextInt(1000);
+				assertEquals(Double.isNaN(keys[id]), heap.offer(id, key));
+				if (Double.isNaN(keys[id])) {
+					keys[id] = key;
+					size++;
+				}
+			} else if (op == 1) {
+				double key = random.nextInt(1000);
+				boolean lowered = !Double.isNaN(keys[id]) && key < keys[id];
+				assertEquals(lowered, heap.decreaseKey(id, key));
+				if (lowered) {
+					keys[id] = key;
+				}
+			} else if (size > 0) {
+				double least = Double.POSITIVE_INFINITY;
+				for (double k : keys) {
+					if (k < least) {
+						least = k;
+					}
+				}
+				assertEquals(least, heap.peekKey(), 0.0);
+				int polled = heap.poll();
+				assertEquals(least, keys[polled], 0.0);
+				keys[polled] = Double.NaN;
+				size--;
+			}
+			assertEquals(size, heap.size());
+			assertEquals(!Double.isNaN(keys[id]), heap.contains(id));
+		}
+	}
+
+	@Test
+	public void testPollsInKeyOrder() {
+		Random random = new Random(3);
+		IntDoubleHeap heap = new IntDoubleHeap(1000);
+		double[] sorted = new double[1000];
+		for (int id = 0; id < 1000; id++) {
+			sorted[id] = random.nextDouble();
+			heap.offer(id, sorted[id]);
+		}
+		Arrays.sort(sorted);
+		for (double key : sorted) {
+			assertEquals(key, heap.peekKey(), 0.0);
+			heap.poll();
+		}
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testClearAndReuse() {
+		IntDoubleHeap heap = new IntDoubleHeap(10);
+		heap.offer(3, 1.0);
+		heap.offer(7, 2.0);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(3));
+		assertTrue(heap.offer(7, 5.0));
+		assertEquals(5.0, heap.getKey(7), 0.0);
+		assertEquals(7, heap.poll());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPollEmpty() {
+		new IntDoubleHeap(4).poll();
+	}
+}
@@ -0,0 +1,122 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.ItineraryOptimizer;
+
+public class ItineraryOptimizerTest {
+
+	@Test
+	public void testExactAgainstBruteForce() {
+		Random random = new Random(8);
+		for (int trial = 0; trial < 40; trial++) {
+			int n = 1 + random.nextInt(8);
+			double[][] cost = randomCosts(random, n);
+			for (boolean roundTrip : new boolean[] { false, true }) {
+				ItineraryOptimizer optimizer = new ItineraryOptimizer(cost, roundTrip, 1000);
+				int[] order = optimizer.getOrder();
+				assertPermutation(order, n);
+				assertEquals(tourCost(cost, order, roundTrip), optimizer.getCost(), RandomGraphs.EPSILON);
+				int[] start = new int[n];
+				for (int i = 0; i < n; i++) {
+					start[i] = i;
+				}
+				assertEquals(bestTour(cost, start, 1, roundTrip), optimizer.getCost(), RandomGraphs.EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void testLargeTripIsValid() {
+		Random random = new Random(2);
+		double[][] cost = randomCosts(random, 60);
+		for (boolean roundTrip : new boolean[] { false, true }) {
+			ItineraryOptimizer optimizer = new ItineraryOptimizer(cost, roundTrip, 200);
+			int[] order = optimizer.getOrder();
+			assertPermutation(order, 60);
+			assertEquals(tourCost(cost, order, roundTrip), optimizer.getCost(), RandomGraphs.EPSILON);
+			int[] given = new int[60];
+			for (int i = 0; i < 60; i++) {
+				given[i] = i;
+			}
+			// the stops are at random, so the order they were given in is far worse than the
+			// nearest neighbour order the local search starts from
+			assertTrue(optimizer.getCost() <= tourCost(cost, given, roundTrip) + RandomGraphs.EPSILON);
+		}
+	}
+
+	/**
+	 * return costs between random points, which differ a little with the direction
+	 */
+	private double[][] randomCosts(Random random, int n) {
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = random.nextDouble();
+			y[i] = random.nextDouble();
+		}
+		double[][] cost = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				cost[i][j] = i == j ? 0.0 : Math.hypot(x[i] - x[j], y[i] - y[j]) * (1.0 + 0.2 * random.nextDouble());
+			}
+		}
+		return cost;
+	}
+
+	/**
+	 * checks that an order visits every stop once and starts with the first
+	 */
+	private void assertPermutation(int[] order, int n) {
+		assertEquals(n, order.length);
+		boolean[] seen = new boolean[n];
+		for (int stop : order) {
+			assertFalse(seen[stop]);
+			seen[stop] = true;
+		}
+		if (n > 0) {
+			assertEquals(0, order[0]);
+		}
+	}
+
+	/**
+	 * return the cost of visiting the stops in an order
+	 */
+	private double tourCost(double[][] cost, int[] order, boolean roundTrip) {
+		double total = 0.0;
+		for (int i = 1; i < order.length; i++) {
+			total += cost[order[i - 1]][order[i]];
+		}
+		if (roundTrip && order.length > 1) {
+			total += cost[order[order.length - 1]][order[0]];
+		}
+		return total;
+	}
+
+	/**
+	 * return the least cost of every order that keeps the stops before position k, found by
+	 * trying every permutation of the rest
+	 */
+	private double bestTour(double[][] cost, int[] order, int k, boolean roundTrip) {
+		if (k >= order.length) {
+			return tourCost(cost, order, roundTrip);
+		}
+		double best = Double.POSITIVE_INFINITY;
+		for (int i = k; i < order.length; i++) {
+			swap(order, k, i);
+			best = Math.min(best, bestTour(cost, order, k + 1, roundTrip));
+			swap(order, k, i);
+		}
+		return best;
+	}
+
+	private static void swap(int[] a, int i, int j) {
+		int t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+	}
+}
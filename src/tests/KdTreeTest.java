@@ -0,0 +1,95 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.Coordinate;
+import utils.KdTree;
+
+public class KdTreeTest {
+
+	@Test
+	public void testAgainstBruteForce() {
+		Random random = new Random(3);
+		KdTree<City> tree = new KdTree<City>();
+		ArrayList<City> kept = new ArrayList<City>();
+		for (int step = 0; step < 3000; step++) {
+			int action = random.nextInt(10);
+			if (action < 5 || kept.isEmpty()) {
+				City city = new City(" K" + step, 1, new Coordinate(37 + random.nextDouble() * 3, -102 + random.nextDouble() * 8), 3.0);
+				assertTrue(tree.insert(city));
+				kept.add(city);
+			} else if (action < 7) {
+				City city = kept.remove(random.nextInt(kept.size()));
+				assertTrue(tree.remove(city));
+				assertFalse(tree.remove(city));
+			} else {
+				double x = -103 + random.nextDouble() * 10;
+				double y = 36 + random.nextDouble() * 5;
+				int k = 1 + random.nextInt(12);
+				assertEquals(nearest(kept, x, y, k), distances(tree.nearest(x, y, k), x, y));
+				double radius = random.nextDouble() * 1.5;
+				assertEquals(nearest(kept, x, y, radius), distances(tree.withinRadius(x, y, radius), x, y));
+			}
+			assertEquals(kept.size(), tree.size());
+		}
+	}
+
+	@Test
+	public void testMoreThanSize() {
+		KdTree<City> tree = new KdTree<City>();
+		ArrayList<City> cities = RandomGraphs.build(2, 5);
+		for (City city : cities) {
+			tree.insert(city);
+		}
+		assertFalse(tree.insert(cities.get(0)));
+		assertEquals(5, tree.nearest(-98, 38, 100).size());
+		assertEquals(5, tree.nearest(-98, 38, Integer.MAX_VALUE).size());
+		assertTrue(tree.nearest(-98, 38, 0).isEmpty());
+		assertTrue(new KdTree<City>().nearest(-98, 38, 3).isEmpty());
+	}
+
+	/**
+	 * return the distances of the k places closest to a point, found by sorting all of them
+	 */
+	private List<Double> nearest(List<City> cities, double x, double y, int k) {
+		List<Double> all = distances(cities, x, y);
+		Collections.sort(all);
+		return all.subList(0, Math.min(k, all.size()));
+	}
+
+	/**
+	 * return the sorted distances of the places within a radius of a point, found by looking at
+	 * every place
+	 */
+	private List<Double> nearest(List<City> cities, double x, double y, double radius) {
+		ArrayList<Double> within = new ArrayList<Double>();
+		for (double d : distances(cities, x, y)) {
+			if (d <= radius) {
+				within.add(d);
+			}
+		}
+		Collections.sort(within);
+		return within;
+	}
+
+	/**
+	 * return the distance of each place from a point, in the order of the places
+	 */
+	private List<Double> distances(List<City> cities, double x, double y) {
+		ArrayList<Double> d = new ArrayList<Double>(cities.size());
+		for (City city : cities) {
+			double dx = city.getLocation().getX() - x;
+			double dy = city.getLocation().getY() - y;
+			d.add(Math.sqrt(dx * dx + dy * dy));
+		}
+		return d;
+	}
+}
@@ -0,0 +1,48 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.CompiledGraph;
+import backend.LandmarkHeuristic;
+import backend.RoadFilter;
+import utils.Metric;
+
+public class LandmarkHeuristicTest {
+
+	@Test
+	public void testLowerBound() {
+		for (long seed = 0; seed < 5; seed++) {
+			ArrayList<City> cities = RandomGraphs.build(seed, 60);
+			CompiledGraph graph = new CompiledGraph(cities);
+			Random random = new Random(seed);
+			for (Metric m : Metric.values()) {
+				LandmarkHeuristic alt = new LandmarkHeuristic(graph, m, LandmarkHeuristic.selectFarthest(graph, m, 4), null);
+				for (int i = 0; i < 50; i++) {
+					City from = cities.get(random.nextInt(cities.size()));
+					City to = cities.get(random.nextInt(cities.size()));
+					double estimate = alt.estimate(graph.indexOf(from), graph.indexOf(to));
+					assertTrue(estimate <= RandomGraphs.dijkstra(from, to, m, RoadFilter.NONE) + RandomGraphs.EPSILON);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSelectFarthest() {
+		CompiledGraph graph = new CompiledGraph(RandomGraphs.build(4, 30));
+		int[] landmarks = LandmarkHeuristic.selectFarthest(graph, Metric.DISTANCE, 5);
+		assertEquals(5, landmarks.length);
+		for (int i = 0; i < landmarks.length; i++) {
+			for (int j = 0; j < i; j++) {
+				assertTrue(landmarks[i] != landmarks[j]);
+			}
+		}
+		assertEquals(30, LandmarkHeuristic.selectFarthest(graph, Metric.DISTANCE, 100).length);
+	}
+}
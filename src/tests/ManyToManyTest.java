@@ -0,0 +1,91 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.CompiledGraph;
+import backend.ContractionHierarchy;
+import backend.ContractionHierarchyQuery;
+import backend.Coordinate;
+import backend.Map;
+import backend.Place;
+import backend.RoadFilter;
+import utils.Metric;
+
+public class ManyToManyTest {
+
+	@Test
+	public void testMatrixOnRandomMaps() {
+		for (long seed = 0; seed < 5; seed++) {
+			ArrayList<City> cities = RandomGraphs.build(seed, 70);
+			Random random = new Random(seed);
+			// an unlinked place gives rows and columns that stay infinite
+			cities.add(new City(" Alone", 10, new Coordinate(38, -98), 3.0));
+			CompiledGraph graph = new CompiledGraph(cities);
+			ArrayList<Place> sources = new ArrayList<Place>();
+			ArrayList<Place> targets = new ArrayList<Place>();
+			for (int i = 0; i < 12; i++) {
+				sources.add(cities.get(random.nextInt(cities.size())));
+				targets.add(cities.get(random.nextInt(cities.size())));
+			}
+			sources.add(cities.get(cities.size() - 1));
+			targets.add(cities.get(cities.size() - 1));
+			for (Metric m : Metric.values()) {
+				ContractionHierarchyQuery query = new ContractionHierarchy(graph, m).newQuery();
+				double[][] costs = query.findCosts(sources, targets);
+				assertEquals(sources.size(), costs.length);
+				for (int i = 0; i < sources.size(); i++) {
+					assertEquals(targets.size(), costs[i].length);
+					for (int j = 0; j < targets.size(); j++) {
+						assertEquals(RandomGraphs.dijkstra(sources.get(i), targets.get(j), m, RoadFilter.NONE), costs[i][j],
+								RandomGraphs.EPSILON);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMapMatricesOnManyThreads() throws Exception {
+		final Map map = new Map();
+		final ArrayList<City> cities = map.getAlpCityList();
+		final double[][] expected = map.costMatrix(cities, cities, Metric.TIME);
+		final ArrayList<Throwable> failures = new ArrayList<Throwable>();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					try {
+						for (int i = 0; i < 300; i++) {
+							double[][] costs = map.costMatrix(cities, cities, Metric.TIME);
+							for (int j = 0; j < costs.length; j++) {
+								assertArrayEquals(expected[j], costs[j], 0.0);
+							}
+						}
+					} catch (Throwable e) {
+						synchronized (failures) {
+							failures.add(e);
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(failures.toString(), failures.isEmpty());
+	}
+
+	@Test
+	public void testEmpty() {
+		CompiledGraph graph = new CompiledGraph(RandomGraphs.build(1, 10));
+		ContractionHierarchyQuery query = new ContractionHierarchy(graph, Metric.DISTANCE).newQuery();
+		assertEquals(0, query.findCosts(new ArrayList<Place>(), new ArrayList<Place>()).length);
+	}
+}
@@ -0,0 +1,117 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.Map;
+import backend.Place;
+import backend.RoadFilter;
+import backend.RouteResult;
+import utils.Metric;
+import utils.RouteAlgorithm;
+
+public class MapRouteTest {
+
+	@Test
+	public void testManyThreadsAgreeWithOne() throws Exception {
+		final Map map = new Map();
+		final ArrayList<City> cities = RandomGraphs.build(12, 300);
+		for (City c : cities) {
+			map.insert(c);
+		}
+		for (RouteAlgorithm algorithm : RouteAlgorithm.values()) {
+			map.setRouteAlgorithm(algorithm);
+			Random random = new Random(algorithm.ordinal());
+			final int[][] pairs = new int[200][2];
+			final ArrayList<List<Place>> expected = new ArrayList<List<Place>>();
+			for (int i = 0; i < pairs.length; i++) {
+				City from = cities.get(random.nextInt(cities.size()));
+				City to = cities.get(random.nextInt(cities.size()));
+				pairs[i][0] = cities.indexOf(from);
+				pairs[i][1] = cities.indexOf(to);
+				expected.add(map.route(from, to, metric(i)).getPlaces());
+				RandomGraphs.assertLeastCost(expected.get(i), from, to, metric(i), RoadFilter.NONE);
+			}
+			final ArrayList<Throwable> failures = new ArrayList<Throwable>();
+			Thread[] threads = new Thread[6];
+			for (int t = 0; t < threads.length; t++) {
+				final int first = t;
+				threads[t] = new Thread(new Runnable() {
+					public void run() {
+						try {
+							for (int round = 0; round < 5; round++) {
+								// every thread starts at another pair, so the searches overlap
+								for (int k = 0; k < pairs.length; k++) {
+									int i = (first * 37 + k) % pairs.length;
+									if (k % 50 == 0) {
+										// most routes are searched for again instead of taken from the cache
+										map.getRouteCache().invalidate();
+									}
+									RouteResult r = map.route(cities.get(pairs[i][0]), cities.get(pairs[i][1]), metric(i));
+									assertEquals(expected.get(i), r.getPlaces());
+								}
+							}
+						} catch (Throwable e) {
+							synchronized (failures) {
+								failures.add(e);
+							}
+						}
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertTrue(algorithm + " " + failures, failures.isEmpty());
+		}
+	}
+
+	@Test
+	public void testResultIsImmutable() {
+		Map map = new Map();
+		ArrayList<City> cities = map.getAlpCityList();
+		RouteResult r = map.route(cities.get(0), cities.get(cities.size() - 1), Metric.DISTANCE);
+		assertTrue(r.isFound());
+		assertTrue(r.getSettledCount() > 0);
+		// the same route again comes from the cache without a search
+		assertEquals(0, map.route(cities.get(0), cities.get(cities.size() - 1), Metric.DISTANCE).getSettledCount());
+		assertEquals(RandomGraphs.routeCost(r.getPlaces(), Metric.DISTANCE, RoadFilter.NONE), r.getTotalDistance(), RandomGraphs.EPSILON);
+		try {
+			r.getPlaces().clear();
+			fail("the places of a result can be changed");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		// a second route does not change the first
+		List<Place> places = new ArrayList<Place>(r.getPlaces());
+		map.route(cities.get(1), cities.get(2), Metric.TIME);
+		assertEquals(places, r.getPlaces());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDeprecatedGetRoute() {
+		Map map = new Map();
+		ArrayList<City> cities = map.getAlpCityList();
+		for (City from : cities) {
+			for (City to : cities) {
+				map.getRoute(from, to, "time");
+				assertEquals(map.route(from, to, Metric.TIME).getPlaces(), map.returnRoute());
+			}
+		}
+	}
+
+	/**
+	 * return the metric of the ith route, half of the routes use each
+	 */
+	private static Metric metric(int i) {
+		return i % 2 == 0 ? Metric.DISTANCE : Metric.TIME;
+	}
+}
@@ -0,0 +1,84 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import utils.QuadTree;
+
+public class QuadTreeTest {
+
+	@Test
+	public void testAgainstBruteForce() {
+		Random random = new Random(6);
+		QuadTree<String> tree = new QuadTree<String>(new Rectangle2D.Double(0, 0, 1000, 1000));
+		// the items kept in the order they were inserted, with their rectangles
+		ArrayList<String> items = new ArrayList<String>();
+		ArrayList<Rectangle2D> rects = new ArrayList<Rectangle2D>();
+		for (int step = 0; step < 4000; step++) {
+			int action = random.nextInt(10);
+			if (action < 5 || items.isEmpty()) {
+				String item = "q" + step;
+				Rectangle2D rect = randomRect(random);
+				tree.insert(item, rect);
+				items.add(item);
+				rects.add(rect);
+			} else if (action < 7) {
+				int i = random.nextInt(items.size());
+				String item = items.remove(i);
+				Rectangle2D rect = rects.remove(i);
+				assertTrue(tree.remove(item, rect));
+				assertFalse(tree.remove(item, rect));
+			} else {
+				Rectangle2D area = randomRect(random);
+				ArrayList<String> expected = new ArrayList<String>();
+				for (int i = 0; i < items.size(); i++) {
+					if (meets(rects.get(i), area)) {
+						expected.add(items.get(i));
+					}
+				}
+				assertEquals(expected, tree.query(area));
+			}
+			assertEquals(items.size(), tree.size());
+		}
+	}
+
+	@Test
+	public void testEdgesAndClear() {
+		QuadTree<String> tree = new QuadTree<String>(new Rectangle2D.Double(0, 0, 100, 100));
+		tree.insert("a", new Rectangle2D.Double(10, 10, 10, 10));
+		tree.insert("point", new Rectangle2D.Double(50, 50, 0, 0));
+		tree.insert("outside", new Rectangle2D.Double(-300, 200, 20, 20));
+		// rectangles that only touch still meet
+		assertEquals(1, tree.query(new Rectangle2D.Double(20, 20, 5, 5)).size());
+		assertEquals(1, tree.query(new Rectangle2D.Double(50, 50, 0, 0)).size());
+		assertEquals(1, tree.query(new Rectangle2D.Double(-400, 150, 150, 100)).size());
+		assertTrue(tree.query(new Rectangle2D.Double(21, 21, 5, 5)).isEmpty());
+		tree.clear();
+		assertEquals(0, tree.size());
+		assertTrue(tree.query(new Rectangle2D.Double(0, 0, 100, 100)).isEmpty());
+	}
+
+	/**
+	 * return a rectangle of random size, mostly within the bounds of the tree but sometimes
+	 * outside them, sometimes with no width or height
+	 */
+	private Rectangle2D randomRect(Random random) {
+		double x = -200 + random.nextDouble() * 1400;
+		double y = -200 + random.nextDouble() * 1400;
+		double w = random.nextInt(5) == 0 ? 0 : random.nextDouble() * (random.nextInt(10) == 0 ? 600 : 60);
+		double h = random.nextInt(5) == 0 ? 0 : random.nextDouble() * (random.nextInt(10) == 0 ? 600 : 60);
+		return new Rectangle2D.Double(x, y, w, h);
+	}
+
+	/**
+	 * return true if two rectangles share a point, edges included
+	 */
+	private boolean meets(Rectangle2D a, Rectangle2D b) {
+		return a.getMinX() <= b.getMaxX() && b.getMinX() <= a.getMaxX() && a.getMinY() <= b.getMaxY() && b.getMinY() <= a.getMaxY();
+	}
+}
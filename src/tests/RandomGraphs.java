@@ -0,0 +1,225 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import backend.City;
+import backend.Coordinate;
+import backend.Link;
+import backend.Place;
+import backend.RoadFilter;
+import backend.SpeedProfile;
+import utils.Metric;
+
+/**
+ * RandomGraphs builds small random maps for the tests and finds their least costs with a plain
+ * Dijkstra search over the links of the places, which the faster searches are checked against.
+ * EPSILON - the most two costs of the same route may differ by after adding up in another order
+ * PROFILES - the built in speed profiles and a much slower one
+ * ROADS - names of links, one of each road type
+ */
+class RandomGraphs {
+
+	static final double EPSILON = 1e-9;
+	static final SpeedProfile[] PROFILES = { SpeedProfile.CAR, SpeedProfile.TRUCK, SpeedProfile.BUS,
+			new SpeedProfile("tractor", 25.0, 20.0, 25.0, 15.0) };
+	private static final String[] ROADS = { " I70", " H24", " R12" };
+
+	/**
+	 * return cities at random places in Kansas. Every city is linked both ways to one that was
+	 * made before it, so each can reach every other, and some get another link, one way or both.
+	 * @param seed
+	 * @param n number of cities
+	 * @return
+	 */
+	static ArrayList<City> build(long seed, int n) {
+		Random random = new Random(seed);
+		ArrayList<City> cities = new ArrayList<City>(n);
+		for (int i = 0; i < n; i++) {
+			Coordinate c = new Coordinate(37 + random.nextDouble() * 3, -102 + random.nextDouble() * 8);
+			cities.add(new City(" T" + i, random.nextInt(100000), c, 3.0));
+		}
+		for (int i = 1; i < n; i++) {
+			link(cities.get(i), cities.get(random.nextInt(i)), random, true);
+			if (random.nextBoolean()) {
+				City other = cities.get(random.nextInt(n));
+				if (other != cities.get(i)) {
+					link(cities.get(i), other, random, random.nextInt(4) != 0);
+				}
+			}
+		}
+		return cities;
+	}
+
+	/**
+	 * links two places with a road of a random type
+	 * @param a
+	 * @param b
+	 * @param random
+	 * @param bothWays false for a link from a to b only
+	 */
+	static void link(Place a, Place b, Random random, boolean bothWays) {
+		String road = ROADS[random.nextInt(ROADS.length)];
+		a.addNeighbor(new Link(road, a, b));
+		if (bothWays) {
+			b.addNeighbor(new Link(road, b, a));
+		}
+	}
+
+	/**
+	 * return the cost of a link driven by car, with its traffic for time and kept to a filter
+	 * @param link
+	 * @param m
+	 * @param filter
+	 * @return the cost, Double.POSITIVE_INFINITY if the link may not be used
+	 */
+	static double cost(Link link, Metric m, RoadFilter filter) {
+		return cost(link, m, filter, SpeedProfile.CAR);
+	}
+
+	/**
+	 * return the cost of a link, with the speeds of a profile and its traffic for time and kept
+	 * to a filter. A link closed by traffic may not be used for either metric.
+	 * @param link
+	 * @param m
+	 * @param filter
+	 * @param profile
+	 * @return the cost, Double.POSITIVE_INFINITY if the link may not be used
+	 */
+	static double cost(Link link, Metric m, RoadFilter filter, SpeedProfile profile) {
+		if (link.getTraffic() == Double.POSITIVE_INFINITY) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double time = profile == SpeedProfile.CAR ? link.getTime() : link.getTime(profile);
+		double weight = m == Metric.DISTANCE ? link.getDistance() : time * link.getTraffic();
+		return filter.cost(weight, link.getRoadType().ordinal());
+	}
+
+	/**
+	 * return the least cost from one place to another by a plain Dijkstra search over the links
+	 * @param from
+	 * @param to
+	 * @param m
+	 * @param filter
+	 * @return the cost, Double.POSITIVE_INFINITY if to cannot be reached
+	 */
+	static double dijkstra(Place from, Place to, Metric m, RoadFilter filter) {
+		return dijkstra(from, to, m, filter, SpeedProfile.CAR);
+	}
+
+	/**
+	 * return the least cost from one place to another with the speeds of a profile by a plain
+	 * Dijkstra search over the links
+	 * @param from
+	 * @param to
+	 * @param m
+	 * @param filter
+	 * @param profile
+	 * @return the cost, Double.POSITIVE_INFINITY if to cannot be reached
+	 */
+	static double dijkstra(Place from, Place to, Metric m, RoadFilter filter, SpeedProfile profile) {
+		final IdentityHashMap<Place, Double> costs = new IdentityHashMap<Place, Double>();
+		PriorityQueue<Place> open = new PriorityQueue<Place>(16, new Comparator<Place>() {
+			public int compare(Place a, Place b) {
+				return Double.compare(costs.get(a), costs.get(b));
+			}
+		});
+		IdentityHashMap<Place, Boolean> settled = new IdentityHashMap<Place, Boolean>();
+		costs.put(from, 0.0);
+		open.add(from);
+		while (!open.isEmpty()) {
+			Place p = open.poll();
+			if (settled.put(p, Boolean.TRUE) != null) {
+				continue;
+			}
+			if (p == to) {
+				return costs.get(p);
+			}
+			for (Link link : p.getNeighbors()) {
+				double c = costs.get(p) + cost(link, m, filter, profile);
+				Double known = costs.get(link.getPlace());
+				if (c < Double.POSITIVE_INFINITY && (known == null || c < known)) {
+					// the place is queued again with its lower cost, the old entry is skipped
+					costs.put(link.getPlace(), c);
+					open.add(link.getPlace());
+				}
+			}
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * return the cost of a route, taking the cheapest link the filter allows between every two
+	 * places that follow each other
+	 * @param route
+	 * @param m
+	 * @param filter
+	 * @return the cost, Double.POSITIVE_INFINITY if two places that follow each other are not linked
+	 */
+	static double routeCost(List<Place> route, Metric m, RoadFilter filter) {
+		return routeCost(route, m, filter, SpeedProfile.CAR);
+	}
+
+	/**
+	 * return the cost of a route with the speeds of a profile, taking the cheapest link the
+	 * filter allows between every two places that follow each other
+	 * @param route
+	 * @param m
+	 * @param filter
+	 * @param profile
+	 * @return the cost, Double.POSITIVE_INFINITY if two places that follow each other are not linked
+	 */
+	static double routeCost(List<Place> route, Metric m, RoadFilter filter, SpeedProfile profile) {
+		double total = 0.0;
+		for (int i = 1; i < route.size(); i++) {
+			double best = Double.POSITIVE_INFINITY;
+			for (Link link : route.get(i - 1).getNeighbors()) {
+				if (link.getPlace() == route.get(i)) {
+					best = Math.min(best, cost(link, m, filter, profile));
+				}
+			}
+			total += best;
+		}
+		return total;
+	}
+
+	/**
+	 * checks that a route found by a search is a least cost route
+	 * @param route the places along the route, empty if none was found
+	 * @param from
+	 * @param to
+	 * @param m
+	 * @param filter
+	 */
+	static void assertLeastCost(List<Place> route, Place from, Place to, Metric m, RoadFilter filter) {
+		assertLeastCost(route, from, to, m, filter, SpeedProfile.CAR);
+	}
+
+	/**
+	 * checks that a route found by a search is a least cost route with the speeds of a profile
+	 * @param route the places along the route, empty if none was found
+	 * @param from
+	 * @param to
+	 * @param m
+	 * @param filter
+	 * @param profile
+	 */
+	static void assertLeastCost(List<Place> route, Place from, Place to, Metric m, RoadFilter filter,
+			SpeedProfile profile) {
+		double expected = dijkstra(from, to, m, filter, profile);
+		if (expected == Double.POSITIVE_INFINITY) {
+			assertTrue("no route expected from" + from + " to" + to, route.isEmpty());
+			return;
+		}
+		assertFalse("route expected from" + from + " to" + to, route.isEmpty());
+		assertSame(from, route.get(0));
+		assertSame(to, route.get(route.size() - 1));
+		assertEquals(expected, routeCost(route, m, filter, profile), EPSILON);
+	}
+}
@@ -0,0 +1,48 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import backend.RoadFilter;
+import utils.RoadType;
+
+public class RoadFilterTest {
+
+	@Test
+	public void testAvoid() {
+		RoadFilter filter = RoadFilter.avoid(RoadType.ROAD);
+		assertFalse(filter.allows(RoadType.ROAD.ordinal()));
+		assertTrue(filter.allows(RoadType.HIGHWAY.ordinal()));
+		assertEquals(Double.POSITIVE_INFINITY, filter.cost(1.0, RoadType.ROAD.ordinal()), 0.0);
+		assertFalse(filter.isNone());
+		assertTrue(RoadFilter.NONE.isNone());
+	}
+
+	@Test
+	public void testPenalize() {
+		RoadFilter filter = RoadFilter.penalize(3.0, RoadType.ROAD);
+		assertTrue(filter.allows(RoadType.ROAD.ordinal()));
+		assertEquals(6.0, filter.cost(2.0, RoadType.ROAD.ordinal()), 0.0);
+		assertEquals(2.0, filter.cost(2.0, RoadType.HIGHWAY.ordinal()), 0.0);
+		assertFalse(filter.isNone());
+	}
+
+	@Test
+	public void testFactorPerRoadType() {
+		RoadFilter filter = RoadFilter.penalize(2.0, RoadType.HIGHWAY).andPenalize(5.0, RoadType.INTERSTATE);
+		assertEquals(2.0, filter.cost(1.0, RoadType.HIGHWAY.ordinal()), 0.0);
+		assertEquals(5.0, filter.cost(1.0, RoadType.INTERSTATE.ordinal()), 0.0);
+		assertEquals(1.0, filter.cost(1.0, RoadType.ROAD.ordinal()), 0.0);
+		// penalizing a type again replaces only its own factor
+		RoadFilter again = filter.andPenalize(3.0, RoadType.HIGHWAY);
+		assertEquals(3.0, again.getPenalty(RoadType.HIGHWAY.ordinal()), 0.0);
+		assertEquals(5.0, again.getPenalty(RoadType.INTERSTATE.ordinal()), 0.0);
+		assertEquals(2.0, filter.getPenalty(RoadType.HIGHWAY.ordinal()), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPenaltyBelowOne() {
+		RoadFilter.penalize(0.5, RoadType.ROAD);
+	}
+}
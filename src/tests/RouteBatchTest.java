@@ -0,0 +1,70 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import backend.BatchResult;
+import backend.City;
+import backend.Map;
+import backend.RoadFilter;
+import backend.RouteRequest;
+import backend.RouteResult;
+import utils.Metric;
+import utils.RoadType;
+import utils.RouteAlgorithm;
+
+public class RouteBatchTest {
+
+	@Test
+	public void testBatchMatchesSingleRoutes() {
+		Map map = new Map();
+		ArrayList<City> cities = RandomGraphs.build(13, 250);
+		for (City c : cities) {
+			map.insert(c);
+		}
+		RoadFilter[] filters = { RoadFilter.NONE, RoadFilter.avoid(RoadType.INTERSTATE), RoadFilter.penalize(2.0, RoadType.ROAD) };
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (RouteAlgorithm algorithm : RouteAlgorithm.values()) {
+				map.setRouteAlgorithm(algorithm);
+				Random random = new Random(algorithm.ordinal());
+				ArrayList<RouteRequest> requests = new ArrayList<RouteRequest>();
+				for (int i = 0; i < 400; i++) {
+					City from = cities.get(random.nextInt(cities.size()));
+					City to = cities.get(random.nextInt(cities.size()));
+					Metric m = Metric.values()[random.nextInt(2)];
+					requests.add(new RouteRequest(from, to, m, filters[random.nextInt(filters.length)]));
+				}
+				BatchResult batch = map.routeBatch(requests, pool);
+				assertEquals(requests.size(), batch.size());
+				assertEquals(4, batch.getParallelism());
+				for (int i = 0; i < requests.size(); i++) {
+					RouteRequest r = requests.get(i);
+					RouteResult expected = map.route(r.getFrom(), r.getTo(), r.getMetric(), r.getFilter());
+					RouteResult got = batch.get(i);
+					// the results keep the order of the requests
+					assertEquals(expected.getPlaces(), got.getPlaces());
+					assertSame(r.getMetric(), got.getMetric());
+					assertEquals(expected.getTotalDistance(), got.getTotalDistance(), RandomGraphs.EPSILON);
+					assertEquals(expected.getTotalTime(), got.getTotalTime(), RandomGraphs.EPSILON);
+					RandomGraphs.assertLeastCost(got.getPlaces(), r.getFrom(), r.getTo(), r.getMetric(), r.getFilter());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testEmptyBatch() {
+		Map map = new Map();
+		BatchResult batch = map.routeBatch(new ArrayList<RouteRequest>());
+		assertEquals(0, batch.size());
+		assertTrue(batch.getResults().isEmpty());
+	}
+}
@@ -0,0 +1,102 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.Place;
+import backend.RouteCache;
+import utils.Metric;
+
+public class RouteCacheTest {
+
+	@Test
+	public void testAgainstBruteForceLru() {
+		ArrayList<City> cities = RandomGraphs.build(1, 12);
+		Random random = new Random(1);
+		RouteCache cache = new RouteCache(20);
+		// the same least recently used cache kept with an access ordered map
+		LinkedHashMap<List<Object>, ArrayList<Place>> expected = new LinkedHashMap<List<Object>, ArrayList<Place>>(16, 0.75f, true);
+		for (int step = 0; step < 5000; step++) {
+			City from = cities.get(random.nextInt(cities.size()));
+			City to = cities.get(random.nextInt(cities.size()));
+			Metric m = Metric.values()[random.nextInt(2)];
+			List<Object> key = Arrays.<Object> asList(from, to, m);
+			if (random.nextBoolean()) {
+				ArrayList<Place> route = new ArrayList<Place>();
+				route.add(from);
+				route.add(cities.get(random.nextInt(cities.size())));
+				route.add(to);
+				cache.put(from, to, m, route);
+				expected.put(key, route);
+				if (expected.size() > 20) {
+					expected.remove(expected.keySet().iterator().next());
+				}
+			} else {
+				assertEquals(expected.get(key), cache.get(from, to, m));
+			}
+			assertEquals(expected.size(), cache.size());
+		}
+	}
+
+	@Test
+	public void testRoutesAreCopies() {
+		ArrayList<City> cities = RandomGraphs.build(2, 5);
+		RouteCache cache = new RouteCache(4);
+		ArrayList<Place> route = new ArrayList<Place>();
+		route.add(cities.get(0));
+		route.add(cities.get(1));
+		cache.put(cities.get(0), cities.get(1), Metric.TIME, route);
+		route.add(cities.get(2));
+		ArrayList<Place> cached = cache.get(cities.get(0), cities.get(1), Metric.TIME);
+		assertEquals(2, cached.size());
+		cached.clear();
+		assertEquals(2, cache.get(cities.get(0), cities.get(1), Metric.TIME).size());
+		assertNull(cache.get(cities.get(0), cities.get(1), Metric.DISTANCE));
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testInvalidate() {
+		ArrayList<City> cities = RandomGraphs.build(3, 5);
+		RouteCache cache = new RouteCache(10);
+		ArrayList<Place> through = new ArrayList<Place>();
+		through.add(cities.get(0));
+		through.add(cities.get(2));
+		through.add(cities.get(1));
+		ArrayList<Place> around = new ArrayList<Place>();
+		around.add(cities.get(3));
+		around.add(cities.get(4));
+		cache.put(cities.get(0), cities.get(1), Metric.DISTANCE, through);
+		cache.put(cities.get(3), cities.get(4), Metric.DISTANCE, around);
+		cache.invalidate(cities.get(2));
+		assertNull(cache.get(cities.get(0), cities.get(1), Metric.DISTANCE));
+		assertNotNull(cache.get(cities.get(3), cities.get(4), Metric.DISTANCE));
+		cache.invalidate();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testEvictions() {
+		ArrayList<City> cities = RandomGraphs.build(4, 6);
+		RouteCache cache = new RouteCache(2);
+		for (int i = 1; i < 6; i++) {
+			ArrayList<Place> route = new ArrayList<Place>();
+			route.add(cities.get(0));
+			route.add(cities.get(i));
+			cache.put(cities.get(0), cities.get(i), Metric.TIME, route);
+		}
+		assertEquals(2, cache.size());
+		assertEquals(3, cache.getEvictions());
+		assertNull(cache.get(cities.get(0), cities.get(1), Metric.TIME));
+		assertNotNull(cache.get(cities.get(0), cities.get(5), Metric.TIME));
+	}
+}
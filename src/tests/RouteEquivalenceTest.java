@@ -0,0 +1,222 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.AStarSearch;
+import backend.BidirectionalSearch;
+import backend.City;
+import backend.CompiledGraph;
+import backend.ContractionHierarchy;
+import backend.ContractionHierarchyQuery;
+import backend.Coordinate;
+import backend.CustomizableHierarchy;
+import backend.CustomizableHierarchyQuery;
+import backend.LandmarkHeuristic;
+import backend.Link;
+import backend.Map;
+import backend.Place;
+import backend.PlaceEstimateHeuristic;
+import backend.RoadFilter;
+import backend.SpeedProfile;
+import utils.Metric;
+import utils.RoadType;
+import utils.RouteAlgorithm;
+
+public class RouteEquivalenceTest {
+
+	private static final RoadFilter[] FILTERS = {
+			RoadFilter.NONE,
+			RoadFilter.avoid(RoadType.INTERSTATE),
+			RoadFilter.penalize(3.0, RoadType.ROAD),
+			RoadFilter.penalize(2.0, RoadType.HIGHWAY).andPenalize(5.0, RoadType.INTERSTATE),
+			RoadFilter.avoid(RoadType.HIGHWAY).andPenalize(1.5, RoadType.ROAD) };
+
+	private static final Engine[] ENGINES = {
+		new Engine("A*", true) {
+			Search prepare(CompiledGraph graph, Metric m) {
+				final AStarSearch search = new AStarSearch(graph, m, new PlaceEstimateHeuristic(graph, m));
+				return new Search() {
+					public List<Place> findRoute(Place from, Place to, RoadFilter filter) {
+						return search.findRoute(from, to, filter);
+					}
+				};
+			}
+		},
+		new Engine("ALT", true) {
+			Search prepare(CompiledGraph graph, Metric m) {
+				LandmarkHeuristic landmarks = new LandmarkHeuristic(graph, m, LandmarkHeuristic.selectFarthest(graph, m, 4), null);
+				final AStarSearch search = new AStarSearch(graph, m, landmarks);
+				return new Search() {
+					public List<Place> findRoute(Place from, Place to, RoadFilter filter) {
+						return search.findRoute(from, to, filter);
+					}
+				};
+			}
+		},
+		new Engine("bidirectional", true) {
+			Search prepare(CompiledGraph graph, Metric m) {
+				final BidirectionalSearch search = new BidirectionalSearch(graph, m);
+				return new Search() {
+					public List<Place> findRoute(Place from, Place to, RoadFilter filter) {
+						return search.findRoute(from, to, filter);
+					}
+				};
+			}
+		},
+		new Engine("contraction hierarchy", false) {
+			Search prepare(CompiledGraph graph, Metric m) {
+				final ContractionHierarchyQuery query = new ContractionHierarchy(graph, m).newQuery();
+				return new Search() {
+					public List<Place> findRoute(Place from, Place to, RoadFilter filter) {
+						return query.findRoute(from, to);
+					}
+				};
+			}
+		},
+		new Engine("customizable hierarchy", false) {
+			Search prepare(CompiledGraph graph, Metric m) {
+				final CustomizableHierarchyQuery query = new CustomizableHierarchy(graph).customize(graph, m).newQuery();
+				return new Search() {
+					public List<Place> findRoute(Place from, Place to, RoadFilter filter) {
+						return query.findRoute(from, to);
+					}
+				};
+			}
+		}
+	};
+
+	@Test
+	public void testEnginesAgreeWithDijkstra() {
+		for (long seed = 0; seed < 10; seed++) {
+			ArrayList<City> cities = RandomGraphs.build(seed, 60);
+			// an unlinked place that no route reaches
+			cities.add(new City(" Alone", 10, new Coordinate(38, -98), 3.0));
+			CompiledGraph car = new CompiledGraph(cities);
+			for (SpeedProfile p : RandomGraphs.PROFILES) {
+				CompiledGraph graph = car.withProfile(p);
+				for (Metric m : Metric.values()) {
+					for (Engine engine : ENGINES) {
+						Search search = engine.prepare(graph, m);
+						for (RoadFilter filter : FILTERS) {
+							if (filter.isNone() || engine.filtered) {
+								checkRoutes(engine + " by " + p.getName(), search, cities, m, filter, p, new Random(seed));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMapAgreesWithDijkstra() {
+		Map map = new Map();
+		ArrayList<City> cities = RandomGraphs.build(11, 80);
+		for (City c : cities) {
+			map.insert(c);
+		}
+		Random random = new Random(11);
+		for (int round = 0; round < RandomGraphs.PROFILES.length; round++) {
+			SpeedProfile p = RandomGraphs.PROFILES[round];
+			map.setSpeedProfile(p);
+			// slow down some roads and close a few, then lift them all again in the last round
+			for (City city : cities) {
+				for (Link link : city.getNeighbors()) {
+					double factor = 1.0;
+					if (round < RandomGraphs.PROFILES.length - 1 && random.nextInt(3) == 0) {
+						factor = random.nextInt(8) == 0 ? Double.POSITIVE_INFINITY : 1.0 + random.nextDouble() * 3;
+					}
+					map.setTraffic(city, link.getPlace(), factor);
+				}
+			}
+			map.applyTraffic();
+			for (RouteAlgorithm algorithm : RouteAlgorithm.values()) {
+				map.setRouteAlgorithm(algorithm);
+				for (Metric m : Metric.values()) {
+					for (RoadFilter filter : FILTERS) {
+						checkRoutes("map " + algorithm + " by " + p.getName(), mapSearch(map, m), cities, m, filter, p,
+								new Random(round));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * checks the routes a search finds between random places against plain Dijkstra. Every
+	 * engine is given a random of the same seed, so they are all asked for the same routes.
+	 * @param name name of the search in failure messages
+	 * @param search
+	 * @param cities
+	 * @param m
+	 * @param filter
+	 * @param profile speed profile of the graph searched
+	 * @param random
+	 */
+	private static void checkRoutes(String name, Search search, ArrayList<City> cities, Metric m, RoadFilter filter,
+			SpeedProfile profile, Random random) {
+		for (int i = 0; i < 30; i++) {
+			City from = cities.get(random.nextInt(cities.size()));
+			City to = cities.get(random.nextInt(cities.size()));
+			try {
+				RandomGraphs.assertLeastCost(search.findRoute(from, to, filter), from, to, m, filter, profile);
+			} catch (AssertionError e) {
+				throw new AssertionError(name + ": " + e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * return a search that finds the routes of one metric with Map.route, by the route
+	 * algorithm the map is set to
+	 * @param map
+	 * @param m
+	 * @return
+	 */
+	private static Search mapSearch(final Map map, final Metric m) {
+		return new Search() {
+			public List<Place> findRoute(Place from, Place to, RoadFilter filter) {
+				return map.route(from, to, m, filter).getPlaces();
+			}
+		};
+	}
+
+	/**
+	 * Engine is one kind of route search, prepared once for every map and cost function the
+	 * equivalence check runs on
+	 * name - name of the search in failure messages
+	 * filtered - true if the search keeps to road filters, false if it only finds routes without one
+	 */
+	private static abstract class Engine {
+		private final String name;
+		private final boolean filtered;
+
+		private Engine(String name, boolean filtered) {
+			this.name = name;
+			this.filtered = filtered;
+		}
+
+		/**
+		 * return a search of this kind over a graph
+		 * @param graph
+		 * @param m
+		 * @return
+		 */
+		abstract Search prepare(CompiledGraph graph, Metric m);
+
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * Search finds routes with a prepared engine
+	 */
+	private interface Search {
+		List<Place> findRoute(Place from, Place to, RoadFilter filter);
+	}
+}
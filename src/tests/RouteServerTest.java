@@ -0,0 +1,147 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.Coordinate;
+import backend.Map;
+import backend.RouteServer;
+
+public class RouteServerTest {
+
+	@Test
+	public void testParseQuery() {
+		HashMap<String, String> q = RouteServer.parseQuery("from=Kansas+City&to=Topeka%20West&k=3");
+		assertEquals("Kansas City", q.get("from"));
+		assertEquals("Topeka West", q.get("to"));
+		assertEquals("3", q.get("k"));
+		// pairs without a name or badly escaped are left out, the last value of a name is kept
+		q = RouteServer.parseQuery("=x&novalue&bad=%zz&a=1&a=2&empty=");
+		assertEquals(2, q.size());
+		assertEquals("2", q.get("a"));
+		assertEquals("", q.get("empty"));
+		assertTrue(RouteServer.parseQuery(null).isEmpty());
+		assertTrue(RouteServer.parseQuery("").isEmpty());
+	}
+
+	@Test
+	public void testAppendString() {
+		StringBuilder json = new StringBuilder();
+		RouteServer.appendString(json, "say \"hi\" \\ to\ttab\n");
+		assertEquals("\"say \\\"hi\\\" \\\\ to\\u0009tab\\u000a\"", json.toString());
+		json = new StringBuilder();
+		RouteServer.appendString(json, "Salina \u00e9");
+		assertEquals("\"Salina \u00e9\"", json.toString());
+	}
+
+	@Test
+	public void testFallbackExecutor() throws Exception {
+		// a JDK without the factory method gets a fixed pool of platform threads
+		ExecutorService fallback = RouteServer.newRequestExecutor("noSuchFactory");
+		try {
+			assertTrue(fallback instanceof ThreadPoolExecutor);
+			assertEquals(Runtime.getRuntime().availableProcessors() * 4, ((ThreadPoolExecutor) fallback).getCorePoolSize());
+			Future<Integer> f = fallback.submit(new Callable<Integer>() {
+				public Integer call() {
+					return 42;
+				}
+			});
+			assertEquals(Integer.valueOf(42), f.get());
+		} finally {
+			fallback.shutdown();
+		}
+		ExecutorService requests = RouteServer.newRequestExecutor();
+		try {
+			assertEquals(Integer.valueOf(7), requests.submit(new Callable<Integer>() {
+				public Integer call() {
+					return 7;
+				}
+			}).get());
+		} finally {
+			requests.shutdown();
+		}
+	}
+
+	@Test
+	public void testEndpoints() throws IOException {
+		Map map = new Map();
+		ArrayList<City> cities = map.getAlpCityList();
+		City quoted = new City(" Say \"Hi\"", 10, new Coordinate(38, -98), 3.0);
+		map.insert(quoted);
+		RouteServer server = new RouteServer(map, 0);
+		server.start();
+		try {
+			String from = cities.get(0).getName().trim();
+			String to = cities.get(cities.size() - 1).getName().trim();
+			String[] route = get(server, "/route?from=" + enc(from) + "&to=" + enc(to) + "&metric=time");
+			assertEquals("200", route[0]);
+			assertTrue(route[1], route[1].startsWith("{\"found\":true,\"metric\":\"time\""));
+			assertTrue(route[1], route[1].contains("\"name\":\"" + from + "\""));
+			String[] place = get(server, "/place?name=" + enc(" Say \"Hi\""));
+			assertEquals("200", place[0]);
+			assertTrue(place[1], place[1].startsWith("{\"name\":\"Say \\\"Hi\\\"\""));
+			assertEquals("200", get(server, "/cities?sort=rating")[0]);
+			assertEquals("200", get(server, "/nearest?latitude=38&longitude=-98&k=100000")[0]);
+			// the bad requests
+			assertEquals("400", get(server, "/route?from=" + enc(from))[0]);
+			assertEquals("400", get(server, "/route?from=Nowhere&to=" + enc(to))[0]);
+			assertEquals("400", get(server, "/route?from=" + enc(from) + "&to=Nowhere")[0]);
+			assertEquals("400", get(server, "/route?from=" + enc(from) + "&to=" + enc(to) + "&metric=speed")[0]);
+			assertEquals("400", get(server, "/route?from=" + enc(from) + "&to=" + enc(to) + "&avoid=ferry")[0]);
+			assertEquals("400", get(server, "/nearest?latitude=north&longitude=-98&k=3")[0]);
+			assertEquals("400", get(server, "/nearest?latitude=38&longitude=-98&k=three")[0]);
+			assertEquals("400", get(server, "/nearest?latitude=38&longitude=-98&k=0")[0]);
+			assertEquals("400", get(server, "/nearest?latitude=38&longitude=-98&k=-2")[0]);
+			assertEquals("400", get(server, "/nearest?latitude=38&longitude=-98")[0]);
+			assertEquals("400", get(server, "/cities?sort=size")[0]);
+			assertEquals("400", get(server, "/place")[0]);
+			String[] missing = get(server, "/place?name=Nowhere");
+			assertEquals("404", missing[0]);
+			assertEquals("{\"error\":\"unknown place: Nowhere\"}", missing[1]);
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * return the status and the body of a GET request to the server
+	 */
+	private String[] get(RouteServer server, String path) throws IOException {
+		HttpURLConnection c = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+		try {
+			int status = c.getResponseCode();
+			InputStream in = status < 400 ? c.getInputStream() : c.getErrorStream();
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+				body.write(buffer, 0, n);
+			}
+			in.close();
+			return new String[] { String.valueOf(status), new String(body.toByteArray(), "UTF-8") };
+		} finally {
+			c.disconnect();
+		}
+	}
+
+	/**
+	 * return a name escaped for a query string
+	 */
+	private String enc(String s) throws IOException {
+		return URLEncoder.encode(s, "UTF-8");
+	}
+}
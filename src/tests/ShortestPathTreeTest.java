@@ -0,0 +1,123 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.CompiledGraph;
+import backend.Coordinate;
+import backend.Map;
+import backend.Place;
+import backend.RoadFilter;
+import backend.ShortestPathTree;
+import utils.Metric;
+
+public class ShortestPathTreeTest {
+
+	@Test
+	public void testTreeMatchesDijkstra() {
+		for (long seed = 0; seed < 8; seed++) {
+			ArrayList<City> cities = RandomGraphs.build(seed, 60);
+			CompiledGraph graph = new CompiledGraph(cities);
+			Random random = new Random(seed);
+			for (Metric m : Metric.values()) {
+				City root = cities.get(random.nextInt(cities.size()));
+				double[] costs = new double[cities.size()];
+				for (int i = 0; i < costs.length; i++) {
+					costs[i] = RandomGraphs.dijkstra(root, cities.get(i), m, RoadFilter.NONE);
+				}
+				double[] sorted = costs.clone();
+				Arrays.sort(sorted);
+				// limits half way between two costs, so no place is on the limit
+				int k = 1 + random.nextInt(sorted.length - 2);
+				double[] limits = { 0.0, (sorted[k] + sorted[k + 1]) / 2, Double.POSITIVE_INFINITY };
+				for (double limit : limits) {
+					assertTree(new ShortestPathTree(graph, root, m, limit), cities, costs, m, limit);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMapTree() {
+		Map map = new Map();
+		ArrayList<City> cities = RandomGraphs.build(9, 80);
+		for (City c : cities) {
+			map.insert(c);
+		}
+		City root = cities.get(0);
+		double[] costs = new double[cities.size()];
+		for (int i = 0; i < costs.length; i++) {
+			costs[i] = RandomGraphs.dijkstra(root, cities.get(i), Metric.TIME, RoadFilter.NONE);
+		}
+		ShortestPathTree tree = map.shortestPathTree(root, Metric.TIME, 1.5);
+		assertSame(root, tree.getRoot());
+		assertEquals(1.5, tree.getLimit(), 0.0);
+		assertSame(Metric.TIME, tree.getMetric());
+		for (int i = 0; i < costs.length; i++) {
+			City c = cities.get(i);
+			assertEquals(costs[i] <= 1.5, tree.isReached(c));
+			if (tree.isReached(c)) {
+				assertEquals(costs[i], tree.getCost(c), RandomGraphs.EPSILON);
+				RandomGraphs.assertLeastCost(tree.getRoute(c), root, c, Metric.TIME, RoadFilter.NONE);
+			}
+		}
+	}
+
+	@Test
+	public void testRootNotOnGraph() {
+		ArrayList<City> cities = RandomGraphs.build(2, 20);
+		CompiledGraph graph = new CompiledGraph(cities);
+		City alone = new City(" Alone", 10, new Coordinate(38, -98), 3.0);
+		ShortestPathTree tree = new ShortestPathTree(graph, alone, Metric.DISTANCE, Double.POSITIVE_INFINITY);
+		assertNull(tree.getRoot());
+		assertEquals(0, tree.getReachedCount());
+		assertTrue(tree.getReachedPlaces().isEmpty());
+		assertFalse(tree.isReached(cities.get(0)));
+		assertFalse(tree.isReached(alone));
+		assertTrue(tree.getRoute(cities.get(0)).isEmpty());
+	}
+
+	/**
+	 * checks a tree against the least costs from its root
+	 * @param tree
+	 * @param cities every place of the graph
+	 * @param costs least cost from the root to each city
+	 * @param m
+	 * @param limit
+	 */
+	private static void assertTree(ShortestPathTree tree, ArrayList<City> cities, double[] costs, Metric m,
+			double limit) {
+		Place root = tree.getRoot();
+		int reached = 0;
+		for (int i = 0; i < cities.size(); i++) {
+			City c = cities.get(i);
+			boolean inside = costs[i] <= limit;
+			assertEquals(inside, tree.isReached(c));
+			if (!inside) {
+				assertEquals(Double.POSITIVE_INFINITY, tree.getCost(c), 0.0);
+				assertNull(tree.getParent(c));
+				assertTrue(tree.getRoute(c).isEmpty());
+				continue;
+			}
+			reached++;
+			assertEquals(costs[i], tree.getCost(c), RandomGraphs.EPSILON);
+			ArrayList<Place> route = tree.getRoute(c);
+			RandomGraphs.assertLeastCost(route, root, c, m, RoadFilter.NONE);
+			assertSame(c == root ? null : route.get(route.size() - 2), tree.getParent(c));
+		}
+		assertEquals(reached, tree.getReachedCount());
+		ArrayList<Place> places = tree.getReachedPlaces();
+		assertEquals(reached, places.size());
+		assertSame(root, places.get(0));
+		for (int i = 1; i < places.size(); i++) {
+			assertTrue(tree.getCost(places.get(i - 1)) <= tree.getCost(places.get(i)));
+			assertSame(places.get(i), tree.getGraph().getPlace(tree.getReachedId(i)));
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.CompiledGraph;
+import backend.Coordinate;
+import backend.Link;
+import backend.Map;
+import backend.PlaceEstimateHeuristic;
+import backend.RoadFilter;
+import backend.SpeedProfile;
+import utils.Metric;
+import utils.RoadType;
+
+public class SpeedProfileTest {
+
+	@Test
+	public void testLinkTimes() {
+		City a = new City(" A", 10, new Coordinate(38, -98), 3.0);
+		City b = new City(" B", 10, new Coordinate(39, -97), 3.0);
+		String[] roads = { " I70", " H24", " R12" };
+		RoadType[] types = { RoadType.INTERSTATE, RoadType.HIGHWAY, RoadType.ROAD };
+		for (int i = 0; i < roads.length; i++) {
+			Link link = new Link(roads[i], a, b);
+			assertEquals(types[i], link.getRoadType());
+			assertEquals(link.getDistance() / SpeedProfile.CAR.getSpeed(types[i]), link.getTime(), RandomGraphs.EPSILON);
+			for (SpeedProfile p : RandomGraphs.PROFILES) {
+				assertEquals(link.getDistance() / p.getSpeed(types[i]), link.getTime(p), RandomGraphs.EPSILON);
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroSpeed() {
+		new SpeedProfile("parked", 85.0, 45.0, 75.0, 0.0);
+	}
+
+	@Test
+	public void testProfileGraphsAreKept() {
+		CompiledGraph car = new CompiledGraph(RandomGraphs.build(3, 40));
+		assertSame(SpeedProfile.CAR, car.getProfile());
+		assertSame(car, car.withProfile(SpeedProfile.CAR));
+		for (SpeedProfile p : RandomGraphs.PROFILES) {
+			CompiledGraph g = car.withProfile(p);
+			assertSame(p, g.getProfile());
+			assertSame(g, car.withProfile(p));
+			assertSame(g, g.withProfile(p));
+			assertSame(car, g.withProfile(SpeedProfile.CAR));
+			for (SpeedProfile q : RandomGraphs.PROFILES) {
+				assertSame(car.withProfile(q), g.withProfile(q));
+			}
+		}
+	}
+
+	@Test
+	public void testProfileGraphsShareAllButTime() throws Exception {
+		CompiledGraph car = new CompiledGraph(RandomGraphs.build(4, 40));
+		String[] shared = { "places", "ids", "offsets", "targets", "distance", "roadTypes", "links", "traffic",
+				"reverseOffsets", "reverseSources", "reverseEdges" };
+		for (SpeedProfile p : RandomGraphs.PROFILES) {
+			if (p == SpeedProfile.CAR) {
+				continue;
+			}
+			CompiledGraph g = car.withProfile(p);
+			assertEquals(car.nodeCount(), g.nodeCount());
+			assertEquals(car.edgeCount(), g.edgeCount());
+			for (String name : shared) {
+				assertSame(name, field(car, name), field(g, name));
+			}
+			assertNotSame(field(car, "time"), field(g, "time"));
+			for (int i = 0; i < car.nodeCount(); i++) {
+				assertSame(car.getPlace(i), g.getPlace(i));
+				assertEquals(i, g.indexOf(car.getPlace(i)));
+			}
+		}
+	}
+
+	@Test
+	public void testTimeEstimateIsLowerBound() {
+		ArrayList<City> cities = RandomGraphs.build(3, 40);
+		CompiledGraph car = new CompiledGraph(cities);
+		for (SpeedProfile p : RandomGraphs.PROFILES) {
+			CompiledGraph g = car.withProfile(p);
+			PlaceEstimateHeuristic heuristic = new PlaceEstimateHeuristic(g, Metric.TIME);
+			for (City from : cities) {
+				City to = cities.get(0);
+				double least = RandomGraphs.dijkstra(from, to, Metric.TIME, RoadFilter.NONE, p);
+				assertTrue(heuristic.estimate(g.indexOf(from), g.indexOf(to)) <= least + RandomGraphs.EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void testMapProfile() {
+		Map map = new Map();
+		ArrayList<City> cities = RandomGraphs.build(7, 80);
+		for (City c : cities) {
+			map.insert(c);
+		}
+		for (SpeedProfile p : RandomGraphs.PROFILES) {
+			map.setSpeedProfile(p);
+			assertSame(p, map.getSpeedProfile());
+			assertSame(p, map.getSpeedProfile(p.getName()));
+			assertSame(p, map.getGraph().getProfile());
+		}
+	}
+
+	/**
+	 * return a private field of a graph, to see which arrays two graphs share
+	 * @param graph
+	 * @param name
+	 * @return
+	 */
+	private static Object field(CompiledGraph graph, String name) throws Exception {
+		Field f = CompiledGraph.class.getDeclaredField(name);
+		f.setAccessible(true);
+		return f.get(graph);
+	}
+}
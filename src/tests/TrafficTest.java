@@ -0,0 +1,41 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import backend.City;
+import backend.Link;
+import backend.Map;
+import backend.RoadFilter;
+import utils.Metric;
+import utils.RouteAlgorithm;
+
+public class TrafficTest {
+
+	@Test
+	public void testDistanceIgnoresTraffic() {
+		Map map = new Map();
+		ArrayList<City> cities = map.getAlpCityList();
+		for (City city : cities) {
+			for (Link link : city.getNeighbors()) {
+				map.setTraffic(city, link.getPlace(), 4.0);
+			}
+		}
+		map.applyTraffic();
+		City from = cities.get(0);
+		City to = cities.get(cities.size() - 1);
+		for (RouteAlgorithm algorithm : RouteAlgorithm.values()) {
+			map.setRouteAlgorithm(algorithm);
+			RandomGraphs.assertLeastCost(map.route(from, to, Metric.DISTANCE).getPlaces(), from, to, Metric.DISTANCE, RoadFilter.NONE);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFactorBelowOne() {
+		ArrayList<City> cities = RandomGraphs.build(1, 3);
+		cities.get(1).getNeighbors().get(0).setTraffic(0.5);
+	}
+}
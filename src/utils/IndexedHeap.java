@@ -0,0 +1,224 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+
+/**
+ * The IndexedHeap class is a minimum 4-ary heap of generic elements that are each
+ * queued with a double key. Every element can be in the heap at most once and a
+ * position map from element to heap index lets contains run in constant time and
+ * decreaseKey run in logarithmic time without searching the heap.
+ *
+ * Variables:
+ * 		elements - the heap array of elements
+ * 		keys - the key of the element in the same position of elements
+ * 		positions - hashmap from element to its index in the heap arrays
+ * Constructors:
+ * 		IndexedHeap()
+ * Methods:
+ * 		boolean offer(T o, double key)
+ * 		boolean decreaseKey(T o, double key)
+ * 		T peek()
+ * 		double peekKey()
+ * 		T poll()
+ * 		boolean contains(T o)
+ * 		double getKey(T o)
+ * 		int size()
+ * 		boolean isEmpty()
+ * 		void clear()
+ */
+public class IndexedHeap<T> {
+
+	private static final int D = 4;
+	private final ArrayList<T> elements;
+	private double[] keys;
+	private final HashMap<T, Integer> positions;
+
+	public IndexedHeap() {
+		elements = new ArrayList<T>();
+		keys = new double[16];
+		positions = new HashMap<T, Integer>();
+	}
+
+	/**
+	 * Inserts the specified element with the given key.
+	 * @return true if element added and false if it is already in the heap
+	 */
+	public boolean offer(T o, double key) {
+		if (positions.containsKey(o)) {
+			return false;
+		}
+		int pos = elements.size();
+		if (pos == keys.length) {
+			double[] grown = new double[keys.length * 2];
+			System.arraycopy(keys, 0, grown, 0, keys.length);
+			keys = grown;
+		}
+		elements.add(o);
+		keys[pos] = key;
+		positions.put(o, pos);
+		siftUp(pos);
+		return true;
+	}
+
+	/**
+	 * Lowers the key of an element that is already in the heap.
+	 * @return true if the key was lowered and false if the element is not in the heap
+	 * 		or the given key is not smaller than its current key
+	 */
+	public boolean decreaseKey(T o, double key) {
+		Integer pos = positions.get(o);
+		if (pos == null || !(key < keys[pos])) {
+			return false;
+		}
+		keys[pos] = key;
+		siftUp(pos);
+		return true;
+	}
+
+	/**
+	 * Retrieves, but does not remove, the element with the least key,
+	 * or returns null if this heap is empty.
+	 * @return head of the heap
+	 */
+	public T peek() {
+		return elements.isEmpty() ? null : elements.get(0);
+	}
+
+	/**
+	 * Retrieves the least key in the heap.
+	 * @return key of the head of the heap
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public double peekKey() {
+		if (elements.isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		return keys[0];
+	}
+
+	/**
+	 * Retrieves and removes the element with the least key,
+	 * or returns null if this heap is empty.
+	 * @return head of the heap
+	 */
+	public T poll() {
+		if (elements.isEmpty()) {
+			return null;
+		}
+		T head = elements.get(0);
+		positions.remove(head);
+		int last = elements.size() - 1;
+		T moved = elements.remove(last);
+		if (last > 0) {
+			elements.set(0, moved);
+			keys[0] = keys[last];
+			positions.put(moved, 0);
+			siftDown(0);
+		}
+		return head;
+	}
+
+	/**
+	 * @return true if the element is in the heap
+	 */
+	public boolean contains(T o) {
+		return positions.containsKey(o);
+	}
+
+	/**
+	 * Retrieves the key an element is queued with.
+	 * @return key of the element
+	 * @throws NoSuchElementException if the element is not in the heap
+	 */
+	public double getKey(T o) {
+		Integer pos = positions.get(o);
+		if (pos == null) {
+			throw new NoSuchElementException();
+		}
+		return keys[pos];
+	}
+
+	/**
+	 * @return Returns the number of elements in this heap.
+	 */
+	public int size() {
+		return elements.size();
+	}
+
+	/**
+	 * @return true if the heap has no elements
+	 */
+	public boolean isEmpty() {
+		return elements.isEmpty();
+	}
+
+	/**
+	 * removes every element from the heap
+	 */
+	public void clear() {
+		elements.clear();
+		positions.clear();
+	}
+
+	/**
+	 * moves the element at the given position up until its parent has a smaller or equal key
+	 * @param pos
+	 */
+	private void siftUp(int pos) {
+		T o = elements.get(pos);
+		double key = keys[pos];
+		while (pos > 0) {
+			int parentPos = (pos - 1) / D;
+			if (!(key < keys[parentPos])) {
+				break;
+			}
+			place(elements.get(parentPos), keys[parentPos], pos);
+			pos = parentPos;
+		}
+		place(o, key, pos);
+	}
+
+	/**
+	 * moves the element at the given position down until none of its children has a smaller key
+	 * @param pos
+	 */
+	private void siftDown(int pos) {
+		T o = elements.get(pos);
+		double key = keys[pos];
+		int size = elements.size();
+		while (true) {
+			int firstChild = pos * D + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			// find least child
+			int least = firstChild;
+			int end = Math.min(firstChild + D, size);
+			for (int c = firstChild + 1; c < end; c++) {
+				if (keys[c] < keys[least]) {
+					least = c;
+				}
+			}
+			if (!(keys[least] < key)) {
+				break;
+			}
+			place(elements.get(least), keys[least], pos);
+			pos = least;
+		}
+		place(o, key, pos);
+	}
+
+	/**
+	 * stores an element and its key at a heap position and records the position
+	 * @param o
+	 * @param key
+	 * @param pos
+	 */
+	private void place(T o, double key, int pos) {
+		elements.set(pos, o);
+		keys[pos] = key;
+		positions.put(o, pos);
+	}
+}
@@ -0,0 +1,230 @@
+package utils;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The IntDoubleHeap class is a minimum 4-ary heap of int ids in the range [0, capacity)
+ * that are each queued with a double key. It is the primitive counterpart of IndexedHeap:
+ * ids, keys and heap positions live in parallel arrays, so no operation boxes a value or
+ * allocates an object. clear() only resets the slots that are in use, which lets one heap
+ * be reused by every query of a search.
+ *
+ * Variables:
+ * 		heap - the heap array of ids
+ * 		keys - the key of the id in the same position of heap
+ * 		positions - index in heap of every id, or -1 if the id is not in the heap
+ * 		size - the number of ids in the heap
+ * Constructors:
+ * 		IntDoubleHeap(int capacity)
+ * Methods:
+ * 		boolean offer(int id, double key)
+ * 		boolean decreaseKey(int id, double key)
+ * 		int peek()
+ * 		double peekKey()
+ * 		int poll()
+ * 		boolean contains(int id)
+ * 		double getKey(int id)
+ * 		int size()
+ * 		boolean isEmpty()
+ * 		void clear()
+ * 		int capacity()
+ */
+public class IntDoubleHeap {
+
+	private static final int D = 4;
+	private final int[] heap;
+	private final double[] keys;
+	private final int[] positions;
+	private int size;
+
+	/**
+	 * @param capacity one more than the largest id that will be queued
+	 */
+	public IntDoubleHeap(int capacity) {
+		heap = new int[capacity];
+		keys = new double[capacity];
+		positions = new int[capacity];
+		for (int i = 0; i < capacity; i++) {
+			positions[i] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Inserts the specified id with the given key.
+	 * @return true if the id was added and false if it is already in the heap
+	 */
+	public boolean offer(int id, double key) {
+		if (positions[id] != -1) {
+			return false;
+		}
+		siftUp(size++, id, key);
+		return true;
+	}
+
+	/**
+	 * Lowers the key of an id that is already in the heap.
+	 * @return true if the key was lowered and false if the id is not in the heap
+	 * 		or the given key is not smaller than its current key
+	 */
+	public boolean decreaseKey(int id, double key) {
+		int pos = positions[id];
+		if (pos == -1 || !(key < keys[pos])) {
+			return false;
+		}
+		siftUp(pos, id, key);
+		return true;
+	}
+
+	/**
+	 * Retrieves, but does not remove, the id with the least key.
+	 * @return head of the heap
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int peek() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return heap[0];
+	}
+
+	/**
+	 * Retrieves the least key in the heap.
+	 * @return key of the head of the heap
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public double peekKey() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return keys[0];
+	}
+
+	/**
+	 * Retrieves and removes the id with the least key.
+	 * @return head of the heap
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int poll() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int head = heap[0];
+		positions[head] = -1;
+		size--;
+		if (size > 0) {
+			siftDown(0, heap[size], keys[size]);
+		}
+		return head;
+	}
+
+	/**
+	 * @return true if the id is in the heap
+	 */
+	public boolean contains(int id) {
+		return positions[id] != -1;
+	}
+
+	/**
+	 * Retrieves the key an id is queued with.
+	 * @return key of the id
+	 * @throws NoSuchElementException if the id is not in the heap
+	 */
+	public double getKey(int id) {
+		int pos = positions[id];
+		if (pos == -1) {
+			throw new NoSuchElementException();
+		}
+		return keys[pos];
+	}
+
+	/**
+	 * @return Returns the number of ids in this heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true if the heap has no ids
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * removes every id from the heap, touching only the slots that are in use
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * @return one more than the largest id the heap can hold
+	 */
+	public int capacity() {
+		return positions.length;
+	}
+
+	/**
+	 * moves an id up from the given position until its parent has a smaller or equal key
+	 * @param pos
+	 * @param id
+	 * @param key
+	 */
+	private void siftUp(int pos, int id, double key) {
+		while (pos > 0) {
+			int parentPos = (pos - 1) / D;
+			if (!(key < keys[parentPos])) {
+				break;
+			}
+			place(heap[parentPos], keys[parentPos], pos);
+			pos = parentPos;
+		}
+		place(id, key, pos);
+	}
+
+	/**
+	 * moves an id down from the given position until none of its children has a smaller key
+	 * @param pos
+	 * @param id
+	 * @param key
+	 */
+	private void siftDown(int pos, int id, double key) {
+		while (true) {
+			int firstChild = pos * D + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			// find least child
+			int least = firstChild;
+			int end = Math.min(firstChild + D, size);
+			for (int c = firstChild + 1; c < end; c++) {
+				if (keys[c] < keys[least]) {
+					least = c;
+				}
+			}
+			if (!(keys[least] < key)) {
+				break;
+			}
+			place(heap[least], keys[least], pos);
+			pos = least;
+		}
+		place(id, key, pos);
+	}
+
+	/**
+	 * stores an id and its key at a heap position and records the position
+	 * @param id
+	 * @param key
+	 * @param pos
+	 */
+	private void place(int id, double key, int pos) {
+		heap[pos] = id;
+		keys[pos] = key;
+		positions[id] = pos;
+	}
+}
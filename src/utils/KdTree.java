@@ -0,0 +1,373 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import backend.Place;
+
+/**
+ * KdTree is a two dimensional tree over the coordinates of places that finds the places nearest
+ * to a point and the places within a distance of it without looking at every place. Each node
+ * splits its subtree on the x or the y coordinate of its place, alternating with depth.
+ * The tree stays balanced as a scapegoat tree: when an insertion ends deeper than the size of the
+ * tree allows, the subtree of the first ancestor that is out of balance is built again evenly.
+ * Removed places are only marked, and the whole tree is built again once they are half of it.
+ * Distances are straight lines between coordinates, in the units of the coordinates.
+ * root - root node of the tree
+ * size - number of places in the tree
+ * removed - number of nodes whose place has been removed
+ */
+public class KdTree<T extends Place> {
+
+	private static final double ALPHA = 0.7;
+	private Node root;
+	private int size;
+	private int removed;
+
+	/**
+	 * this constructor instantiates an empty tree
+	 */
+	public KdTree() {
+		root = null;
+		size = 0;
+		removed = 0;
+	}
+
+	/**
+	 * the size() method returns the number of places in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * the isEmpty() method returns true if the tree has no places
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * the insert() method adds a place to the tree
+	 * @param element
+	 * @return true if the place was added, false if it is already in the tree
+	 */
+	public boolean insert(T element) {
+		if (contains(element)) {
+			return false;
+		}
+		Node node = new Node(element);
+		size++;
+		if (root == null) {
+			node.axis = 0;
+			root = node;
+			return true;
+		}
+		ArrayList<Node> path = new ArrayList<Node>();
+		Node current = root;
+		while (true) {
+			path.add(current);
+			current.count++;
+			boolean left = node.key(current.axis) < current.key(current.axis);
+			Node next = left ? current.left : current.right;
+			if (next == null) {
+				node.axis = 1 - current.axis;
+				if (left) {
+					current.left = node;
+				} else {
+					current.right = node;
+				}
+				break;
+			}
+			current = next;
+		}
+		// a scapegoat is needed when the new node is deeper than log base 1/ALPHA of the node count
+		if (path.size() > Math.log(root.count) / Math.log(1 / ALPHA) + 1) {
+			for (int i = path.size() - 1; i >= 0; i--) {
+				Node ancestor = path.get(i);
+				if (count(ancestor.left) > ALPHA * ancestor.count || count(ancestor.right) > ALPHA * ancestor.count) {
+					Node rebuilt = rebuild(ancestor);
+					if (i == 0) {
+						root = rebuilt;
+					} else if (path.get(i - 1).left == ancestor) {
+						path.get(i - 1).left = rebuilt;
+					} else {
+						path.get(i - 1).right = rebuilt;
+					}
+					// the nodes above lost the removed nodes of the rebuilt subtree
+					int dropped = ancestor.count - count(rebuilt);
+					for (int j = 0; j < i; j++) {
+						path.get(j).count -= dropped;
+					}
+					removed -= dropped;
+					break;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * the remove() method removes a place from the tree
+	 * @param element
+	 * @return true if the place was removed, false if it was not in the tree
+	 */
+	public boolean remove(T element) {
+		Node node = find(root, element);
+		if (node == null) {
+			return false;
+		}
+		node.removed = true;
+		size--;
+		removed++;
+		if (removed > size) {
+			root = root == null ? null : rebuild(root);
+			removed = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * the contains() method returns true if the place is in the tree
+	 * @param element
+	 */
+	public boolean contains(T element) {
+		return find(root, element) != null;
+	}
+
+	/**
+	 * return the node of a place that has not been removed, looking on both sides of a node
+	 * whose key equals the key of the place
+	 */
+	private Node find(Node node, T element) {
+		double x = element.getLocation().getX();
+		double y = element.getLocation().getY();
+		while (node != null) {
+			if (node.element == element && !node.removed) {
+				return node;
+			}
+			double key = node.axis == 0 ? x : y;
+			double split = node.key(node.axis);
+			if (key < split) {
+				node = node.left;
+			} else if (key > split) {
+				node = node.right;
+			} else {
+				Node found = find(node.left, element);
+				if (found != null) {
+					return found;
+				}
+				node = node.right;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * the nearest() method returns the places closest to a point
+	 * @param x
+	 * @param y
+	 * @param k number of places wanted
+	 * @return up to k places ordered from the closest
+	 */
+	public ArrayList<T> nearest(double x, double y, int k) {
+		// the queue never holds more places than the tree, whatever k is asked for
+		k = Math.min(k, size);
+		PriorityQueue<Candidate> best = new PriorityQueue<Candidate>(Math.max(0, k) + 1, new Comparator<Candidate>() {
+			public int compare(Candidate a, Candidate b) {
+				return Double.compare(b.distance, a.distance);
+			}
+		});
+		if (k > 0) {
+			nearest(root, x, y, k, best);
+		}
+		ArrayList<T> result = new ArrayList<T>(best.size());
+		while (!best.isEmpty()) {
+			result.add(best.poll().element);
+		}
+		Collections.reverse(result);
+		return result;
+	}
+
+	/**
+	 * visits the side of a node the point is on first, and the other side only if it can hold
+	 * a place closer than the k found so far
+	 */
+	private void nearest(Node node, double x, double y, int k, PriorityQueue<Candidate> best) {
+		while (node != null) {
+			if (!node.removed) {
+				double d = node.distance(x, y);
+				if (best.size() < k) {
+					best.add(new Candidate(node.element, d));
+				} else if (d < best.peek().distance) {
+					best.poll();
+					best.add(new Candidate(node.element, d));
+				}
+			}
+			double diff = (node.axis == 0 ? x : y) - node.key(node.axis);
+			Node near = diff < 0 ? node.left : node.right;
+			Node far = diff < 0 ? node.right : node.left;
+			nearest(near, x, y, k, best);
+			if (best.size() == k && Math.abs(diff) >= best.peek().distance) {
+				return;
+			}
+			node = far;
+		}
+	}
+
+	/**
+	 * the withinRadius() method returns the places no farther from a point than a radius
+	 * @param x
+	 * @param y
+	 * @param radius
+	 * @return the places ordered from the closest
+	 */
+	public ArrayList<T> withinRadius(double x, double y, double radius) {
+		ArrayList<Candidate> found = new ArrayList<Candidate>();
+		withinRadius(root, x, y, radius, found);
+		Collections.sort(found, new Comparator<Candidate>() {
+			public int compare(Candidate a, Candidate b) {
+				return Double.compare(a.distance, b.distance);
+			}
+		});
+		ArrayList<T> result = new ArrayList<T>(found.size());
+		for (Candidate c : found) {
+			result.add(c.element);
+		}
+		return result;
+	}
+
+	/**
+	 * visits only the sides of a node that can hold places within the radius
+	 */
+	private void withinRadius(Node node, double x, double y, double radius, ArrayList<Candidate> found) {
+		while (node != null) {
+			if (!node.removed) {
+				double d = node.distance(x, y);
+				if (d <= radius) {
+					found.add(new Candidate(node.element, d));
+				}
+			}
+			double diff = (node.axis == 0 ? x : y) - node.key(node.axis);
+			boolean left = diff <= radius;
+			boolean right = diff >= -radius;
+			if (left && right) {
+				withinRadius(node.right, x, y, radius, found);
+			}
+			node = left ? node.left : (right ? node.right : null);
+		}
+	}
+
+	/**
+	 * return the number of nodes in a subtree, removed ones included
+	 */
+	private int count(Node node) {
+		return node == null ? 0 : node.count;
+	}
+
+	/**
+	 * builds a subtree again evenly from the nodes of its places that were not removed
+	 * @param node root of the subtree
+	 * @return root of the new subtree, null if every place in it was removed
+	 */
+	private Node rebuild(Node node) {
+		ArrayList<Node> nodes = new ArrayList<Node>(node.count);
+		collect(node, nodes);
+		return build(nodes, 0, nodes.size(), node.axis);
+	}
+
+	/**
+	 * adds the nodes of a subtree whose places were not removed to a list
+	 */
+	private void collect(Node node, ArrayList<Node> nodes) {
+		while (node != null) {
+			if (!node.removed) {
+				nodes.add(node);
+			}
+			collect(node.left, nodes);
+			node = node.right;
+		}
+	}
+
+	/**
+	 * builds an even subtree of the nodes from index from up to index to, split at the median
+	 * @param axis 0 to split the nodes on x, 1 to split them on y
+	 * @return root of the subtree
+	 */
+	private Node build(ArrayList<Node> nodes, int from, int to, final int axis) {
+		if (from >= to) {
+			return null;
+		}
+		Collections.sort(nodes.subList(from, to), new Comparator<Node>() {
+			public int compare(Node a, Node b) {
+				return Double.compare(a.key(axis), b.key(axis));
+			}
+		});
+		int middle = (from + to) >>> 1;
+		Node node = nodes.get(middle);
+		node.axis = axis;
+		node.left = build(nodes, from, middle, 1 - axis);
+		node.right = build(nodes, middle + 1, to, 1 - axis);
+		node.count = to - from;
+		return node;
+	}
+
+	/**
+	 * Node is a place in the tree with the coordinate its subtree is split on
+	 * element - the place
+	 * x, y - coordinates of the place
+	 * axis - 0 if the subtree is split on x, 1 if it is split on y
+	 * count - number of nodes in the subtree, removed ones included
+	 * removed - true if the place has been removed from the tree
+	 * left, right - subtrees of the places with a key no larger and no smaller than that of the
+ * 		place, places with an equal key can be on either side
+	 */
+	private class Node {
+		private final T element;
+		private final double x;
+		private final double y;
+		private int axis;
+		private int count;
+		private boolean removed;
+		private Node left;
+		private Node right;
+
+		private Node(T element) {
+			this.element = element;
+			this.x = element.getLocation().getX();
+			this.y = element.getLocation().getY();
+			this.count = 1;
+		}
+
+		/**
+		 * return the coordinate of the place on an axis
+		 */
+		private double key(int axis) {
+			return axis == 0 ? x : y;
+		}
+
+		/**
+		 * return the straight line distance from the place to a point
+		 */
+		private double distance(double px, double py) {
+			double dx = x - px;
+			double dy = y - py;
+			return Math.sqrt(dx * dx + dy * dy);
+		}
+	}
+
+	/**
+	 * Candidate is a place found by a query with its distance to the point
+	 */
+	private class Candidate {
+		private final T element;
+		private final double distance;
+
+		private Candidate(T element, double distance) {
+			this.element = element;
+			this.distance = distance;
+		}
+	}
+}
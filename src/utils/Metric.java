@@ -0,0 +1,22 @@
+package utils;
+/**
+ * enumerates the cost functions a route can be found with
+ */
+public enum Metric {
+	DISTANCE, TIME;
+	
+	/**
+	 * return the metric named by a cost type string such as "distance" or "time"
+	 * @param type name of the cost type, only its first letter is looked at
+	 * @return the metric for the type
+	 */
+	public static Metric fromString(String type) {
+		char c = type.charAt(0);
+		if (c == 'd' || c == 'D') {
+			return DISTANCE;
+		} else if (c == 't' || c == 'T') {
+			return TIME;
+		}
+		throw new IllegalArgumentException("Unknown cost type: " + type);
+	}
+}
@@ -0,0 +1,223 @@
+package utils;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * QuadTree keeps items by the rectangle they cover and finds the items that cover part of an
+ * area without looking at the others. A node holds up to CAPACITY items before it is split into
+ * four quarters; an item goes to the smallest node whose quarter holds its whole rectangle, so
+ * items that cross a split stay in the node above. Items outside the bounds of the tree are kept
+ * in the root, where every query looks at them.
+ * Queries return the items in the order they were inserted, so shapes drawn from a query overlap
+ * the same way as shapes drawn from a list.
+ * root - root node, covering the bounds given to the constructor
+ * size - number of items in the tree
+ * inserted - number of items inserted so far, which orders the items
+ */
+public class QuadTree<T> {
+
+	private static final int CAPACITY = 16;
+	private static final int MAX_DEPTH = 12;
+	private Node root;
+	private int size;
+	private long inserted;
+
+	/**
+	 * this constructor instantiates an empty tree
+	 * @param bounds the area most items are in
+	 */
+	public QuadTree(Rectangle2D bounds) {
+		root = new Node(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY(), 0);
+		size = 0;
+		inserted = 0;
+	}
+
+	/**
+	 * the size() method returns the number of items in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * the clear() method removes every item from the tree
+	 */
+	public void clear() {
+		root = new Node(root.minX, root.minY, root.maxX, root.maxY, 0);
+		size = 0;
+	}
+
+	/**
+	 * the insert() method adds an item to the tree
+	 * @param item
+	 * @param bounds the rectangle the item covers
+	 */
+	public void insert(T item, Rectangle2D bounds) {
+		Entry e = new Entry(item, bounds, inserted++);
+		Node node = root;
+		while (node.children != null) {
+			Node child = node.childHolding(e);
+			if (child == null) {
+				break;
+			}
+			node = child;
+		}
+		node.entries.add(e);
+		size++;
+		if (node.children == null && node.entries.size() > CAPACITY && node.depth < MAX_DEPTH) {
+			node.split();
+		}
+	}
+
+	/**
+	 * the remove() method removes an item from the tree
+	 * @param item
+	 * @param bounds the rectangle the item was inserted with
+	 * @return true if the item was removed, false if it was not in the tree
+	 */
+	public boolean remove(T item, Rectangle2D bounds) {
+		Entry e = new Entry(item, bounds, 0);
+		Node node = root;
+		while (node != null) {
+			for (int i = 0; i < node.entries.size(); i++) {
+				if (node.entries.get(i).item == item) {
+					node.entries.remove(i);
+					size--;
+					return true;
+				}
+			}
+			node = node.children == null ? null : node.childHolding(e);
+		}
+		return false;
+	}
+
+	/**
+	 * the query() method returns the items whose rectangle meets an area, edges included
+	 * @param area
+	 * @return the items in the order they were inserted
+	 */
+	public ArrayList<T> query(Rectangle2D area) {
+		ArrayList<Entry> found = new ArrayList<Entry>();
+		root.query(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY(), found, true);
+		Collections.sort(found, new Comparator<Entry>() {
+			public int compare(Entry a, Entry b) {
+				return Long.compare(a.order, b.order);
+			}
+		});
+		ArrayList<T> items = new ArrayList<T>(found.size());
+		for (Entry e : found) {
+			items.add(e.item);
+		}
+		return items;
+	}
+
+	/**
+	 * Node is a square of the tree with the items kept in it
+	 * minX, minY, maxX, maxY - the area of the node
+	 * depth - number of splits above the node
+	 * entries - the items kept in this node
+	 * children - the four quarters of the node, null until it is split
+	 */
+	private class Node {
+		private final double minX;
+		private final double minY;
+		private final double maxX;
+		private final double maxY;
+		private final int depth;
+		private final ArrayList<Entry> entries;
+		private ArrayList<Node> children;
+
+		private Node(double minX, double minY, double maxX, double maxY, int depth) {
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.depth = depth;
+			this.entries = new ArrayList<Entry>();
+		}
+
+		/**
+		 * return the quarter that holds the whole rectangle of an entry
+		 * @return the quarter, or null if the rectangle crosses a split
+		 */
+		private Node childHolding(Entry e) {
+			for (Node child : children) {
+				if (e.minX >= child.minX && e.maxX <= child.maxX && e.minY >= child.minY && e.maxY <= child.maxY) {
+					return child;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * splits the node into quarters and moves down the entries that fit in one
+		 */
+		private void split() {
+			double midX = (minX + maxX) / 2;
+			double midY = (minY + maxY) / 2;
+			children = new ArrayList<Node>(4);
+			children.add(new Node(minX, minY, midX, midY, depth + 1));
+			children.add(new Node(midX, minY, maxX, midY, depth + 1));
+			children.add(new Node(minX, midY, midX, maxY, depth + 1));
+			children.add(new Node(midX, midY, maxX, maxY, depth + 1));
+			ArrayList<Entry> kept = new ArrayList<Entry>();
+			for (Entry e : entries) {
+				Node child = childHolding(e);
+				if (child == null) {
+					kept.add(e);
+				} else {
+					child.entries.add(e);
+				}
+			}
+			entries.clear();
+			entries.addAll(kept);
+		}
+
+		/**
+		 * adds the entries of this node and of its quarters that meet an area
+		 * @param root true for the root, which may hold entries outside its own area
+		 */
+		private void query(double x0, double y0, double x1, double y1, ArrayList<Entry> found, boolean root) {
+			if (!root && (x1 < minX || x0 > maxX || y1 < minY || y0 > maxY)) {
+				return;
+			}
+			for (Entry e : entries) {
+				if (e.maxX >= x0 && e.minX <= x1 && e.maxY >= y0 && e.minY <= y1) {
+					found.add(e);
+				}
+			}
+			if (children != null) {
+				for (Node child : children) {
+					child.query(x0, y0, x1, y1, found, false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Entry is an item with its rectangle
+	 * item - the item
+	 * minX, minY, maxX, maxY - the rectangle the item covers
+	 * order - number of items inserted before it
+	 */
+	private class Entry {
+		private final T item;
+		private final double minX;
+		private final double minY;
+		private final double maxX;
+		private final double maxY;
+		private final long order;
+
+		private Entry(T item, Rectangle2D bounds, long order) {
+			this.item = item;
+			this.minX = bounds.getMinX();
+			this.minY = bounds.getMinY();
+			this.maxX = bounds.getMaxX();
+			this.maxY = bounds.getMaxY();
+			this.order = order;
+		}
+	}
+}
@@ -1,7 +1,7 @@
 package utils;
 /**
- * enumerates the types of road
+ * enumerates the types of road, ROUTE and ALTERNATIVE are only used to draw found routes
  */
 public enum RoadType {
-	INTERSTATE, HIGHWAY, TOLLWAY, ROAD, ROUTE
+	INTERSTATE, HIGHWAY, TOLLWAY, ROAD, ROUTE, ALTERNATIVE
 }
@@ -0,0 +1,17 @@
+package utils;
+/**
+ * enumerates the search algorithms the Map can find routes with
+ * ASTAR - A* search over the compiled graph, needs no preprocessing
+ * BIDIRECTIONAL - Dijkstra search from both ends at once that stops when the two searches
+ * 		cannot meet any cheaper, needs no preprocessing
+ * ALT - A* search guided by landmark bounds that are preprocessed for each metric the first
+ * 		time it is used
+ * CONTRACTION_HIERARCHY - bidirectional search over a contraction hierarchy that is
+ * 		preprocessed for each metric the first time it is used
+ * CUSTOMIZABLE_HIERARCHY - search up the elimination tree of a customizable contraction
+ * 		hierarchy, whose shortcuts do not depend on costs and are kept when traffic changes;
+ * 		only their costs are computed again
+ */
+public enum RouteAlgorithm {
+	ASTAR, BIDIRECTIONAL, ALT, CONTRACTION_HIERARCHY, CUSTOMIZABLE_HIERARCHY
+}